@@ -3,8 +3,10 @@ package edu.infnet.inventorize;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
+@EnableScheduling
 @SpringBootApplication
 @RequiredArgsConstructor
 public class InventorizeApiApplication {
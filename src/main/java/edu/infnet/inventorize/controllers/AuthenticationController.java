@@ -1,15 +1,18 @@
 package edu.infnet.inventorize.controllers;
 
 import edu.infnet.inventorize.dto.request.AuthenticationRequestDTO;
+import edu.infnet.inventorize.dto.request.RefreshTokenRequestDTO;
 import edu.infnet.inventorize.dto.response.AuthenticationResponseDTO;
 import edu.infnet.inventorize.dto.response.UserResponseDTO;
 import edu.infnet.inventorize.services.AuthenticationService;
+import edu.infnet.inventorize.services.auth.AuthenticationRateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
@@ -29,12 +32,15 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Tag(name = "Controller de Autenticação", description = "Endpoints para autenticação de usuários")
 public class AuthenticationController {
     private final AuthenticationService authenticationService;
+    private final AuthenticationRateLimiter rateLimiter;
 
 
     /**
      * Endpoint para autenticar um usuário.
+     * As tentativas são limitadas por conta e por endereço do cliente antes de qualquer verificação de senha.
      *
      * @param userData Dyo contendo os dados de autenticação do usuário.
+     * @param request  Requisição HTTP, usada para identificar o endereço do cliente.
      * @return Resposta com os dados do usuário autenticado.
      */
     @Operation(
@@ -98,10 +104,27 @@ public class AuthenticationController {
                                     )
                             }
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Muitas tentativas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "status": 429,
+                                              "message": "Muitas tentativas, tente novamente mais tarde",
+                                              "errorDetails": "Muitas tentativas para esta conta",
+                                              "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                            }"""
+                            )
+                    )
             )
     })
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponseDTO> login(@RequestBody @Valid AuthenticationRequestDTO userData) {
+    public ResponseEntity<AuthenticationResponseDTO> login(@RequestBody @Valid AuthenticationRequestDTO userData, HttpServletRequest request) {
+        rateLimiter.check(userData.email(), request.getRemoteAddr());
         AuthenticationResponseDTO authenticatedUser = authenticationService.authenticate(userData);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(authenticatedUser);
@@ -109,8 +132,10 @@ public class AuthenticationController {
 
     /**
      * Endpoint para registrar um novo usuário.
+     * As tentativas são limitadas por conta e por endereço do cliente antes do cálculo do hash da senha.
      *
      * @param userData Dados do usuário a ser registrado.
+     * @param request  Requisição HTTP, usada para identificar o endereço do cliente.
      * @return Resposta com os dados do usuário registrado.
      */
     @Operation(
@@ -177,12 +202,101 @@ public class AuthenticationController {
             )
     })
     @PostMapping("/register")
-    public ResponseEntity<EntityModel<UserResponseDTO>> register(@RequestBody @Valid AuthenticationRequestDTO userData) {
+    public ResponseEntity<EntityModel<UserResponseDTO>> register(@RequestBody @Valid AuthenticationRequestDTO userData, HttpServletRequest request) {
+        rateLimiter.check(userData.email(), request.getRemoteAddr());
         UserResponseDTO savedUser = authenticationService.register(userData);
 
         EntityModel<UserResponseDTO> resource = EntityModel.of(savedUser,
-                linkTo(methodOn(AuthenticationController.class).login(userData)).withRel("login"));
+                linkTo(methodOn(AuthenticationController.class).login(userData, null)).withRel("login"));
 
         return ResponseEntity.status(HttpStatus.CREATED).body(resource);
     }
-}
\ No newline at end of file
+
+    /**
+     * Endpoint para renovar o token de acesso.
+     *
+     * @param refreshTokenData DTO contendo o refresh token recebido no login ou na última renovação.
+     * @return Resposta com o novo token de acesso e o novo refresh token.
+     */
+    @Operation(
+            summary = "Renova o token de acesso",
+            description = "Troca um refresh token válido por um novo token de acesso e um novo refresh token. O refresh token usado deixa de ser válido"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Token renovado com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "token": "eyJhbGciOiJIUzUxMiJ9...",
+                                              "refreshToken": "q3Vb6m1oZ0u8yX2c4W9tR7pL5kJ1hG3fD8sA6nE0iQ4",
+                                              "email": "user_mail@gmail.com",
+                                              "userId": "158d6a25-4e6a-4357-8643-c4053e2f2a7b"
+                                            }
+                                            """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Refresh token inválido, expirado ou já utilizado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "status": 401,
+                                              "message": "Token inválido",
+                                              "errorDetails": "Refresh token já utilizado, faça login novamente",
+                                              "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                            }"""
+                            )
+                    )
+            )
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponseDTO> refresh(@RequestBody @Valid RefreshTokenRequestDTO refreshTokenData) {
+        AuthenticationResponseDTO refreshed = authenticationService.refresh(refreshTokenData.refreshToken());
+
+        return ResponseEntity.ok(refreshed);
+    }
+
+    /**
+     * Endpoint para encerrar a sessão do usuário autenticado.
+     *
+     * @param refreshTokenData DTO contendo o refresh token da sessão a ser encerrada.
+     * @return Resposta sem conteúdo.
+     */
+    @Operation(
+            summary = "Encerra a sessão",
+            description = "Revoga o refresh token informado e o token de acesso usado na requisição"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Sessão encerrada com sucesso"),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Refresh token inválido ou de outro usuário",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    value = """
+                                            {
+                                              "status": 401,
+                                              "message": "Token inválido",
+                                              "errorDetails": "Refresh token inválido",
+                                              "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                            }"""
+                            )
+                    )
+            )
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody @Valid RefreshTokenRequestDTO refreshTokenData) {
+        authenticationService.logout(refreshTokenData.refreshToken());
+
+        return ResponseEntity.noContent().build();
+    }
+}
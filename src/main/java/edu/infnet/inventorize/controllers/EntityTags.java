@@ -0,0 +1,44 @@
+package edu.infnet.inventorize.controllers;
+
+import edu.infnet.inventorize.exceptions.custom.PreconditionFailedException;
+
+/**
+ * Conversão entre a versão das entidades e os cabeçalhos ETag e If-Match.
+ * O ETag é a própria versão entre aspas; como ela muda a cada atualização, é uma validação forte.
+ */
+final class EntityTags {
+    private EntityTags() {
+    }
+
+    /**
+     * @param version versão da entidade
+     * @return o valor do cabeçalho ETag
+     */
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Obtém a versão esperada a partir do cabeçalho If-Match.
+     * Sem o cabeçalho, ou com "*", a requisição não é condicional. Um valor que não foi gerado pela API, como um ETag
+     * fraco ou uma lista de ETags, nunca corresponde à versão atual.
+     *
+     * @param ifMatch valor do cabeçalho If-Match, ou null
+     * @return a versão esperada, ou null se a requisição não for condicional
+     * @throws PreconditionFailedException se o valor não for um ETag gerado pela API
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) return null;
+
+        String value = ifMatch.strip();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // tratado abaixo
+            }
+        }
+
+        throw new PreconditionFailedException(String.format("O cabeçalho If-Match [ %s ] não corresponde à versão atual do registro", value));
+    }
+}
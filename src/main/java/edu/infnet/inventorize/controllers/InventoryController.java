@@ -3,7 +3,9 @@ package edu.infnet.inventorize.controllers;
 import edu.infnet.inventorize.dto.request.inventory.InventoryDTO;
 import edu.infnet.inventorize.dto.request.inventory.PatchInventoryDTO;
 import edu.infnet.inventorize.dto.request.inventory.UpdateInventoryDTO;
+import edu.infnet.inventorize.dto.response.CursorPageResponseDTO;
 import edu.infnet.inventorize.dto.response.InventoryResponseDTO;
+import edu.infnet.inventorize.services.IdempotencyStore;
 import edu.infnet.inventorize.services.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,14 +15,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -34,11 +38,14 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("/inventories")
 public class InventoryController {
     private final InventoryService inventoryService;
+    private final IdempotencyStore idempotencyStore;
 
     /**
      * Cria um novo inventário.
+     * Uma repetição com o mesmo Idempotency-Key devolve o inventário já criado.
      *
-     * @param inventoryDTO Dados do inventário a ser criado.
+     * @param inventoryDTO   Dados do inventário a ser criado.
+     * @param idempotencyKey Chave que identifica a requisição nas repetições, ou null.
      * @return Informações do inventário criado.
      */
     @Operation(
@@ -96,14 +103,20 @@ public class InventoryController {
             ),
     })
     @PostMapping
-    public ResponseEntity<EntityModel<InventoryResponseDTO>> createInventory(@Valid @RequestBody InventoryDTO inventoryDTO) {
-        InventoryResponseDTO newInventory = inventoryService.createInventory(inventoryDTO);
+    public ResponseEntity<EntityModel<InventoryResponseDTO>> createInventory(
+            @Valid @RequestBody InventoryDTO inventoryDTO,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /inventories", inventoryDTO, () -> {
+            InventoryResponseDTO newInventory = inventoryService.createInventory(inventoryDTO);
 
-        EntityModel<InventoryResponseDTO> resource = EntityModel.of(newInventory,
-                linkTo(methodOn(InventoryController.class).getInventory(newInventory.id())).withRel("self"),
-                linkTo(methodOn(InventoryController.class).delete(newInventory.id())).withRel("delete"));
+            EntityModel<InventoryResponseDTO> resource = EntityModel.of(newInventory,
+                    linkTo(methodOn(InventoryController.class).getInventory(newInventory.id())).withRel("self"),
+                    linkTo(methodOn(InventoryController.class).delete(newInventory.id())).withRel("delete"));
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(resource);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .eTag(EntityTags.of(newInventory.version()))
+                    .body(resource);
+        });
     }
 
     /**
@@ -179,17 +192,21 @@ public class InventoryController {
         EntityModel<InventoryResponseDTO> resource = EntityModel.of(inventory,
                 linkTo(methodOn(InventoryController.class).delete(id)).withRel("delete"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(inventory.version()))
+                .body(resource);
     }
 
     /**
-     * Lista todos os inventários do usuário autenticado.
+     * Lista os inventários do usuário autenticado, paginados por cursor.
      *
-     * @return Lista de inventários.
+     * @param limit tamanho da página
+     * @param after cursor da página anterior, ou vazio para a primeira página
+     * @return Página de inventários.
      */
     @Operation(
             summary = "Lista todos os inventários",
-            description = "Retorna uma lista com todos os inventários do usuário autenticado."
+            description = "Retorna os inventários do usuário autenticado em páginas ordenadas pelo ID. Para a próxima página, envie o 'nextCursor' recebido no parâmetro 'after'."
     )
     @ApiResponses({
             @ApiResponse(
@@ -200,22 +217,26 @@ public class InventoryController {
                             examples = {
                                     @ExampleObject(
                                             value = """
-                                                    [
-                                                      {
-                                                        "id": "a1d2fb3a-dc03-4e2e-a09d-2a94f5670ed9",
-                                                        "name": "Tintas acrílicas",
-                                                        "description": "Inventário de tintas acrílicas",
-                                                        "notificationEmail": "exemplo@email.com",
-                                                        "ownerId": "bf42f203-aacb-43dd-a033-a05fd59267db"
-                                                      },
-                                                      {
-                                                        "id": "18ced4b4-2789-41d5-8bd9-25986655db04",
-                                                        "name": "Pincéis de cerdas naturais",
-                                                        "description": "Inventário de pincéis de cerdas naturais",
-                                                        "notificationEmail": "email@email",
-                                                        "ownerId": "bf42f203-aacb-43dd-a033-a05fd59267db"
-                                                      }
-                                                    ]
+                                                    {
+                                                      "content": [
+                                                        {
+                                                          "id": "a1d2fb3a-dc03-4e2e-a09d-2a94f5670ed9",
+                                                          "name": "Tintas acrílicas",
+                                                          "description": "Inventário de tintas acrílicas",
+                                                          "notificationEmail": "exemplo@email.com",
+                                                          "ownerId": "bf42f203-aacb-43dd-a033-a05fd59267db"
+                                                        },
+                                                        {
+                                                          "id": "18ced4b4-2789-41d5-8bd9-25986655db04",
+                                                          "name": "Pincéis de cerdas naturais",
+                                                          "description": "Inventário de pincéis de cerdas naturais",
+                                                          "notificationEmail": "email@email",
+                                                          "ownerId": "bf42f203-aacb-43dd-a033-a05fd59267db"
+                                                        }
+                                                      ],
+                                                      "size": 2,
+                                                      "nextCursor": "18ced4b4-2789-41d5-8bd9-25986655db04"
+                                                    }
                                                     """
                                     )
                             }
@@ -234,8 +255,10 @@ public class InventoryController {
             ),
     })
     @GetMapping
-    public ResponseEntity<List<InventoryResponseDTO>> getAllInventories() {
-        List<InventoryResponseDTO> inventories = inventoryService.getAll();
+    public ResponseEntity<CursorPageResponseDTO<InventoryResponseDTO>> getAllInventories(
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "O limite da página deve ser no mínimo 1") @Max(value = 500, message = "O limite da página deve ser no máximo 500") int limit,
+            @RequestParam(required = false) UUID after) {
+        CursorPageResponseDTO<InventoryResponseDTO> inventories = inventoryService.getAll(limit, after);
 
         return ResponseEntity.ok(inventories);
     }
@@ -352,16 +375,57 @@ public class InventoryController {
                             }
                     )
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Conflito com uma atualização concorrente que persistiu após as novas tentativas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 409,
+                                                      "message": "Conflito de atualização",
+                                                      "errorDetails": "O registro foi alterado por outra requisição. Tente novamente",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "A versão informada no cabeçalho If-Match não é a versão atual",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 412,
+                                                      "message": "Versão desatualizada",
+                                                      "errorDetails": "O registro foi alterado desde a versão informada. Versão informada: 2, versão atual: 3",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
     })
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<InventoryResponseDTO>> putInventory(@PathVariable UUID id, @Valid @RequestBody UpdateInventoryDTO inventoryDTO) {
-        InventoryResponseDTO updatedInventory = inventoryService.update(id, inventoryDTO);
+    public ResponseEntity<EntityModel<InventoryResponseDTO>> putInventory(
+            @PathVariable UUID id,
+            @Valid @RequestBody UpdateInventoryDTO inventoryDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        InventoryResponseDTO updatedInventory = inventoryService.update(id, inventoryDTO, EntityTags.parseIfMatch(ifMatch));
 
         EntityModel<InventoryResponseDTO> resource = EntityModel.of(updatedInventory,
                 linkTo(methodOn(InventoryController.class).getInventory(updatedInventory.id())).withSelfRel(),
                 linkTo(methodOn(InventoryController.class).delete(updatedInventory.id())).withRel("delete"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(updatedInventory.version()))
+                .body(resource);
     }
 
     /**
@@ -469,16 +533,57 @@ public class InventoryController {
                             }
                     )
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Conflito com uma atualização concorrente que persistiu após as novas tentativas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 409,
+                                                      "message": "Conflito de atualização",
+                                                      "errorDetails": "O registro foi alterado por outra requisição. Tente novamente",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "A versão informada no cabeçalho If-Match não é a versão atual",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 412,
+                                                      "message": "Versão desatualizada",
+                                                      "errorDetails": "O registro foi alterado desde a versão informada. Versão informada: 2, versão atual: 3",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
     })
     @PatchMapping("/{id}")
-    public ResponseEntity<EntityModel<InventoryResponseDTO> > patchInventory(@PathVariable UUID id, @Valid @RequestBody PatchInventoryDTO inventoryRequestDTO) {
-        InventoryResponseDTO updatedInventory = inventoryService.patch(id, inventoryRequestDTO);
+    public ResponseEntity<EntityModel<InventoryResponseDTO> > patchInventory(
+            @PathVariable UUID id,
+            @Valid @RequestBody PatchInventoryDTO inventoryRequestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        InventoryResponseDTO updatedInventory = inventoryService.patch(id, inventoryRequestDTO, EntityTags.parseIfMatch(ifMatch));
 
         EntityModel<InventoryResponseDTO> resource = EntityModel.of(updatedInventory,
                 linkTo(methodOn(InventoryController.class).getInventory(updatedInventory.id())).withRel("self"),
                 linkTo(methodOn(InventoryController.class).delete(updatedInventory.id())).withRel("delete"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(updatedInventory.version()))
+                .body(resource);
     }
 
     /**
@@ -1,9 +1,21 @@
 package edu.infnet.inventorize.controllers;
 
+import edu.infnet.inventorize.dto.request.item.BatchAdjustmentDTO;
 import edu.infnet.inventorize.dto.request.item.ItemDTO;
 import edu.infnet.inventorize.dto.request.item.PatchItemDTO;
+import edu.infnet.inventorize.dto.request.item.ReservationDTO;
 import edu.infnet.inventorize.dto.request.item.UpdateItemDTO;
+import edu.infnet.inventorize.dto.response.CursorPageResponseDTO;
+import edu.infnet.inventorize.dto.response.ImportReportResponseDTO;
 import edu.infnet.inventorize.dto.response.ItemResponseDTO;
+import edu.infnet.inventorize.dto.response.ReservationResponseDTO;
+import edu.infnet.inventorize.dto.response.StockAvailabilityResponseDTO;
+import edu.infnet.inventorize.dto.response.StockMovementResponseDTO;
+import edu.infnet.inventorize.dto.response.StockReplayResponseDTO;
+import edu.infnet.inventorize.enums.ExportFormat;
+import edu.infnet.inventorize.services.ExportService;
+import edu.infnet.inventorize.services.IdempotencyStore;
+import edu.infnet.inventorize.services.ImportService;
 import edu.infnet.inventorize.services.ItemService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,12 +25,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -34,11 +53,16 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ExportService exportService;
+    private final ImportService importService;
+    private final IdempotencyStore idempotencyStore;
 
     /**
      * Cria um novo item de inventário.
+     * Uma repetição com o mesmo Idempotency-Key devolve o item já criado, sem criar outro.
      *
-     * @param itemRequest dados do item a ser criado
+     * @param itemRequest    dados do item a ser criado
+     * @param idempotencyKey chave que identifica a requisição nas repetições, ou null
      * @return informações do item criado
      */
     @Operation(
@@ -145,14 +169,20 @@ public class ItemController {
             )
     })
     @PostMapping
-    public ResponseEntity<EntityModel<ItemResponseDTO>> createItem(@Valid @RequestBody ItemDTO itemRequest) {
-        ItemResponseDTO itemInfo = itemService.create(itemRequest);
+    public ResponseEntity<EntityModel<ItemResponseDTO>> createItem(
+            @Valid @RequestBody ItemDTO itemRequest,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /items", itemRequest, () -> {
+            ItemResponseDTO itemInfo = itemService.create(itemRequest);
 
-        EntityModel<ItemResponseDTO> resource = EntityModel.of(itemInfo,
-                linkTo(methodOn(ItemController.class).getItem(itemInfo.id())).withSelfRel(),
-                linkTo(methodOn(ItemController.class).deleteItem(itemInfo.id())).withRel("deleteItem"));
+            EntityModel<ItemResponseDTO> resource = EntityModel.of(itemInfo,
+                    linkTo(methodOn(ItemController.class).getItem(itemInfo.id())).withSelfRel(),
+                    linkTo(methodOn(ItemController.class).deleteItem(itemInfo.id())).withRel("deleteItem"));
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(resource);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .eTag(EntityTags.of(itemInfo.version()))
+                    .body(resource);
+        });
     }
 
     /**
@@ -265,17 +295,21 @@ public class ItemController {
         EntityModel<ItemResponseDTO> resource = EntityModel.of(itemInfo,
                 linkTo(methodOn(ItemController.class).deleteItem(itemInfo.id())).withRel("deleteItem"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(itemInfo.version()))
+                .body(resource);
     }
 
     /**
-     * Lista todos os itens de inventário.
+     * Lista os itens de inventário, paginados por cursor.
      *
-     * @return lista de itens de inventário
+     * @param limit tamanho da página
+     * @param after cursor da página anterior, ou vazio para a primeira página
+     * @return página de itens de inventário
      */
     @Operation(
             summary = "Recupera todos os itens",
-            description = "Recupera todos os items do usuário autenticado.")
+            description = "Recupera os itens do usuário autenticado em páginas ordenadas pelo ID. Para a próxima página, envie o 'nextCursor' recebido no parâmetro 'after'.")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
@@ -285,22 +319,26 @@ public class ItemController {
                             examples = {
                                     @ExampleObject(
                                             value = """
-                                                    [
-                                                      {
-                                                        "id": "a015aebc-5388-4aac-9037-21aff2c65390",
-                                                        "productId": "a015aebc-5388-4aac-9037-21aff2c65390",
-                                                        "inventoryId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
-                                                        "currentQuantity": "25",
-                                                        "minimumStockLevel": "2"
-                                                      },
-                                                      {
-                                                        "id": "a015aebc-5388-4aac-9037-21aff2c65390",
-                                                        "productId": "a015aebc-5388-4aac-9037-21aff2c65390",
-                                                        "inventoryId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
-                                                        "currentQuantity": "10",
-                                                        "minimumStockLevel": "1"
-                                                      }
-                                                    ]
+                                                    {
+                                                      "content": [
+                                                        {
+                                                          "id": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                          "productId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                          "inventoryId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
+                                                          "currentQuantity": "25",
+                                                          "minimumStockLevel": "2"
+                                                        },
+                                                        {
+                                                          "id": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                          "productId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                          "inventoryId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
+                                                          "currentQuantity": "10",
+                                                          "minimumStockLevel": "1"
+                                                        }
+                                                      ],
+                                                      "size": 2,
+                                                      "nextCursor": "a015aebc-5388-4aac-9037-21aff2c65390"
+                                                    }
                                                     """
                                     )
                             }
@@ -319,12 +357,141 @@ public class ItemController {
             ),
     })
     @GetMapping
-    public ResponseEntity<List<ItemResponseDTO>> getAllItems() {
-        List<ItemResponseDTO> items = itemService.getAll();
+    public ResponseEntity<CursorPageResponseDTO<ItemResponseDTO>> getAllItems(
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "O limite da página deve ser no mínimo 1") @Max(value = 500, message = "O limite da página deve ser no máximo 500") int limit,
+            @RequestParam(required = false) UUID after) {
+        CursorPageResponseDTO<ItemResponseDTO> items = itemService.getAll(limit, after);
 
         return ResponseEntity.ok(items);
     }
 
+    /**
+     * Exporta todos os itens do usuário autenticado, escritos na resposta à medida que são lidos do banco.
+     *
+     * @param format formato da exportação (NDJSON ou CSV)
+     * @return arquivo com os itens, um por linha
+     */
+    @Operation(
+            summary = "Exporta todos os itens",
+            description = "Exporta todos os itens do usuário autenticado em NDJSON (um objeto JSON por linha) ou CSV. A resposta é transmitida aos poucos, sem paginação.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Exportação iniciada com sucesso",
+                    content = {
+                            @Content(
+                                    mediaType = "application/x-ndjson",
+                                    examples = @ExampleObject(value = """
+                                            {"id":"a015aebc-5388-4aac-9037-21aff2c65390","productId":"a015aebc-5388-4aac-9037-21aff2c65390","inventoryId":"66e1e3c1-2548-4a68-9a02-0ac0bf62ae52","currentQuantity":25,"minimumStockLevel":2}
+                                            """)
+                            ),
+                            @Content(
+                                    mediaType = "text/csv",
+                                    examples = @ExampleObject(value = """
+                                            id,productId,inventoryId,currentQuantity,minimumStockLevel
+                                            a015aebc-5388-4aac-9037-21aff2c65390,a015aebc-5388-4aac-9037-21aff2c65390,66e1e3c1-2548-4a68-9a02-0ac0bf62ae52,25,2
+                                            """)
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Você não tem permissão para acessar os itens",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        StreamingResponseBody body = exportService.exportItems(format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("items." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Importa itens em massa a partir de um arquivo CSV.
+     *
+     * @param file arquivo CSV com as colunas productId,inventoryId,currentQuantity,minimumStockLevel
+     * @return relatório da importação, com os erros das linhas rejeitadas
+     */
+    @Operation(
+            summary = "Importa itens de um arquivo CSV",
+            description = "Importa itens de um arquivo CSV com as colunas productId,inventoryId,currentQuantity,minimumStockLevel, com cabeçalho opcional. " +
+                    "As linhas válidas são inseridas e as inválidas são rejeitadas individualmente, com o motivo informado no relatório.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importação concluída",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "processedRows": 3,
+                                                      "importedRows": 2,
+                                                      "rejectedRows": 1,
+                                                      "errors": [
+                                                        {
+                                                          "line": 3,
+                                                          "message": "A quantidade atual do item deve ser um número inteiro"
+                                                        }
+                                                      ]
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Arquivo ausente, vazio ou ilegível",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 400,
+                                                      "message": "Arquivo de importação inválido",
+                                                      "errorDetails": "O arquivo de importação está vazio",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Você não tem permissão para importar itens",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+    })
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportReportResponseDTO> importItems(@RequestParam("file") MultipartFile file) {
+        ImportReportResponseDTO report = importService.importItems(file);
+
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * Lista todos os itens de um inventário específico.
      *
@@ -506,16 +673,57 @@ public class ItemController {
                             }
                     )
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Conflito com uma atualização concorrente que persistiu após as novas tentativas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 409,
+                                                      "message": "Conflito de atualização",
+                                                      "errorDetails": "O registro foi alterado por outra requisição. Tente novamente",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "A versão informada no cabeçalho If-Match não é a versão atual",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 412,
+                                                      "message": "Versão desatualizada",
+                                                      "errorDetails": "O registro foi alterado desde a versão informada. Versão informada: 2, versão atual: 3",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
     })
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<ItemResponseDTO>> updateItem(@PathVariable UUID id, @Valid @RequestBody UpdateItemDTO itemRequest) {
-        ItemResponseDTO updatedItem = itemService.update(id, itemRequest);
+    public ResponseEntity<EntityModel<ItemResponseDTO>> updateItem(
+            @PathVariable UUID id,
+            @Valid @RequestBody UpdateItemDTO itemRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ItemResponseDTO updatedItem = itemService.update(id, itemRequest, EntityTags.parseIfMatch(ifMatch));
 
         EntityModel<ItemResponseDTO> resource = EntityModel.of(updatedItem,
                 linkTo(methodOn(ItemController.class).getItem(updatedItem.id())).withSelfRel(),
                 linkTo(methodOn(ItemController.class).deleteItem(updatedItem.id())).withRel("deleteItem"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(updatedItem.version()))
+                .body(resource);
     }
 
     /**
@@ -622,23 +830,66 @@ public class ItemController {
                             }
                     )
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Conflito com uma atualização concorrente que persistiu após as novas tentativas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 409,
+                                                      "message": "Conflito de atualização",
+                                                      "errorDetails": "O registro foi alterado por outra requisição. Tente novamente",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "A versão informada no cabeçalho If-Match não é a versão atual",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 412,
+                                                      "message": "Versão desatualizada",
+                                                      "errorDetails": "O registro foi alterado desde a versão informada. Versão informada: 2, versão atual: 3",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
     })
     @PatchMapping("/{id}")
-    public ResponseEntity<EntityModel<ItemResponseDTO>> patchItem(@PathVariable UUID id, @Valid @RequestBody PatchItemDTO itemRequest) {
-        ItemResponseDTO patchedItem = itemService.patch(id, itemRequest);
+    public ResponseEntity<EntityModel<ItemResponseDTO>> patchItem(
+            @PathVariable UUID id,
+            @Valid @RequestBody PatchItemDTO itemRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ItemResponseDTO patchedItem = itemService.patch(id, itemRequest, EntityTags.parseIfMatch(ifMatch));
 
         EntityModel<ItemResponseDTO> resource = EntityModel.of(patchedItem,
                 linkTo(methodOn(ItemController.class).getItem(patchedItem.id())).withSelfRel(),
                 linkTo(methodOn(ItemController.class).deleteItem(patchedItem.id())).withRel("deleteItem"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(patchedItem.version()))
+                .body(resource);
     }
 
     /**
      * Atualiza a quantidade atual de um item de inventário.
+     * Uma repetição com o mesmo Idempotency-Key devolve o resultado do ajuste original, sem ajustar de novo.
      *
-     * @param id         identificador do item
-     * @param adjustment quantidade a ser ajustada (pode ser positiva ou negativa)
+     * @param id             identificador do item
+     * @param adjustment     quantidade a ser ajustada (pode ser positiva ou negativa)
+     * @param idempotencyKey chave que identifica a requisição nas repetições, ou null
      * @return informações do item atualizado
      */
     @Operation(
@@ -745,14 +996,142 @@ public class ItemController {
             )
     })
     @PatchMapping("/{id}/adjust")
-    public ResponseEntity< EntityModel<ItemResponseDTO>> adjustItemQuantity(@PathVariable UUID id, @RequestParam int adjustment) {
-        ItemResponseDTO updatedItem = itemService.adjustCurrentQuantity(id, adjustment);
+    public ResponseEntity< EntityModel<ItemResponseDTO>> adjustItemQuantity(
+            @PathVariable UUID id,
+            @RequestParam int adjustment,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "PATCH /items/{id}/adjust", List.of(id, adjustment), () -> {
+            ItemResponseDTO updatedItem = itemService.adjustCurrentQuantity(id, adjustment);
 
-        EntityModel<ItemResponseDTO> resource = EntityModel.of(updatedItem,
-                linkTo(methodOn(ItemController.class).getItem(updatedItem.id())).withSelfRel(),
-                linkTo(methodOn(ItemController.class).deleteItem(updatedItem.id())).withRel("deleteItem"));
+            EntityModel<ItemResponseDTO> resource = EntityModel.of(updatedItem,
+                    linkTo(methodOn(ItemController.class).getItem(updatedItem.id())).withSelfRel(),
+                    linkTo(methodOn(ItemController.class).deleteItem(updatedItem.id())).withRel("deleteItem"));
+
+            return ResponseEntity.ok()
+                    .eTag(EntityTags.of(updatedItem.version()))
+                    .body(resource);
+        });
+    }
+
+    /**
+     * Ajusta a quantidade atual de vários itens de inventário de forma atômica.
+     * Uma repetição com o mesmo Idempotency-Key devolve o resultado do lote original.
+     *
+     * @param batchRequest   ajustes a serem aplicados
+     * @param idempotencyKey chave que identifica a requisição nas repetições, ou null
+     * @return informações dos itens atualizados
+     */
+    @Operation(
+            summary = "Ajusta a quantidade de vários itens em lote",
+            description = "Aplica todos os ajustes do lote em uma única transação. Se algum ajuste resultar em quantidade negativa, " +
+                    "nenhum é aplicado e o motivo de cada linha rejeitada é informado. Um mesmo item pode aparecer em mais de uma linha."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Quantidades ajustadas com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    [
+                                                      {
+                                                        "id": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                        "productId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                        "inventoryId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
+                                                        "currentQuantity": "48",
+                                                        "minimumStockLevel": "10"
+                                                      }
+                                                    ]
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote vazio, com mais de 500 ajustes ou com linhas incompletas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 400,
+                                                      "message": "Erro de validação",
+                                                      "errorDetails": [
+                                                          "A lista de ajustes não pode ser vazia"
+                                                      ],
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Você não tem permissão para atualizar algum dos itens",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Item não encontrado",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                       "status": 404,
+                                                       "message": "Item não encontrado",
+                                                       "errorDetails": "Item com o [ ID: b947fb21-fa2d-4e41-93c5-b3f4cf425afb ] não encontrado",
+                                                       "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                     }"""
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Ajuste em lote inválido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 422,
+                                                      "message": "Ajuste em lote inválido",
+                                                      "errorDetails": [
+                                                        {
+                                                          "line": 2,
+                                                          "itemId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                          "message": "Ajuste de estoque não pode resultar em quantidade negativa.\\nITEM: [ Pincel ] \\nEM ESTOQUE: 3 "
+                                                        }
+                                                      ],
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            )
+    })
+    @PostMapping("/adjustments")
+    public ResponseEntity<List<ItemResponseDTO>> adjustItemQuantities(
+            @Valid @RequestBody BatchAdjustmentDTO batchRequest,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /items/adjustments", batchRequest, () -> {
+            List<ItemResponseDTO> updatedItems = itemService.adjustCurrentQuantities(batchRequest);
 
-        return ResponseEntity.ok(resource);
+            return ResponseEntity.ok(updatedItems);
+        });
     }
 
     /**
@@ -832,6 +1211,341 @@ public class ItemController {
         return ResponseEntity.ok("Item deletado com sucesso");
     }
 
+    /**
+     * Lista o histórico de movimentações de estoque de um item, paginado por cursor.
+     *
+     * @param id    identificador do item
+     * @param limit tamanho da página
+     * @param after cursor da página anterior, ou vazio para a primeira página
+     * @return página de movimentações do item
+     */
+    @Operation(
+            summary = "Recupera o histórico de movimentações de um item",
+            description = "Recupera as movimentações de estoque do item, da mais antiga para a mais recente: cadastro, importação, ajustes e atualizações da quantidade. Para a próxima página, envie o 'nextCursor' recebido no parâmetro 'after'.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Histórico recuperado com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "content": [
+                                                        {
+                                                          "id": "01927a3c-5e8f-7b21-9c4d-3f6a1e2b7d90",
+                                                          "itemId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                          "delta": 25,
+                                                          "reason": "CREATION",
+                                                          "actorId": "4931241e-a79e-44f0-83fd-af904e933f29",
+                                                          "createdAt": "2025-06-20T14:32:05.120Z"
+                                                        },
+                                                        {
+                                                          "id": "01927a3d-0b41-7c02-8e5f-9a0d3c6b1e24",
+                                                          "itemId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                          "delta": -3,
+                                                          "reason": "ADJUSTMENT",
+                                                          "actorId": "4931241e-a79e-44f0-83fd-af904e933f29",
+                                                          "createdAt": "2025-06-20T14:40:11.503Z"
+                                                        }
+                                                      ],
+                                                      "size": 2,
+                                                      "nextCursor": null
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Você não tem permissão para acessar este item",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+    })
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<CursorPageResponseDTO<StockMovementResponseDTO>> getItemMovements(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "O limite da página deve ser no mínimo 1") @Max(value = 500, message = "O limite da página deve ser no máximo 500") int limit,
+            @RequestParam(required = false) UUID after) {
+        CursorPageResponseDTO<StockMovementResponseDTO> movements = itemService.getMovements(id, limit, after);
+
+        return ResponseEntity.ok(movements);
+    }
+
+    /**
+     * Reconstrói a quantidade de um item a partir do histórico de movimentações.
+     *
+     * @param id identificador do item
+     * @return resultado da reconstrução
+     */
+    @Operation(
+            summary = "Reconstrói a quantidade de um item a partir do histórico",
+            description = "Soma ao último snapshot consolidado as movimentações posteriores a ele. Se a quantidade registrada no item for diferente da reconstruída, ela é corrigida.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Quantidade reconstruída com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "itemId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                      "snapshotQuantity": 40,
+                                                      "replayedMovements": 12,
+                                                      "replayedQuantity": 47,
+                                                      "previousQuantity": 47
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Você não tem permissão para gerenciar este item",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+    })
+    @PostMapping("/{id}/replay")
+    public ResponseEntity<StockReplayResponseDTO> replayItemQuantity(@PathVariable UUID id) {
+        StockReplayResponseDTO replay = itemService.replay(id);
+
+        return ResponseEntity.ok(replay);
+    }
+
+    /**
+     * Reserva uma quantidade de um item por tempo limitado, sem retirá-la do estoque.
+     * Uma repetição com o mesmo Idempotency-Key devolve a reserva já criada.
+     *
+     * @param id             identificador do item
+     * @param reservation    quantidade e duração da reserva
+     * @param idempotencyKey chave que identifica a requisição nas repetições, ou null
+     * @return a reserva criada
+     */
+    @Operation(
+            summary = "Reserva uma quantidade de um item",
+            description = "Retém a quantidade informada até a reserva ser confirmada, liberada ou expirar. A quantidade reservada continua no estoque, " +
+                    "mas deixa de estar disponível para outras reservas e para os ajustes. Sem 'ttlSeconds', a reserva dura o tempo padrão da API.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Reserva criada com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "id": "01927a41-2c7d-7e10-a5b3-6d2f8e1c4a07",
+                                                      "itemId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                      "quantity": 2,
+                                                      "expiresAt": "2025-06-20T14:47:05.120Z"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Estoque disponível insuficiente",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 422,
+                                                      "message": "Ajuste inválido",
+                                                      "errorDetails": "Estoque disponível insuficiente para a reserva.\\nITEM: [ Pincel ] \\nDISPONÍVEL: 1 ",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+    })
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<ReservationResponseDTO> reserveItemQuantity(
+            @PathVariable UUID id,
+            @Valid @RequestBody ReservationDTO reservation,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /items/{id}/reservations", List.of(id, reservation), () -> {
+            ReservationResponseDTO createdReservation = itemService.reserve(id, reservation);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdReservation);
+        });
+    }
+
+    /**
+     * Confirma uma reserva, retirando a quantidade reservada do estoque.
+     *
+     * @param id            identificador do item
+     * @param reservationId identificador da reserva
+     * @return informações do item atualizado
+     */
+    @Operation(
+            summary = "Confirma uma reserva de um item",
+            description = "Retira do estoque a quantidade reservada e encerra a reserva. A retirada é registrada no histórico de movimentações. " +
+                    "Uma reserva que já expirou não pode ser confirmada.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Reserva confirmada com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "id": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                      "productId": "b53b1ab5-21bb-4ed0-b6c7-8a4a5b5e2d88",
+                                                      "inventoryId": "0b1de8f4-8a2e-4d51-9f1b-7e3e1f7c9a10",
+                                                      "currentQuantity": 18,
+                                                      "minimumStockLevel": 5
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Reserva não encontrada ou expirada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 404,
+                                                      "message": "Reserva não encontrada",
+                                                      "errorDetails": "A reserva [ ID: 01927a41-2c7d-7e10-a5b3-6d2f8e1c4a07 ] expirou",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+    })
+    @PostMapping("/{id}/reservations/{reservationId}/commit")
+    public ResponseEntity<EntityModel<ItemResponseDTO>> commitItemReservation(@PathVariable UUID id, @PathVariable UUID reservationId) {
+        ItemResponseDTO updatedItem = itemService.commitReservation(id, reservationId);
+
+        EntityModel<ItemResponseDTO> resource = EntityModel.of(updatedItem,
+                linkTo(methodOn(ItemController.class).getItem(updatedItem.id())).withSelfRel(),
+                linkTo(methodOn(ItemController.class).deleteItem(updatedItem.id())).withRel("deleteItem"));
+
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(updatedItem.version()))
+                .body(resource);
+    }
+
+    /**
+     * Libera uma reserva, devolvendo a quantidade ao estoque disponível.
+     *
+     * @param id            identificador do item
+     * @param reservationId identificador da reserva
+     * @return mensagem de sucesso
+     */
+    @Operation(
+            summary = "Libera uma reserva de um item",
+            description = "Encerra a reserva sem retirar a quantidade do estoque, que volta a ficar disponível.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Reserva liberada com sucesso",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "Reserva liberada com sucesso"
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Reserva não encontrada",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+    })
+    @DeleteMapping("/{id}/reservations/{reservationId}")
+    public ResponseEntity<String> releaseItemReservation(@PathVariable UUID id, @PathVariable UUID reservationId) {
+        itemService.releaseReservation(id, reservationId);
+
+        return ResponseEntity.ok("Reserva liberada com sucesso");
+    }
+
+    /**
+     * Consulta a quantidade disponível de um item.
+     *
+     * @param id identificador do item
+     * @return a quantidade atual, a reservada e a disponível
+     */
+    @Operation(
+            summary = "Consulta a disponibilidade de um item",
+            description = "Recupera a quantidade atual do item, a quantidade retida por reservas em aberto e a quantidade disponível, que é a diferença entre as duas.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Disponibilidade recuperada com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "itemId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                      "currentQuantity": 20,
+                                                      "reservedQuantity": 3,
+                                                      "availableQuantity": 17
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Você não tem permissão para acessar este item",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+    })
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<StockAvailabilityResponseDTO> getItemAvailability(@PathVariable UUID id) {
+        StockAvailabilityResponseDTO availability = itemService.getAvailability(id);
+
+        return ResponseEntity.ok(availability);
+    }
+
     /**
      * Recupera todos os itens que estão abaixo do limite mínimo de estoque.
      *
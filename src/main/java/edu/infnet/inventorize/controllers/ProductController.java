@@ -3,7 +3,13 @@ package edu.infnet.inventorize.controllers;
 import edu.infnet.inventorize.dto.request.product.PatchProductDTO;
 import edu.infnet.inventorize.dto.request.product.ProductDTO;
 import edu.infnet.inventorize.dto.request.product.UpdateProductDTO;
+import edu.infnet.inventorize.dto.response.CursorPageResponseDTO;
+import edu.infnet.inventorize.dto.response.ImportReportResponseDTO;
 import edu.infnet.inventorize.dto.response.ProductResponseDTO;
+import edu.infnet.inventorize.enums.ExportFormat;
+import edu.infnet.inventorize.services.ExportService;
+import edu.infnet.inventorize.services.IdempotencyStore;
+import edu.infnet.inventorize.services.ImportService;
 import edu.infnet.inventorize.services.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,14 +19,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -34,11 +46,16 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("/products")
 public class ProductController {
     private final ProductService productService;
+    private final ExportService exportService;
+    private final ImportService importService;
+    private final IdempotencyStore idempotencyStore;
 
     /**
      * Cria um novo produto.
+     * Uma repetição com o mesmo Idempotency-Key devolve o produto já criado.
      *
-     * @param productData dados do produto a ser criado
+     * @param productData    dados do produto a ser criado
+     * @param idempotencyKey chave que identifica a requisição nas repetições, ou null
      * @return informações do produto criado
      */
     @Operation(
@@ -148,14 +165,20 @@ public class ProductController {
             )
     })
     @PostMapping
-    public ResponseEntity<EntityModel<ProductResponseDTO> > createProduct(@Valid @RequestBody ProductDTO productData) {
-        ProductResponseDTO savedProductInfo = productService.createProduct(productData);
+    public ResponseEntity<EntityModel<ProductResponseDTO> > createProduct(
+            @Valid @RequestBody ProductDTO productData,
+            @RequestHeader(value = IdempotencyStore.KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /products", productData, () -> {
+            ProductResponseDTO savedProductInfo = productService.createProduct(productData);
 
-        EntityModel<ProductResponseDTO> resource = EntityModel.of(savedProductInfo,
-                linkTo(methodOn(ProductController.class).getById(savedProductInfo.productId())).withSelfRel(),
-                linkTo(methodOn(ProductController.class).deleteById(savedProductInfo.productId())).withRel("deleteProduct"));
+            EntityModel<ProductResponseDTO> resource = EntityModel.of(savedProductInfo,
+                    linkTo(methodOn(ProductController.class).getById(savedProductInfo.productId())).withSelfRel(),
+                    linkTo(methodOn(ProductController.class).deleteById(savedProductInfo.productId())).withRel("deleteProduct"));
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(resource);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .eTag(EntityTags.of(savedProductInfo.version()))
+                    .body(resource);
+        });
     }
 
     /**
@@ -264,18 +287,22 @@ public class ProductController {
         EntityModel<ProductResponseDTO> resource = EntityModel.of(productInfo,
                 linkTo(methodOn(ProductController.class).deleteById(productInfo.productId())).withRel("deleteProduct"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(productInfo.version()))
+                .body(resource);
     }
 
 
     /**
-     * Lista todos os produtos do usuário autenticado.
+     * Lista os produtos do usuário autenticado, paginados por cursor.
      *
-     * @return lista de produtos
+     * @param limit tamanho da página
+     * @param after cursor da página anterior, ou vazio para a primeira página
+     * @return página de produtos
      */
     @Operation(
             summary = "Lista todos os Produtos",
-            description = "Retorna todos os produtos do usuário autenticado"
+            description = "Retorna os produtos do usuário autenticado em páginas ordenadas pelo ID. Para a próxima página, envie o 'nextCursor' recebido no parâmetro 'after'."
     )
     @ApiResponses({
             @ApiResponse(
@@ -286,20 +313,24 @@ public class ProductController {
                             examples = {
                                     @ExampleObject(
                                             value = """
-                                                    [
-                                                      {
-                                                        "productId": "a015aebc-5388-4aac-9037-21aff2c65390",
-                                                        "ownerId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
-                                                        "name": "Tinta Acrílica Dourada Pérola - 50ml",
-                                                        "supplierCode": "CODIGO-001"
-                                                      },
-                                                      {
-                                                        "productId": "b1234567-89ab-cdef-0123-456789abcdef",
-                                                        "ownerId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
-                                                        "name": "Pincel Chato 12mm",
-                                                        "supplierCode": "CODIGO-002"
-                                                      }
-                                                    ]
+                                                    {
+                                                      "content": [
+                                                        {
+                                                          "productId": "a015aebc-5388-4aac-9037-21aff2c65390",
+                                                          "ownerId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
+                                                          "name": "Tinta Acrílica Dourada Pérola - 50ml",
+                                                          "supplierCode": "CODIGO-001"
+                                                        },
+                                                        {
+                                                          "productId": "b1234567-89ab-cdef-0123-456789abcdef",
+                                                          "ownerId": "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52",
+                                                          "name": "Pincel Chato 12mm",
+                                                          "supplierCode": "CODIGO-002"
+                                                        }
+                                                      ],
+                                                      "size": 2,
+                                                      "nextCursor": "b1234567-89ab-cdef-0123-456789abcdef"
+                                                    }
                                                     """
                                     )
                             }
@@ -318,12 +349,141 @@ public class ProductController {
             ),
     })
     @GetMapping
-    public ResponseEntity<List<ProductResponseDTO>> getAll() {
-        List<ProductResponseDTO> productList = productService.getAll();
+    public ResponseEntity<CursorPageResponseDTO<ProductResponseDTO>> getAll(
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "O limite da página deve ser no mínimo 1") @Max(value = 500, message = "O limite da página deve ser no máximo 500") int limit,
+            @RequestParam(required = false) UUID after) {
+        CursorPageResponseDTO<ProductResponseDTO> productList = productService.getAll(limit, after);
 
         return ResponseEntity.ok(productList);
     }
 
+    /**
+     * Exporta todos os produtos do usuário autenticado, escritos na resposta à medida que são lidos do banco.
+     *
+     * @param format formato da exportação (NDJSON ou CSV)
+     * @return arquivo com os produtos, um por linha
+     */
+    @Operation(
+            summary = "Exporta todos os produtos",
+            description = "Exporta todos os produtos do usuário autenticado em NDJSON (um objeto JSON por linha) ou CSV. A resposta é transmitida aos poucos, sem paginação.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Exportação iniciada com sucesso",
+                    content = {
+                            @Content(
+                                    mediaType = "application/x-ndjson",
+                                    examples = @ExampleObject(value = """
+                                            {"productId":"a015aebc-5388-4aac-9037-21aff2c65390","ownerId":"66e1e3c1-2548-4a68-9a02-0ac0bf62ae52","name":"Pincel Chato 12mm","supplierCode":"CODIGO-002"}
+                                            """)
+                            ),
+                            @Content(
+                                    mediaType = "text/csv",
+                                    examples = @ExampleObject(value = """
+                                            productId,ownerId,name,supplierCode
+                                            a015aebc-5388-4aac-9037-21aff2c65390,66e1e3c1-2548-4a68-9a02-0ac0bf62ae52,Pincel Chato 12mm,CODIGO-002
+                                            """)
+                            )
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Você não tem permissão para acessar os produtos",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        StreamingResponseBody body = exportService.exportProducts(format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Importa produtos em massa a partir de um arquivo CSV.
+     *
+     * @param file arquivo CSV com as colunas name,supplierCode
+     * @return relatório da importação, com os erros das linhas rejeitadas
+     */
+    @Operation(
+            summary = "Importa produtos de um arquivo CSV",
+            description = "Importa produtos de um arquivo CSV com as colunas name,supplierCode, com cabeçalho opcional. " +
+                    "As linhas válidas são inseridas e as inválidas são rejeitadas individualmente, com o motivo informado no relatório.")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Importação concluída",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "processedRows": 3,
+                                                      "importedRows": 2,
+                                                      "rejectedRows": 1,
+                                                      "errors": [
+                                                        {
+                                                          "line": 3,
+                                                          "message": "O nome do produto é obrigatório"
+                                                        }
+                                                      ]
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Arquivo ausente, vazio ou ilegível",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 400,
+                                                      "message": "Arquivo de importação inválido",
+                                                      "errorDetails": "O arquivo de importação está vazio",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }
+                                                    """
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Você não tem permissão para importar produtos",
+                    content = @Content(
+                            examples = {
+                                    @ExampleObject(
+                                            value = "{}"
+                                    )
+                            }
+                    )
+            ),
+    })
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportReportResponseDTO> importProducts(@RequestParam("file") MultipartFile file) {
+        ImportReportResponseDTO report = importService.importProducts(file);
+
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * Atualiza um produto existente.
      *
@@ -428,16 +588,57 @@ public class ProductController {
                             }
                     )
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Conflito com uma atualização concorrente que persistiu após as novas tentativas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 409,
+                                                      "message": "Conflito de atualização",
+                                                      "errorDetails": "O registro foi alterado por outra requisição. Tente novamente",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "A versão informada no cabeçalho If-Match não é a versão atual",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 412,
+                                                      "message": "Versão desatualizada",
+                                                      "errorDetails": "O registro foi alterado desde a versão informada. Versão informada: 2, versão atual: 3",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
     })
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<ProductResponseDTO>> updateProduct(@PathVariable UUID id, @Valid @RequestBody UpdateProductDTO productData) {
-        var productResponseDTO = productService.updateProduct(id, productData);
+    public ResponseEntity<EntityModel<ProductResponseDTO>> updateProduct(
+            @PathVariable UUID id,
+            @Valid @RequestBody UpdateProductDTO productData,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var productResponseDTO = productService.updateProduct(id, productData, EntityTags.parseIfMatch(ifMatch));
 
         EntityModel<ProductResponseDTO> resource = EntityModel.of(productResponseDTO,
                 linkTo(methodOn(ProductController.class).getById(productResponseDTO.productId())).withSelfRel(),
                 linkTo(methodOn(ProductController.class).deleteById(productResponseDTO.productId())).withRel("deleteProduct"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(productResponseDTO.version()))
+                .body(resource);
     }
 
     /**
@@ -543,16 +744,57 @@ public class ProductController {
                             }
                     )
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Conflito com uma atualização concorrente que persistiu após as novas tentativas",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 409,
+                                                      "message": "Conflito de atualização",
+                                                      "errorDetails": "O registro foi alterado por outra requisição. Tente novamente",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "A versão informada no cabeçalho If-Match não é a versão atual",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = {
+                                    @ExampleObject(
+                                            value = """
+                                                    {
+                                                      "status": 412,
+                                                      "message": "Versão desatualizada",
+                                                      "errorDetails": "O registro foi alterado desde a versão informada. Versão informada: 2, versão atual: 3",
+                                                      "timestamp": "YYYY-dd-mmTHH:MM:ss"
+                                                    }"""
+                                    )
+                            }
+                    )
+            ),
     })
     @PatchMapping("/{id}")
-    public ResponseEntity<EntityModel<ProductResponseDTO>> patchProduct(@PathVariable UUID id, @Valid @RequestBody PatchProductDTO productData) {
-        var productResponseDTO = productService.patchProduct(id, productData);
+    public ResponseEntity<EntityModel<ProductResponseDTO>> patchProduct(
+            @PathVariable UUID id,
+            @Valid @RequestBody PatchProductDTO productData,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var productResponseDTO = productService.patchProduct(id, productData, EntityTags.parseIfMatch(ifMatch));
 
         EntityModel<ProductResponseDTO> resource = EntityModel.of(productResponseDTO,
                 linkTo(methodOn(ProductController.class).getById(productResponseDTO.productId())).withSelfRel(),
                 linkTo(methodOn(ProductController.class).deleteById(productResponseDTO.productId())).withRel("deleteProduct"));
 
-        return ResponseEntity.ok(resource);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(productResponseDTO.version()))
+                .body(resource);
     }
 
     /**
@@ -0,0 +1,16 @@
+package edu.infnet.inventorize.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+
+@Schema(description = "DTO para renovação e revogação de refresh tokens")
+public record RefreshTokenRequestDTO(
+        @Schema(
+                name = "refreshToken",
+                description = "Refresh token recebido no login ou na última renovação",
+                example = "q3Vb6m1oZ0u8yX2c4W9tR7pL5kJ1hG3fD8sA6nE0iQ4",
+                requiredMode = Schema.RequiredMode.REQUIRED
+        )
+        @NotBlank(message = "O refresh token não pode ser vazio")
+        String refreshToken
+) {}
@@ -0,0 +1,43 @@
+package edu.infnet.inventorize.dto.request.item;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "DTO para ajuste em lote das quantidades de vários itens, aplicado de forma atômica")
+public record BatchAdjustmentDTO(
+        @Schema(
+                description = "Os ajustes a serem aplicados, um por linha. Um mesmo item pode aparecer em mais de uma linha",
+                requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotEmpty(message = "A lista de ajustes não pode ser vazia")
+        @Size(max = 500, message = "O lote pode ter no máximo 500 ajustes")
+        List<@Valid @NotNull(message = "O ajuste não pode ser nulo") Line> adjustments
+) {
+    @Schema(description = "Ajuste da quantidade de um item")
+    public record Line(
+            @Schema(
+                    description = "O id do item a ser ajustado",
+                    examples = {
+                            "a015aebc-5388-4aac-9037-21aff2c65390",
+                            "66e1e3c1-2548-4a68-9a02-0ac0bf62ae52"
+                    },
+                    requiredMode = Schema.RequiredMode.REQUIRED)
+            @NotNull(message = "O id do item não pode ser nulo")
+            UUID itemId,
+
+            @Schema(
+                    description = "O valor a ser ajustado (positivo ou negativo)",
+                    examples = {
+                            "-2",
+                            "10"
+                    },
+                    requiredMode = Schema.RequiredMode.REQUIRED)
+            @NotNull(message = "O valor do ajuste não pode ser nulo")
+            Integer adjustment
+    ) {}
+}
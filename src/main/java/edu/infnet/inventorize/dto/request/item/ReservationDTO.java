@@ -0,0 +1,32 @@
+package edu.infnet.inventorize.dto.request.item;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@Schema(description = "DTO para reserva de uma quantidade de um item por tempo limitado")
+public record ReservationDTO(
+        @Schema(
+                description = "A quantidade a ser reservada",
+                examples = {
+                        "1",
+                        "3"
+                },
+                requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotNull(message = "A quantidade a ser reservada não pode ser nula")
+        @Positive(message = "A quantidade a ser reservada deve ser positiva")
+        Integer quantity,
+
+        @Schema(
+                description = "Por quantos segundos a reserva é mantida. Se não for informado, é usado o tempo padrão da API",
+                examples = {
+                        "300",
+                        "900"
+                })
+        @Min(value = 1, message = "O tempo da reserva deve ser de no mínimo 1 segundo")
+        @Max(value = 3600, message = "O tempo da reserva deve ser de no máximo 3600 segundos")
+        Integer ttlSeconds
+) {
+}
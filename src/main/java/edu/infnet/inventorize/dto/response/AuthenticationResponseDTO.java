@@ -13,6 +13,12 @@ public record AuthenticationResponseDTO(
         )
         String token,
 
+        @Schema(
+                description = "Refresh token de uso único, usado para obter um novo token de acesso",
+                example = "q3Vb6m1oZ0u8yX2c4W9tR7pL5kJ1hG3fD8sA6nE0iQ4"
+        )
+        String refreshToken,
+
         @Schema(
                 description = "E-mail do usuário autenticado",
                 example = "user_name@email.com"
@@ -25,9 +31,10 @@ public record AuthenticationResponseDTO(
         )
         UUID userId
 ) {
-    public static AuthenticationResponseDTO from(String token, AuthUser user) {
+    public static AuthenticationResponseDTO from(String token, String refreshToken, AuthUser user) {
         return new AuthenticationResponseDTO(
                 token,
+                refreshToken,
                 user.getEmail(),
                 user.getId()
         );
@@ -0,0 +1,46 @@
+package edu.infnet.inventorize.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+@Schema(description = "DTO para resposta paginada por cursor")
+public record CursorPageResponseDTO<T>(
+        @Schema(description = "Os registros da página, ordenados pelo ID")
+        List<T> content,
+
+        @Schema(
+                description = "A quantidade de registros na página",
+                example = "50"
+        )
+        int size,
+
+        @Schema(
+                description = "O cursor da próxima página, a ser enviado no parâmetro 'after'; nulo na última página",
+                example = "edab2541-bfea-4bc1-b410-d4f73039f511"
+        )
+        UUID nextCursor
+) {
+    /**
+     * Monta a página a partir dos registros consultados. A consulta deve buscar um registro além do limite:
+     * a presença dele indica que existe uma próxima página, sem a necessidade de uma contagem.
+     *
+     * @param rows   registros consultados, ordenados pelo ID, com até limit + 1 elementos
+     * @param limit  tamanho da página
+     * @param mapper conversão do registro para o DTO
+     * @param id     obtém o ID do registro, usado como cursor
+     * @return a página com o cursor da próxima, se houver
+     */
+    public static <E, T> CursorPageResponseDTO<T> from(List<E> rows, int limit, Function<E, T> mapper, Function<E, UUID> id) {
+        boolean hasNext = rows.size() > limit;
+        List<E> page = hasNext ? rows.subList(0, limit) : rows;
+
+        return new CursorPageResponseDTO<>(
+                page.stream().map(mapper).toList(),
+                page.size(),
+                hasNext ? id.apply(page.get(page.size() - 1)) : null
+        );
+    }
+}
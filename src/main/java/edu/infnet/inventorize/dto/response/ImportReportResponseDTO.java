@@ -0,0 +1,44 @@
+package edu.infnet.inventorize.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "DTO para resposta de uma importação em massa")
+public record ImportReportResponseDTO(
+        @Schema(
+                description = "A quantidade de linhas de dados lidas do arquivo, sem contar o cabeçalho e as linhas em branco",
+                example = "1000"
+        )
+        int processedRows,
+
+        @Schema(
+                description = "A quantidade de registros inseridos",
+                example = "998"
+        )
+        int importedRows,
+
+        @Schema(
+                description = "A quantidade de linhas rejeitadas",
+                example = "2"
+        )
+        int rejectedRows,
+
+        @Schema(description = "Os erros das linhas rejeitadas, limitados aos primeiros encontrados")
+        List<RowError> errors
+) {
+    @Schema(description = "Erro de uma linha do arquivo importado")
+    public record RowError(
+            @Schema(
+                    description = "O número da linha no arquivo, começando em 1",
+                    example = "42"
+            )
+            long line,
+
+            @Schema(
+                    description = "O motivo da rejeição",
+                    example = "O nome do produto é obrigatório"
+            )
+            String message
+    ) {}
+}
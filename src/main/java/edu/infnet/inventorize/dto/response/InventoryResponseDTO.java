@@ -1,5 +1,6 @@
 package edu.infnet.inventorize.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import edu.infnet.inventorize.entities.Inventory;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -33,15 +34,27 @@ public record InventoryResponseDTO(
                 description = "ID do proprietário do inventário",
                 example = "d66a1dd1-cdd7-4046-9d7c-0293f1fa790b"
         )
-        UUID ownerId
+        UUID ownerId,
+
+        @JsonIgnore
+        @Schema(hidden = true)
+        Long version
 ) {
+    /**
+     * Cria a resposta sem a versão, usada pelas consultas de listagem, que não expõem ETag.
+     */
+    public InventoryResponseDTO(UUID id, String name, String description, String notificationEmail, UUID ownerId) {
+        this(id, name, description, notificationEmail, ownerId, null);
+    }
+
     public static InventoryResponseDTO from(Inventory inventory) {
         return new InventoryResponseDTO(
                 inventory.getId(),
                 inventory.getName(),
                 inventory.getDescription(),
                 inventory.getNotificationEmail(),
-                inventory.getOwner().getId()
+                inventory.getOwner().getId(),
+                inventory.getVersion()
         );
     }
 }
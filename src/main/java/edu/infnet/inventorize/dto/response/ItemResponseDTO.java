@@ -1,5 +1,6 @@
 package edu.infnet.inventorize.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import edu.infnet.inventorize.entities.Item;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -35,15 +36,27 @@ public record ItemResponseDTO(
                 description = "O nível mínimo de estoque do item",
                 example = "5"
         )
-        int minimumStockLevel
+        int minimumStockLevel,
+
+        @JsonIgnore
+        @Schema(hidden = true)
+        Long version
 ) {
+    /**
+     * Resposta sem a versão, montada pelas consultas de listagem e exportação.
+     */
+    public ItemResponseDTO(UUID id, UUID productId, UUID inventoryId, int currentQuantity, int minimumStockLevel) {
+        this(id, productId, inventoryId, currentQuantity, minimumStockLevel, null);
+    }
+
     public static ItemResponseDTO from(Item item) {
         return new ItemResponseDTO(
                 item.getId(),
                 item.getProduct().getId(),
                 item.getInventory().getId(),
                 item.getCurrentQuantity(),
-                item.getMinimumStockLevel()
+                item.getMinimumStockLevel(),
+                item.getVersion()
         );
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package edu.infnet.inventorize.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import edu.infnet.inventorize.entities.Product;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -29,14 +30,26 @@ public record ProductResponseDTO(
                 description = "O código do fornecedor do produto",
                 example = "SUP12345"
         )
-        String supplierCode
+        String supplierCode,
+
+        @JsonIgnore
+        @Schema(hidden = true)
+        Long version
 ) {
+    /**
+     * Resposta sem a versão, para as consultas que projetam vários produtos direto no DTO.
+     */
+    public ProductResponseDTO(UUID productId, UUID ownerId, String name, String supplierCode) {
+        this(productId, ownerId, name, supplierCode, null);
+    }
+
      public static ProductResponseDTO fromProduct(Product product){
          return new ProductResponseDTO(
                  product.getId(),
                  product.getOwner().getId(),
                  product.getName(),
-                 product.getSupplierCode()
+                 product.getSupplierCode(),
+                 product.getVersion()
          );
      }
 }
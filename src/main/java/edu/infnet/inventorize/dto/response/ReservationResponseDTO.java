@@ -0,0 +1,43 @@
+package edu.infnet.inventorize.dto.response;
+
+import edu.infnet.inventorize.entities.StockReservation;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "DTO para resposta de reserva de estoque")
+public record ReservationResponseDTO(
+        @Schema(
+                description = "O ID da reserva",
+                example = "01927a41-2c7d-7e10-a5b3-6d2f8e1c4a07"
+        )
+        UUID id,
+
+        @Schema(
+                description = "O ID do item reservado",
+                example = "edab2541-bfea-4bc1-b410-d4f73039f511"
+        )
+        UUID itemId,
+
+        @Schema(
+                description = "A quantidade reservada",
+                example = "2"
+        )
+        int quantity,
+
+        @Schema(
+                description = "O instante em que a reserva expira e a quantidade volta a ficar disponível",
+                example = "2025-06-20T14:47:05.120Z"
+        )
+        Instant expiresAt
+) {
+    public static ReservationResponseDTO from(StockReservation reservation) {
+        return new ReservationResponseDTO(
+                reservation.getId(),
+                reservation.getItemId(),
+                reservation.getQuantity(),
+                reservation.getExpiresAt()
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package edu.infnet.inventorize.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "DTO para resposta da disponibilidade de estoque de um item")
+public record StockAvailabilityResponseDTO(
+        @Schema(
+                description = "O ID do item",
+                example = "edab2541-bfea-4bc1-b410-d4f73039f511"
+        )
+        UUID itemId,
+
+        @Schema(
+                description = "A quantidade atual do item em estoque",
+                example = "20"
+        )
+        int currentQuantity,
+
+        @Schema(
+                description = "A quantidade retida por reservas em aberto",
+                example = "3"
+        )
+        int reservedQuantity,
+
+        @Schema(
+                description = "A quantidade disponível: a atual menos a reservada",
+                example = "17"
+        )
+        int availableQuantity
+) {
+}
@@ -0,0 +1,47 @@
+package edu.infnet.inventorize.dto.response;
+
+import edu.infnet.inventorize.enums.MovementReason;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "DTO para resposta de movimentação de estoque")
+public record StockMovementResponseDTO(
+        @Schema(
+                description = "O ID da movimentação",
+                example = "01927a3c-5e8f-7b21-9c4d-3f6a1e2b7d90"
+        )
+        UUID id,
+
+        @Schema(
+                description = "O ID do item movimentado",
+                example = "edab2541-bfea-4bc1-b410-d4f73039f511"
+        )
+        UUID itemId,
+
+        @Schema(
+                description = "A variação da quantidade (positiva ou negativa)",
+                example = "-3"
+        )
+        int delta,
+
+        @Schema(
+                description = "A origem da movimentação",
+                example = "ADJUSTMENT"
+        )
+        MovementReason reason,
+
+        @Schema(
+                description = "O ID do usuário que fez a movimentação",
+                example = "4931241e-a79e-44f0-83fd-af904e933f29"
+        )
+        UUID actorId,
+
+        @Schema(
+                description = "O instante da movimentação",
+                example = "2025-06-20T14:32:05.120Z"
+        )
+        Instant createdAt
+) {
+}
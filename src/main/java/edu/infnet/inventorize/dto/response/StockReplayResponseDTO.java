@@ -0,0 +1,39 @@
+package edu.infnet.inventorize.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "DTO para resposta da reconstrução da quantidade de um item a partir do histórico")
+public record StockReplayResponseDTO(
+        @Schema(
+                description = "O ID do item",
+                example = "edab2541-bfea-4bc1-b410-d4f73039f511"
+        )
+        UUID itemId,
+
+        @Schema(
+                description = "A quantidade consolidada no último snapshot",
+                example = "40"
+        )
+        int snapshotQuantity,
+
+        @Schema(
+                description = "A quantidade de movimentações posteriores ao snapshot que foram reaplicadas",
+                example = "12"
+        )
+        long replayedMovements,
+
+        @Schema(
+                description = "A quantidade reconstruída a partir do histórico, que passa a ser a quantidade atual do item",
+                example = "47"
+        )
+        int replayedQuantity,
+
+        @Schema(
+                description = "A quantidade registrada no item antes da reconstrução",
+                example = "47"
+        )
+        int previousQuantity
+) {
+}
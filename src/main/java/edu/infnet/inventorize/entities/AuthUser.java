@@ -6,22 +6,22 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.util.Set;
 import java.util.UUID;
 
 @Entity
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @RequiredArgsConstructor
 @EqualsAndHashCode(callSuper = false)
 @ToString(exclude = "hashPassword")
 public class AuthUser {
     @Id
-    @GeneratedValue(generator = "UUID")
-    @UuidGenerator(style = UuidGenerator.Style.RANDOM)
+    @UuidV7
     private UUID id;
 
     @Email
@@ -29,10 +29,12 @@ public class AuthUser {
     @Column(nullable = false, unique = true)
     private String email;
 
+    @JdbcTypeCode(SqlTypes.CHAR)
     @Column(nullable = false, columnDefinition = "CHAR(60)")
     private String hashPassword;
 
     @Enumerated(EnumType.STRING)
     @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(indexes = @Index(name = "idx_auth_user_roles_auth_user_id", columnList = "auth_user_id"))
     private Set<Role> roles;
 }
\ No newline at end of file
@@ -5,20 +5,19 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
-import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_inventory_owner_id", columnList = "owner_id, id"))
 @Getter
 @Builder(toBuilder = true)
-@ToString
+@ToString(exclude = "owner")
 @AllArgsConstructor
 @NoArgsConstructor
 public class Inventory {
     @Id
-    @GeneratedValue(generator = "UUID")
-    @UuidGenerator(style = UuidGenerator.Style.RANDOM)
+    @UuidV7
     private UUID id;
 
     @NotBlank
@@ -33,7 +32,11 @@ public class Inventory {
     private String notificationEmail;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private AuthUser owner;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
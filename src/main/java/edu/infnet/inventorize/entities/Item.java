@@ -5,11 +5,16 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 import org.hibernate.annotations.Collate;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_item_inventory_id", columnList = "inventory_id, id"),
+        @Index(name = "idx_item_product_id", columnList = "product_id"),
+        @Index(name = "idx_item_low_stock_inventory_id", columnList = "low_stock, inventory_id")
+})
 @Getter
 @Builder(toBuilder = true)
 @ToString
@@ -17,8 +22,7 @@ import java.util.UUID;
 @NoArgsConstructor
 public class Item {
     @Id
-    @GeneratedValue(generator = "UUID")
-    @UuidGenerator(style = UuidGenerator.Style.RANDOM)
+    @UuidV7
     private UUID id;
 
     @NotNull
@@ -38,4 +42,36 @@ public class Item {
     @NotNull
     @PositiveOrZero
     private int minimumStockLevel;
+
+    /**
+     * Quantidade retida por reservas ainda não confirmadas nem liberadas. A quantidade disponível é a atual menos a
+     * reservada, e nenhum ajuste pode deixar a atual abaixo da reservada. Só é alterada pelos UPDATEs condicionais
+     * do {@code ItemRepository}, que também incrementam a versão.
+     */
+    @PositiveOrZero
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int reservedQuantity;
+
+    /**
+     * Indica se a quantidade atual está no nível mínimo de estoque ou abaixo dele.
+     * É persistido para que a consulta de itens com estoque baixo use um índice em vez de comparar as duas colunas
+     * em todas as linhas, e é recalculado antes de cada inserção ou atualização da entidade.
+     */
+    @Column(nullable = false)
+    private boolean lowStock;
+
+    /**
+     * Versão para controle de concorrência otimista: toda atualização confere e incrementa o valor,
+     * e é o valor exposto no cabeçalho ETag das respostas.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    private void updateLowStock() {
+        this.lowStock = currentQuantity <= minimumStockLevel;
+    }
 }
\ No newline at end of file
@@ -4,19 +4,21 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
-import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_owner_id", columnList = "owner_id, id"),
+        @Index(name = "idx_product_name_supplier_code", columnList = "name, supplier_code")
+})
 @Getter
 @Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class Product {
     @Id
-    @GeneratedValue(generator = "UUID")
-    @UuidGenerator(style = UuidGenerator.Style.RANDOM)
+    @UuidV7
     private UUID id;
 
     @NotBlank
@@ -27,6 +29,10 @@ public class Product {
     private String supplierCode;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AuthUser owner;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package edu.infnet.inventorize.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Refresh token persistido apenas pelo seu digest SHA-256.
+ * Tokens emitidos a partir de um mesmo login compartilham a mesma família, permitindo revogar toda a cadeia
+ * de rotações quando um token já utilizado é apresentado novamente.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_refresh_token_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_token_user_id", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at")
+})
+@Getter
+@Builder(toBuilder = true)
+@ToString(exclude = {"tokenHash", "user"})
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshToken {
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @JdbcTypeCode(SqlTypes.CHAR)
+    @Column(nullable = false, unique = true, columnDefinition = "CHAR(64)")
+    private String tokenHash;
+
+    @NotNull
+    @Column(nullable = false)
+    private UUID familyId;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private AuthUser user;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+}
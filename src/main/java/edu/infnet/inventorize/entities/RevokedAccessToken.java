@@ -0,0 +1,32 @@
+package edu.infnet.inventorize.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Token de acesso revogado antes da sua expiração, identificado pelo jti.
+ * O registro só precisa existir até o token expirar.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_revoked_access_token_expires_at", columnList = "expires_at"))
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedAccessToken {
+    @Id
+    private UUID tokenId;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
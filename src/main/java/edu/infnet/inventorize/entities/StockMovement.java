@@ -0,0 +1,54 @@
+package edu.infnet.inventorize.entities;
+
+import edu.infnet.inventorize.enums.MovementReason;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Movimentação de estoque de um item. Os registros só são inseridos, nunca alterados, e continuam existindo depois
+ * que o item é removido, formando o histórico de auditoria.
+ * <p>
+ * O item e o usuário são guardados apenas pelos IDs, sem chave estrangeira, justamente para sobreviverem à remoção.
+ * A versão do item é a que ele passou a ter com a movimentação; é por ela que o {@link StockSnapshot} sabe quais
+ * movimentações já consolidou, já que as versões de um item são atribuídas em sequência, sob o bloqueio da linha.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_stock_movement_item_id", columnList = "item_id, id"),
+        @Index(name = "idx_stock_movement_item_version", columnList = "item_id, item_version")
+})
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovement {
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @NotNull
+    @Column(nullable = false)
+    private UUID itemId;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long itemVersion;
+
+    private int delta;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MovementReason reason;
+
+    private UUID actorId;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,55 @@
+package edu.infnet.inventorize.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Reserva de uma quantidade de um item por tempo limitado, por exemplo durante um checkout.
+ * <p>
+ * A quantidade reservada fica somada em {@link Item#getReservedQuantity()}, e não é retirada do estoque até a
+ * reserva ser confirmada. Uma reserva confirmada, liberada ou expirada é removida, então a tabela guarda apenas as
+ * reservas em aberto; o índice pela expiração é o que permite liberar as vencidas sem percorrer as demais.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_stock_reservation_item_id", columnList = "item_id")
+})
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservation {
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @NotNull
+    @Column(nullable = false)
+    private UUID itemId;
+
+    @NotNull
+    @Column(nullable = false)
+    private UUID ownerId;
+
+    @Positive
+    private int quantity;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public boolean isExpiredAt(Instant instant) {
+        return !expiresAt.isAfter(instant);
+    }
+}
@@ -0,0 +1,36 @@
+package edu.infnet.inventorize.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Quantidade consolidada das movimentações de um item até uma versão.
+ * A quantidade do item pode ser reconstruída somando a esse valor apenas as movimentações posteriores,
+ * sem percorrer todo o histórico.
+ */
+@Entity
+@Getter
+@Builder(toBuilder = true)
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockSnapshot {
+    @Id
+    private UUID itemId;
+
+    private int quantity;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long itemVersion;
+
+    @NotNull
+    @Column(nullable = false)
+    private Instant takenAt;
+}
@@ -0,0 +1,65 @@
+package edu.infnet.inventorize.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera identificadores UUID versão 7 (RFC 9562): os 48 bits iniciais são o instante em milissegundos,
+ * seguidos de um contador de 12 bits e de 62 bits aleatórios.
+ * Como os IDs crescem com o tempo, novas linhas são inseridas no fim dos índices de chave primária em vez de
+ * em páginas aleatórias, e a ordenação por ID acompanha a ordem de criação.
+ * O contador garante IDs estritamente crescentes na mesma JVM, inclusive dentro de um mesmo milissegundo
+ * ou se o relógio do sistema voltar no tempo.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Último instante e contador usados, no formato (milissegundos << 12) | contador.
+     */
+    private static final AtomicLong LAST_STATE = new AtomicLong();
+
+    /**
+     * Gera um novo identificador, para inserções que não passam pelo Hibernate.
+     *
+     * @return um UUID versão 7 maior que todos os gerados anteriormente nesta JVM
+     */
+    public static UUID nextId() {
+        long state = nextState(System.currentTimeMillis());
+        long millis = state >>> COUNTER_BITS;
+        long counter = state & COUNTER_MASK;
+
+        long mostSignificantBits = (millis << 16) | (0x7L << 12) | counter;
+        long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Avança o estado: em um novo milissegundo o contador recomeça de um valor aleatório na metade inferior,
+     * o que deixa espaço para incrementos; no mesmo milissegundo (ou com o relógio atrasado) o estado anterior é
+     * incrementado, e um estouro do contador simplesmente avança o instante em um milissegundo.
+     */
+    static long nextState(long nowMillis) {
+        long candidate = (nowMillis << COUNTER_BITS) | RANDOM.nextInt(1 << (COUNTER_BITS - 1));
+        return LAST_STATE.accumulateAndGet(candidate, (last, next) -> next > last ? next : last + 1);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
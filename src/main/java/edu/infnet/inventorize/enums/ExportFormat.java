@@ -0,0 +1,21 @@
+package edu.infnet.inventorize.enums;
+
+import lombok.Getter;
+
+/**
+ * Formatos disponíveis para a exportação de registros.
+ * Cada formato possui o tipo de conteúdo da resposta e a extensão do arquivo gerado.
+ */
+@Getter
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+}
@@ -0,0 +1,19 @@
+package edu.infnet.inventorize.enums;
+
+/**
+ * Origem de uma movimentação de estoque registrada no histórico do item.
+ */
+public enum MovementReason {
+    /** Quantidade inicial de um item cadastrado. */
+    CREATION,
+    /** Quantidade inicial de um item importado por arquivo. */
+    IMPORT,
+    /** Ajuste de quantidade de um único item. */
+    ADJUSTMENT,
+    /** Linha de um ajuste em lote. */
+    BATCH_ADJUSTMENT,
+    /** Quantidade alterada na atualização completa ou parcial do item. */
+    UPDATE,
+    /** Confirmação de uma reserva, que retira do estoque a quantidade reservada. */
+    RESERVATION
+}
@@ -0,0 +1,28 @@
+package edu.infnet.inventorize.exceptions.custom;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Indica que um ajuste em lote foi rejeitado por completo, com o motivo de cada linha que não pôde ser aplicada.
+ */
+@Getter
+public class BatchAdjustmentException extends RuntimeException {
+    private final List<LineError> errors;
+
+    public BatchAdjustmentException(List<LineError> errors) {
+        super("Ajuste em lote rejeitado: %d linha(s) inválida(s)".formatted(errors.size()));
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * Erro de uma linha do lote.
+     *
+     * @param line    número da linha no lote, a partir de 1
+     * @param itemId  identificador do item da linha
+     * @param message motivo da rejeição
+     */
+    public record LineError(int line, UUID itemId, String message) {}
+}
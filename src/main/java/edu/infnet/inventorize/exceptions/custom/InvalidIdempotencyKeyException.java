@@ -0,0 +1,7 @@
+package edu.infnet.inventorize.exceptions.custom;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
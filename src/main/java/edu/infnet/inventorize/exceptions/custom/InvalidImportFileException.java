@@ -0,0 +1,7 @@
+package edu.infnet.inventorize.exceptions.custom;
+
+public class InvalidImportFileException extends RuntimeException {
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
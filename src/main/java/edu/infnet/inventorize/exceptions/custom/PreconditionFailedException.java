@@ -0,0 +1,7 @@
+package edu.infnet.inventorize.exceptions.custom;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
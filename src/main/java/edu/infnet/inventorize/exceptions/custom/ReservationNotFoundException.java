@@ -0,0 +1,7 @@
+package edu.infnet.inventorize.exceptions.custom;
+
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -4,70 +4,121 @@ import edu.infnet.inventorize.entities.AuthUser;
 import edu.infnet.inventorize.entities.Inventory;
 import edu.infnet.inventorize.entities.Item;
 import edu.infnet.inventorize.entities.Product;
+import edu.infnet.inventorize.entities.StockMovement;
+import edu.infnet.inventorize.enums.MovementReason;
 import edu.infnet.inventorize.enums.Role;
 import edu.infnet.inventorize.repository.AuthUserRepository;
 import edu.infnet.inventorize.repository.InventoryRepository;
 import edu.infnet.inventorize.repository.ItemRepository;
 import edu.infnet.inventorize.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import edu.infnet.inventorize.repository.StockMovementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
+/**
+ * Popula o banco do perfil de desenvolvimento.
+ * Sempre carrega os dados de exemplo dos CSVs em "static/csv" e, se habilitado, gera em seguida uma massa sintética
+ * de N usuários × M inventários × K itens para testes de desempenho. Os CSVs são lidos como streams do classpath,
+ * o que funciona também dentro do jar, e as entidades são gravadas em lotes, cada lote em uma transação,
+ * com o batching de JDBC do Hibernate, de modo que a memória usada não depende do volume gerado.
+ */
+@Slf4j
 @Component
 @Profile("dev")
-@RequiredArgsConstructor
 public class DataLoader implements ApplicationRunner {
-    private final List<AuthUser> allUsers;
-    private final List<Inventory> allInventories;
+    private static final String CSV_DIRECTORY = "static/csv/";
+    private static final List<String> PRODUCT_FILES = List.of(
+            "products_data_01", "products_data_02", "products_data_03", "products_data_04", "products_data_05");
 
     private final AuthUserRepository userRepository;
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
     private final ItemRepository itemRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean syntheticEnabled;
+    private final int syntheticUsers;
+    private final int inventoriesPerUser;
+    private final int itemsPerInventory;
+    private final String syntheticPassword;
+    private final long randomSeed;
 
-    @Override
-    public void run(ApplicationArguments args) throws Exception {
-        loadUsers();
-        loadInventories();
-        loadProducts();
-        loadItems();
+    public DataLoader(AuthUserRepository userRepository,
+                      InventoryRepository inventoryRepository,
+                      ProductRepository productRepository,
+                      ItemRepository itemRepository,
+                      StockMovementRepository stockMovementRepository,
+                      PasswordEncoder passwordEncoder,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${inventorize.seed.batch-size:1000}") int batchSize,
+                      @Value("${inventorize.seed.synthetic.enabled:false}") boolean syntheticEnabled,
+                      @Value("${inventorize.seed.synthetic.users:100}") int syntheticUsers,
+                      @Value("${inventorize.seed.synthetic.inventories-per-user:2}") int inventoriesPerUser,
+                      @Value("${inventorize.seed.synthetic.items-per-inventory:500}") int itemsPerInventory,
+                      @Value("${inventorize.seed.synthetic.password:Sintetic0!2024}") String syntheticPassword,
+                      @Value("${inventorize.seed.synthetic.random-seed:42}") long randomSeed) {
+        this.userRepository = userRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.productRepository = productRepository;
+        this.itemRepository = itemRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.syntheticEnabled = syntheticEnabled;
+        this.syntheticUsers = syntheticUsers;
+        this.inventoriesPerUser = inventoriesPerUser;
+        this.itemsPerInventory = itemsPerInventory;
+        this.syntheticPassword = syntheticPassword;
+        this.randomSeed = randomSeed;
     }
 
-    private void loadUsers() throws IOException {
-        var lines = Files.readAllLines(new ClassPathResource("static/csv/users_data.csv").getFile().toPath());
-        var encriptor = new BCryptPasswordEncoder();
-
-        for (var line : lines) {
-            var data = line.split(",");
-
-            var user = AuthUser.builder()
-                    .email(data[0])
-                    .hashPassword(encriptor.encode(data[1]))
-                    .roles(Set.of(Role.ROLE_USER))
-                    .build();
-
-            var savedUser = userRepository.save(user);
-            System.out.println("Usuário salvo com o email: " + savedUser.getEmail() + " e com o ID: " + savedUser.getId());
-            allUsers.add(savedUser);
-        }
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        loadCsvData();
+        if (syntheticEnabled) loadSyntheticData();
     }
 
-    private void loadInventories() throws IOException {
-        var lines = Files.readAllLines(new ClassPathResource("static/csv/inventories_data.csv").getFile().toPath());
+    /**
+     * Carrega os dados de exemplo: cada usuário recebe o inventário da mesma linha, o produto da mesma linha
+     * de cada arquivo de produtos e um item de cada um desses produtos no seu inventário.
+     */
+    private void loadCsvData() throws IOException {
+        long start = System.nanoTime();
+        var users = readCsv("users_data.csv");
+        var inventories = readCsv("inventories_data.csv");
+        var productFiles = new ArrayList<List<String[]>>();
+        for (var file : PRODUCT_FILES) productFiles.add(readCsv(file));
 
-        for (int i = 0; i < allUsers.size(); i++) {
-            var user = allUsers.get(i);
-            var data = lines.get(i).split(",");
+        // O hash das senhas é a etapa mais cara da carga, então é calculado em paralelo
+        List<AuthUser> csvUsers = users.parallelStream()
+                .map(data -> createUser(data[0], passwordEncoder.encode(data[1])))
+                .toList();
 
+        var batch = new SeedBatch();
+        for (int i = 0; i < csvUsers.size(); i++) {
+            var user = csvUsers.get(i);
+            var data = inventories.get(i);
             var inventory = Inventory.builder()
                     .name(data[0])
                     .description(data[1])
@@ -75,62 +126,159 @@ public class DataLoader implements ApplicationRunner {
                     .owner(user)
                     .build();
 
-            var savedInventory = inventoryRepository.save(inventory);
-            System.out.println("Inventário salvo com o nome: " + savedInventory.getName() + " para o usuário: " + user.getEmail());
-            allInventories.add(savedInventory);
+            batch.users.add(user);
+            batch.inventories.add(inventory);
+            for (var productLines : productFiles) {
+                var product = createProduct(productLines.get(i)[0], productLines.get(i)[1], user);
+                batch.products.add(product);
+                batch.items.add(createItem(product, inventory, 10, 5));
+            }
         }
-    }
+        batch.flush();
 
-    private void loadProducts() throws IOException {
-        var productsData01 = Files.readAllLines(new ClassPathResource("static/csv/products_data_01").getFile().toPath());
-        var productsData02 = Files.readAllLines(new ClassPathResource("static/csv/products_data_02").getFile().toPath());
-        var productsData03 = Files.readAllLines(new ClassPathResource("static/csv/products_data_03").getFile().toPath());
-        var productsData04 = Files.readAllLines(new ClassPathResource("static/csv/products_data_04").getFile().toPath());
-        var productsData05 = Files.readAllLines(new ClassPathResource("static/csv/products_data_05").getFile().toPath());
-
-        loadProductsPerUser(productsData01);
-        loadProductsPerUser(productsData02);
-        loadProductsPerUser(productsData03);
-        loadProductsPerUser(productsData04);
-        loadProductsPerUser(productsData05);
+        log.info("Dados de exemplo carregados: {} em {} ms", batch.summary(), elapsedMillis(start));
     }
 
-    private void loadProductsPerUser(List<String> fileLines) throws IOException {
-        for (int i = 0; i < allUsers.size(); i++) {
-            var inventory = allInventories.get(i);
-            var data = fileLines.get(i).split(",");
+    /**
+     * Gera a massa sintética. Cada usuário tem {@code itemsPerInventory} produtos e cada um dos seus inventários
+     * recebe um item de cada produto. Nomes, emails e quantidades são derivados dos índices e de uma semente fixa,
+     * então a mesma configuração sempre gera os mesmos dados (exceto os IDs).
+     * Todos os usuários compartilham a mesma senha, cujo hash é calculado uma única vez.
+     */
+    private void loadSyntheticData() {
+        long start = System.nanoTime();
+        var random = new Random(randomSeed);
+        var hashPassword = passwordEncoder.encode(syntheticPassword);
+        var batch = new SeedBatch();
 
-            var product = Product.builder()
-                    .name(data[0])
-                    .supplierCode(data[1])
-                    .owner(allUsers.get(i))
-                    .build();
+        for (int u = 0; u < syntheticUsers; u++) {
+            var user = createUser(String.format("usuario%06d@seed.inventorize.dev", u), hashPassword);
+            batch.users.add(user);
 
-            productRepository.save(product);
-            System.out.println("Produto salvo com o nome: " + product.getName() + " para o inventário: " + inventory.getName());
-        }
-    }
+            var products = new ArrayList<Product>(itemsPerInventory);
+            for (int k = 0; k < itemsPerInventory; k++) {
+                var product = createProduct(String.format("Produto %06d-%05d", u, k), String.format("SEED-%06d-%05d", u, k), user);
+                products.add(product);
+                batch.products.add(product);
+            }
 
-    private void loadItems() throws IOException {
-        for (var user : allUsers) {
-            var userProducts = productRepository.findAllByOwnerId(user.getId());
-            var userInventory = inventoryRepository.findByOwnerId(user.getId()).get(0);
-
-            for (var product : userProducts) {
-                var item = Item.builder()
-                        .product(product)
-                        .inventory(userInventory)
-                        .currentQuantity(10)
-                        .minimumStockLevel(5)
+            for (int m = 0; m < inventoriesPerUser; m++) {
+                var inventory = Inventory.builder()
+                        .name(String.format("Inventário %06d-%03d", u, m))
+                        .description("Inventário gerado para testes de desempenho")
+                        .notificationEmail(user.getEmail())
+                        .owner(user)
                         .build();
+                batch.inventories.add(inventory);
 
-                var savedItem = itemRepository.save(item);
-                System.out.println("Item salvo com o ID: " + savedItem.getId() +
-                                   ", produto: " + product.getName() +
-                                   ", inventário: " + userInventory.getName() +
-                                   ", quantidade atual: " + savedItem.getCurrentQuantity() +
-                                   ", nível mínimo de estoque: " + savedItem.getMinimumStockLevel());
+                for (var product : products) {
+                    batch.items.add(createItem(product, inventory, random.nextInt(100), random.nextInt(20)));
+                    batch.flushIfFull();
+                }
             }
+            batch.flushIfFull();
+        }
+        batch.flush();
+
+        log.info("Massa sintética gerada: {} em {} ms", batch.summary(), elapsedMillis(start));
+    }
+
+    private List<String[]> readCsv(String fileName) throws IOException {
+        var resource = new ClassPathResource(CSV_DIRECTORY + fileName);
+        try (var reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(line -> line.split(","))
+                    .toList();
+        }
+    }
+
+    private static AuthUser createUser(String email, String hashPassword) {
+        return AuthUser.builder()
+                .email(email)
+                .hashPassword(hashPassword)
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+    }
+
+    private static Product createProduct(String name, String supplierCode, AuthUser owner) {
+        return Product.builder()
+                .name(name)
+                .supplierCode(supplierCode)
+                .owner(owner)
+                .build();
+    }
+
+    private static Item createItem(Product product, Inventory inventory, int currentQuantity, int minimumStockLevel) {
+        return Item.builder()
+                .product(product)
+                .inventory(inventory)
+                .currentQuantity(currentQuantity)
+                .minimumStockLevel(minimumStockLevel)
+                .build();
+    }
+
+    /**
+     * Movimentação com a quantidade inicial do item, a mesma registrada no cadastro pela API.
+     */
+    private static StockMovement openingMovement(Item item) {
+        return StockMovement.builder()
+                .itemId(item.getId())
+                .itemVersion(item.getVersion())
+                .delta(item.getCurrentQuantity())
+                .reason(MovementReason.CREATION)
+                .actorId(item.getInventory().getOwner().getId())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Entidades pendentes de gravação. Cada descarga grava os usuários, inventários, produtos e itens acumulados,
+     * nessa ordem e em uma única transação, e libera as entidades da memória ao fim dela. Entidades de lotes
+     * anteriores continuam sendo referenciadas pelas novas apenas pelo ID.
+     */
+    private class SeedBatch {
+        private final List<AuthUser> users = new ArrayList<>();
+        private final List<Inventory> inventories = new ArrayList<>();
+        private final List<Product> products = new ArrayList<>();
+        private final List<Item> items = new ArrayList<>();
+        private long savedUsers;
+        private long savedInventories;
+        private long savedProducts;
+        private long savedItems;
+
+        private void flushIfFull() {
+            if (users.size() + inventories.size() + products.size() + items.size() >= batchSize) flush();
+        }
+
+        private void flush() {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                inventoryRepository.saveAll(inventories);
+                productRepository.saveAll(products);
+                itemRepository.saveAll(items);
+                stockMovementRepository.saveAll(items.stream()
+                        .filter(item -> item.getCurrentQuantity() != 0)
+                        .map(DataLoader::openingMovement)
+                        .toList());
+            });
+
+            savedUsers += users.size();
+            savedInventories += inventories.size();
+            savedProducts += products.size();
+            savedItems += items.size();
+            users.clear();
+            inventories.clear();
+            products.clear();
+            items.clear();
+        }
+
+        private String summary() {
+            return String.format("%d usuários, %d inventários, %d produtos e %d itens", savedUsers, savedInventories, savedProducts, savedItems);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,45 @@
 package edu.infnet.inventorize.repository;
 
+import edu.infnet.inventorize.dto.response.InventoryResponseDTO;
 import edu.infnet.inventorize.entities.Inventory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     List<Inventory> findByOwnerId(UUID ownerId);
-}
\ No newline at end of file
+
+    @Query("SELECT inv.id FROM Inventory inv WHERE inv.owner.id = :ownerId AND inv.id IN :ids")
+    List<UUID> findOwnedIds(@Param("ownerId") UUID ownerId, @Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.InventoryResponseDTO(inv.id, inv.name, inv.description, inv.notificationEmail, inv.owner.id, inv.version)
+            FROM Inventory inv
+            WHERE inv.id = :inventoryId AND inv.owner.id = :ownerId
+            """)
+    Optional<InventoryResponseDTO> findOwnedResponseById(@Param("inventoryId") UUID inventoryId, @Param("ownerId") UUID ownerId);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.InventoryResponseDTO(inv.id, inv.name, inv.description, inv.notificationEmail, inv.owner.id)
+            FROM Inventory inv
+            WHERE inv.owner.id = :ownerId
+            ORDER BY inv.id
+            """)
+    List<InventoryResponseDTO> findPageByOwnerId(@Param("ownerId") UUID ownerId, Limit limit);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.InventoryResponseDTO(inv.id, inv.name, inv.description, inv.notificationEmail, inv.owner.id)
+            FROM Inventory inv
+            WHERE inv.owner.id = :ownerId AND inv.id > :after
+            ORDER BY inv.id
+            """)
+    List<InventoryResponseDTO> findPageByOwnerIdAfter(@Param("ownerId") UUID ownerId, @Param("after") UUID after, Limit limit);
+}
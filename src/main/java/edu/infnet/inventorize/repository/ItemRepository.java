@@ -1,30 +1,199 @@
 package edu.infnet.inventorize.repository;
 
+import edu.infnet.inventorize.dto.response.ItemResponseDTO;
+import edu.infnet.inventorize.dto.response.StockAvailabilityResponseDTO;
 import edu.infnet.inventorize.entities.Item;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, UUID> {
-    List<Item> getAllItemsByInventoryId(UUID inventoryId);
-    List<Item> getAllItemsByInventoryIdIn(List<UUID> inventoryIds);
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ItemResponseDTO(i.id, i.product.id, i.inventory.id, i.currentQuantity, i.minimumStockLevel)
+            FROM Item i
+            WHERE i.inventory.id = :inventoryId
+            ORDER BY i.id
+            """)
+    List<ItemResponseDTO> findResponsesByInventoryId(@Param("inventoryId") UUID inventoryId);
 
-    @Query("SELECT i FROM Item i WHERE i.inventory.id IN :inventoryIds AND i.currentQuantity < i.minimumStockLevel")
-    List<Item> findLowStockItemsByInventoryIdIn(@Param("inventoryIds") List<UUID> inventoryIds);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ItemResponseDTO(i.id, i.product.id, i.inventory.id, i.currentQuantity, i.minimumStockLevel)
+            FROM Item i
+            WHERE i.inventory.owner.id = :ownerId
+            ORDER BY i.id
+            """)
+    Stream<ItemResponseDTO> streamByOwnerId(@Param("ownerId") UUID ownerId);
 
-    List<Item> getAllWhereMinimumStockLevelIsLowerThanCurrentQuantityByInventoryIdIn(List<UUID> inventoryIds);
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ItemResponseDTO(i.id, i.product.id, i.inventory.id, i.currentQuantity, i.minimumStockLevel)
+            FROM Item i
+            WHERE i.lowStock = true AND i.inventory.owner.id = :ownerId
+            ORDER BY i.id
+            """)
+    List<ItemResponseDTO> findLowStockByOwnerId(@Param("ownerId") UUID ownerId);
 
     Optional<Item> findById(UUID itemId);
 
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ItemResponseDTO(i.id, i.product.id, i.inventory.id, i.currentQuantity, i.minimumStockLevel)
+            FROM Item i
+            WHERE i.inventory.owner.id = :ownerId
+            ORDER BY i.id
+            """)
+    List<ItemResponseDTO> findPageByOwnerId(@Param("ownerId") UUID ownerId, Limit limit);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ItemResponseDTO(i.id, i.product.id, i.inventory.id, i.currentQuantity, i.minimumStockLevel)
+            FROM Item i
+            WHERE i.inventory.owner.id = :ownerId AND i.id > :after
+            ORDER BY i.id
+            """)
+    List<ItemResponseDTO> findPageByOwnerIdAfter(@Param("ownerId") UUID ownerId, @Param("after") UUID after, Limit limit);
+
+    @Query("""
+            SELECT i FROM Item i
+            JOIN FETCH i.inventory inv
+            JOIN FETCH i.product p
+            WHERE i.id = :itemId AND inv.owner.id = :ownerId AND p.owner.id = :ownerId
+            """)
+    Optional<Item> findOwnedById(@Param("itemId") UUID itemId, @Param("ownerId") UUID ownerId);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ItemResponseDTO(i.id, i.product.id, i.inventory.id, i.currentQuantity, i.minimumStockLevel, i.version)
+            FROM Item i
+            WHERE i.id = :itemId AND i.inventory.owner.id = :ownerId AND i.product.owner.id = :ownerId
+            """)
+    Optional<ItemResponseDTO> findOwnedResponseById(@Param("itemId") UUID itemId, @Param("ownerId") UUID ownerId);
+
+    /**
+     * Bloqueia apenas as linhas dos itens do usuário. A ordenação pelo ID define também a ordem em que as linhas são
+     * bloqueadas, então dois lotes com itens em comum sempre disputam os bloqueios na mesma ordem. A propriedade é
+     * conferida por subconsultas, que não bloqueiam o inventário nem o produto: com eles no FROM, o bloqueio se
+     * estenderia às suas linhas, tomadas na ordem dos itens, e lotes com inventários ou produtos em comum poderiam
+     * entrar em deadlock ou esperar uns pelos outros. O inventário e o produto voltam sem carregar; veja
+     * {@link #findWithParentsByIds(Collection)}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT i FROM Item i
+            WHERE i.id IN :itemIds
+              AND EXISTS (SELECT 1 FROM Inventory inv WHERE inv.id = i.inventory.id AND inv.owner.id = :ownerId)
+              AND EXISTS (SELECT 1 FROM Product p WHERE p.id = i.product.id AND p.owner.id = :ownerId)
+            ORDER BY i.id
+            """)
+    List<Item> lockOwnedByIds(@Param("itemIds") Collection<UUID> itemIds, @Param("ownerId") UUID ownerId);
+
+    /**
+     * Carrega os itens com o inventário e o produto, sem bloqueio. Chamado depois de {@link #lockOwnedByIds}, preenche
+     * os itens já bloqueados na mesma transação.
+     */
+    @Query("""
+            SELECT i FROM Item i
+            JOIN FETCH i.inventory
+            JOIN FETCH i.product
+            WHERE i.id IN :itemIds
+            """)
+    List<Item> findWithParentsByIds(@Param("itemIds") Collection<UUID> itemIds);
+
+    /**
+     * Bloqueia os itens para atualização, sem verificar o proprietário, na mesma ordem de
+     * {@link #lockOwnedByIds(Collection, UUID)}.
+     */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Item> findItemById(UUID inventoryItemId);
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> findAllByIdsForUpdate(@Param("itemIds") Collection<UUID> itemIds);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.StockAvailabilityResponseDTO(i.id, i.currentQuantity, i.reservedQuantity, i.currentQuantity - i.reservedQuantity)
+            FROM Item i
+            WHERE i.id = :itemId AND i.inventory.owner.id = :ownerId AND i.product.owner.id = :ownerId
+            """)
+    Optional<StockAvailabilityResponseDTO> findOwnedAvailabilityById(@Param("itemId") UUID itemId, @Param("ownerId") UUID ownerId);
+
+    /**
+     * Aplica o ajuste em um único comando, somente se o item pertencer ao usuário e a quantidade resultante não ficar
+     * abaixo da quantidade reservada (e, portanto, não for negativa). O indicador de estoque baixo e a versão são
+     * atualizados no próprio comando, já que a atualização em lote não passa pelos callbacks da entidade nem pelo
+     * controle de versão do Hibernate.
+     *
+     * @return 1 se o ajuste foi aplicado, 0 se o item não existe, não pertence ao usuário ou o estoque é insuficiente
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Item i
+            SET i.currentQuantity = i.currentQuantity + :adjustment,
+                i.lowStock = CASE WHEN i.currentQuantity + :adjustment <= i.minimumStockLevel THEN true ELSE false END,
+                i.version = i.version + 1
+            WHERE i.id = :itemId
+              AND i.currentQuantity + :adjustment >= i.reservedQuantity
+              AND EXISTS (SELECT 1 FROM Inventory inv WHERE inv.id = i.inventory.id AND inv.owner.id = :ownerId)
+              AND EXISTS (SELECT 1 FROM Product p WHERE p.id = i.product.id AND p.owner.id = :ownerId)
+            """)
+    int adjustQuantity(@Param("itemId") UUID itemId, @Param("ownerId") UUID ownerId, @Param("adjustment") int adjustment);
+
+    /**
+     * Reserva a quantidade em um único comando, somente se o item pertencer ao usuário e tiver essa quantidade
+     * disponível, isto é, ainda não reservada. A versão é incrementada porque a quantidade disponível mudou.
+     *
+     * @return 1 se a quantidade foi reservada, 0 se o item não existe, não pertence ao usuário ou a quantidade
+     * disponível é insuficiente
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Item i
+            SET i.reservedQuantity = i.reservedQuantity + :quantity,
+                i.version = i.version + 1
+            WHERE i.id = :itemId
+              AND i.currentQuantity - i.reservedQuantity >= :quantity
+              AND EXISTS (SELECT 1 FROM Inventory inv WHERE inv.id = i.inventory.id AND inv.owner.id = :ownerId)
+              AND EXISTS (SELECT 1 FROM Product p WHERE p.id = i.product.id AND p.owner.id = :ownerId)
+            """)
+    int reserveQuantity(@Param("itemId") UUID itemId, @Param("ownerId") UUID ownerId, @Param("quantity") int quantity);
+
+    /**
+     * Confirma uma quantidade reservada, retirando-a ao mesmo tempo do estoque e da reserva.
+     *
+     * @return 1 se a quantidade foi retirada, 0 se o item não existe ou não tem essa quantidade reservada
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Item i
+            SET i.currentQuantity = i.currentQuantity - :quantity,
+                i.reservedQuantity = i.reservedQuantity - :quantity,
+                i.lowStock = CASE WHEN i.currentQuantity - :quantity <= i.minimumStockLevel THEN true ELSE false END,
+                i.version = i.version + 1
+            WHERE i.id = :itemId AND i.reservedQuantity >= :quantity
+            """)
+    int commitReservedQuantity(@Param("itemId") UUID itemId, @Param("quantity") int quantity);
+
+    /**
+     * Devolve uma quantidade reservada ao estoque disponível, sem alterar a quantidade atual.
+     *
+     * @return 1 se a quantidade foi devolvida, 0 se o item não existe ou não tem essa quantidade reservada
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Item i
+            SET i.reservedQuantity = i.reservedQuantity - :quantity,
+                i.version = i.version + 1
+            WHERE i.id = :itemId AND i.reservedQuantity >= :quantity
+            """)
+    int releaseReservedQuantity(@Param("itemId") UUID itemId, @Param("quantity") int quantity);
 }
\ No newline at end of file
@@ -1,15 +1,67 @@
 package edu.infnet.inventorize.repository;
 
+import edu.infnet.inventorize.dto.response.ProductResponseDTO;
 import edu.infnet.inventorize.entities.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
     boolean existsByNameAndSupplierCode(String name, String supplierCode);
 
     List<Product> findAllByOwnerId(UUID ownerId);
-}
\ No newline at end of file
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ProductResponseDTO(p.id, p.owner.id, p.name, p.supplierCode)
+            FROM Product p
+            WHERE p.name IN :names
+            """)
+    List<ProductResponseDTO> findResponsesByNameIn(@Param("names") Collection<String> names);
+
+    @Query("SELECT p.id FROM Product p WHERE p.owner.id = :ownerId AND p.id IN :ids")
+    List<UUID> findOwnedIds(@Param("ownerId") UUID ownerId, @Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ProductResponseDTO(p.id, p.owner.id, p.name, p.supplierCode, p.version)
+            FROM Product p
+            WHERE p.id = :productId AND p.owner.id = :ownerId
+            """)
+    Optional<ProductResponseDTO> findOwnedResponseById(@Param("productId") UUID productId, @Param("ownerId") UUID ownerId);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ProductResponseDTO(p.id, p.owner.id, p.name, p.supplierCode)
+            FROM Product p
+            WHERE p.owner.id = :ownerId
+            ORDER BY p.id
+            """)
+    List<ProductResponseDTO> findPageByOwnerId(@Param("ownerId") UUID ownerId, Limit limit);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ProductResponseDTO(p.id, p.owner.id, p.name, p.supplierCode)
+            FROM Product p
+            WHERE p.owner.id = :ownerId AND p.id > :after
+            ORDER BY p.id
+            """)
+    List<ProductResponseDTO> findPageByOwnerIdAfter(@Param("ownerId") UUID ownerId, @Param("after") UUID after, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.ProductResponseDTO(p.id, p.owner.id, p.name, p.supplierCode)
+            FROM Product p
+            WHERE p.owner.id = :ownerId
+            ORDER BY p.id
+            """)
+    Stream<ProductResponseDTO> streamByOwnerId(@Param("ownerId") UUID ownerId);
+}
@@ -0,0 +1,24 @@
+package edu.infnet.inventorize.repository;
+
+import edu.infnet.inventorize.entities.RevokedAccessToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, UUID> {
+    @Query("SELECT r.tokenId FROM RevokedAccessToken r WHERE r.expiresAt > :now")
+    List<UUID> findActiveTokenIds(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedAccessToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
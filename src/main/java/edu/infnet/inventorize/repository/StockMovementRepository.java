@@ -0,0 +1,47 @@
+package edu.infnet.inventorize.repository;
+
+import edu.infnet.inventorize.dto.response.StockMovementResponseDTO;
+import edu.infnet.inventorize.entities.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, UUID> {
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.StockMovementResponseDTO(m.id, m.itemId, m.delta, m.reason, m.actorId, m.createdAt)
+            FROM StockMovement m
+            WHERE m.itemId = :itemId
+            ORDER BY m.id
+            """)
+    List<StockMovementResponseDTO> findPageByItemId(@Param("itemId") UUID itemId, Limit limit);
+
+    @Query("""
+            SELECT new edu.infnet.inventorize.dto.response.StockMovementResponseDTO(m.id, m.itemId, m.delta, m.reason, m.actorId, m.createdAt)
+            FROM StockMovement m
+            WHERE m.itemId = :itemId AND m.id > :after
+            ORDER BY m.id
+            """)
+    List<StockMovementResponseDTO> findPageByItemIdAfter(@Param("itemId") UUID itemId, @Param("after") UUID after, Limit limit);
+
+    /**
+     * Soma as movimentações do item com versão no intervalo (fromVersion, toVersion].
+     */
+    @Query("""
+            SELECT COALESCE(SUM(m.delta), 0) AS delta, COUNT(m) AS movements
+            FROM StockMovement m
+            WHERE m.itemId = :itemId AND m.itemVersion > :fromVersion AND m.itemVersion <= :toVersion
+            """)
+    Tail sumBetweenVersions(@Param("itemId") UUID itemId, @Param("fromVersion") long fromVersion, @Param("toVersion") long toVersion);
+
+    interface Tail {
+        long getDelta();
+
+        long getMovements();
+    }
+}
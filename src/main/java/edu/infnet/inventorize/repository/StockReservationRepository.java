@@ -0,0 +1,44 @@
+package edu.infnet.inventorize.repository;
+
+import edu.infnet.inventorize.entities.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT r FROM StockReservation r
+            WHERE r.id = :reservationId AND r.itemId = :itemId AND r.ownerId = :ownerId
+            """)
+    Optional<StockReservation> findOwnedByIdForUpdate(@Param("reservationId") UUID reservationId,
+                                                      @Param("itemId") UUID itemId,
+                                                      @Param("ownerId") UUID ownerId);
+
+    /**
+     * Bloqueia as reservas vencidas mais antigas, pulando as que já estão bloqueadas por uma confirmação, liberação
+     * ou outra varredura em andamento ({@code SKIP LOCKED}, com o tempo de espera -2).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+            SELECT r FROM StockReservation r
+            WHERE r.expiresAt <= :now
+            ORDER BY r.expiresAt
+            """)
+    List<StockReservation> findExpiredForUpdate(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.itemId = :itemId")
+    int deleteByItemId(@Param("itemId") UUID itemId);
+}
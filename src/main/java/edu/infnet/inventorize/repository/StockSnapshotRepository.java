@@ -0,0 +1,32 @@
+package edu.infnet.inventorize.repository;
+
+import edu.infnet.inventorize.entities.StockSnapshot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, UUID> {
+    /**
+     * Itens cuja versão avançou pelo menos {@code minVersions} desde o último snapshot, ou que ainda não têm um.
+     * A busca percorre a tabela de itens, e não o histórico, então o custo não cresce com as movimentações acumuladas.
+     */
+    @Query("""
+            SELECT i.id AS itemId, i.version AS version
+            FROM Item i LEFT JOIN StockSnapshot s ON s.itemId = i.id
+            WHERE i.version - COALESCE(s.itemVersion, -1) >= :minVersions
+            ORDER BY i.id
+            """)
+    List<Candidate> findCompactionCandidates(@Param("minVersions") long minVersions, Limit limit);
+
+    interface Candidate {
+        UUID getItemId();
+
+        long getVersion();
+    }
+}
@@ -0,0 +1,61 @@
+package edu.infnet.inventorize.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Define o custo do BCrypt a partir da configuração e mede, na inicialização, quanto tempo cada hash leva no hardware atual.
+ */
+@Slf4j
+public final class BCryptCalibration {
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 16;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibracao-bcrypt";
+
+    private BCryptCalibration() {
+    }
+
+    /**
+     * Resolve o custo a ser usado. Com um tempo alvo positivo, escolhe o maior custo cujo hash não ultrapasse
+     * esse tempo; caso contrário, usa o custo configurado.
+     *
+     * @param strength custo configurado
+     * @param targetMs tempo alvo por hash em milissegundos; zero ou negativo desativa a calibração
+     * @return o custo do BCrypt
+     */
+    public static int resolveStrength(int strength, long targetMs) {
+        if (targetMs <= 0) return strength;
+
+        int calibrated = MIN_STRENGTH;
+        for (int candidate = MIN_STRENGTH; candidate <= MAX_STRENGTH; candidate++) {
+            if (millisPerHash(candidate) > targetMs) break;
+            calibrated = candidate;
+        }
+
+        log.info("BCrypt calibrado para o custo {} (alvo de {} ms por hash)", calibrated, targetMs);
+        return calibrated;
+    }
+
+    /**
+     * Mede e registra em log o tempo médio de um hash com o custo informado.
+     *
+     * @param strength custo do BCrypt
+     * @return tempo médio de um hash em milissegundos
+     */
+    public static double benchmark(int strength) {
+        double millis = millisPerHash(strength);
+        log.info("BCrypt com custo {}: {} ms por hash", strength, String.format("%.1f", millis));
+        return millis;
+    }
+
+    private static double millisPerHash(int strength) {
+        var encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) encoder.encode(SAMPLE_PASSWORD);
+
+        return (System.nanoTime() - start) / 1_000_000.0 / SAMPLES;
+    }
+}
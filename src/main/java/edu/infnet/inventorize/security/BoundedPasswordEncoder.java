@@ -0,0 +1,141 @@
+package edu.infnet.inventorize.security;
+
+import edu.infnet.inventorize.exceptions.custom.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder que executa o hash e a verificação de senhas em um pool dedicado, limitado ao número de núcleos,
+ * com fila de tamanho fixo. Assim, uma rajada de logins não consome as threads do Tomcat nem a CPU
+ * usada pelas demais rotas: quando a fila está cheia, a requisição é recusada imediatamente com
+ * {@link ServiceOverloadedException} em vez de esperar indefinidamente.
+ * Publica o tamanho da fila, as recusas e a latência do hash como métricas "auth.hashing.*".
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private static final String OVERLOADED_MESSAGE = "Muitas autenticações em andamento";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejections;
+
+    /**
+     * @param delegate      encoder que efetivamente calcula o hash
+     * @param threads       número de threads do pool; zero ou negativo usa o número de núcleos disponíveis
+     * @param queueCapacity quantidade máxima de operações aguardando uma thread livre
+     * @param timeout       tempo máximo que a requisição espera pelo resultado
+     * @param meterRegistry registro onde as métricas são publicadas
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.retryAfterSeconds = Math.max(1, timeout.toSeconds());
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Operações de hash aguardando uma thread livre")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de hash em execução")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("auth.hashing.rejected")
+                .description("Operações de hash recusadas por falta de capacidade")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.hashing.duration")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.hashing.duration")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Encerra o pool de hashing; chamado automaticamente pelo Spring ao destruir o bean.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Envia a operação ao pool e aguarda o resultado por no máximo o tempo configurado.
+     *
+     * @param operation operação de hash a ser executada
+     * @return o resultado da operação
+     * @throws ServiceOverloadedException se a fila estiver cheia ou o resultado não ficar pronto a tempo
+     */
+    private <T> T submit(Callable<T> operation) {
+        Future<T> future;
+        try {
+            future = executor.submit(operation);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceOverloadedException(OVERLOADED_MESSAGE, retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejections.increment();
+            throw new ServiceOverloadedException(OVERLOADED_MESSAGE, retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operação de hash interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException("Falha ao calcular o hash da senha", e.getCause());
+        }
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package edu.infnet.inventorize.security;
 
 import edu.infnet.inventorize.security.auth.UserAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,11 +15,12 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
@@ -30,15 +34,18 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin))
                 .authorizeHttpRequests(authorize -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/auth/refresh").permitAll()
                         .requestMatchers(
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**"
                         ).permitAll()
                         .requestMatchers(HttpMethod.GET, "/").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(userAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
@@ -50,8 +57,23 @@ public class SecurityConfig {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * Encoder de senhas usado no cadastro e no login. O BCrypt roda em um pool dedicado e limitado,
+     * para que rajadas de autenticação não esgotem as threads que atendem as demais rotas.
+     * O custo é configurável (ou calibrado por um tempo alvo) e hashes com outro custo são recalculados no login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${auth.hashing.threads:0}") int threads,
+                                           @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${auth.hashing.timeout:5s}") Duration timeout,
+                                           @Value("${auth.hashing.bcrypt.strength:10}") int strength,
+                                           @Value("${auth.hashing.bcrypt.target-ms:0}") long targetMs,
+                                           @Value("${auth.hashing.bcrypt.benchmark-on-startup:true}") boolean benchmarkOnStartup) {
+        int resolvedStrength = BCryptCalibration.resolveStrength(strength, targetMs);
+        if (benchmarkOnStartup) BCryptCalibration.benchmark(resolvedStrength);
+
+        var bcrypt = new UpgradingBCryptPasswordEncoder(resolvedStrength);
+        return new BoundedPasswordEncoder(bcrypt, threads, queueCapacity, timeout, meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package edu.infnet.inventorize.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Pattern;
+
+/**
+ * BCryptPasswordEncoder que pede a atualização do hash sempre que o custo armazenado for diferente do custo configurado,
+ * e não apenas quando for menor. Assim o custo pode ser reduzido ou aumentado por ambiente e as senhas são
+ * recalculadas de forma transparente no próximo login, sem exigir redefinição de senha.
+ */
+public class UpgradingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public UpgradingBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Indica se o hash armazenado deve ser recalculado com o custo atual.
+     *
+     * @param encodedPassword hash BCrypt armazenado
+     * @return true se o custo do hash for diferente do custo configurado, false caso contrário
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) return false;
+
+        var matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.find()) return false;
+
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
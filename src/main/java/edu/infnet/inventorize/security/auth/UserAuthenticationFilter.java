@@ -1,15 +1,18 @@
 package edu.infnet.inventorize.security.auth;
 
+import edu.infnet.inventorize.entities.AuthUser;
 import edu.infnet.inventorize.exceptions.custom.InvalidTokenException;
-import edu.infnet.inventorize.repository.AuthUserRepository;
 import edu.infnet.inventorize.services.auth.JwtService;
+import edu.infnet.inventorize.services.auth.RevokedTokenRegistry;
+import edu.infnet.inventorize.services.auth.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,23 +20,38 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class UserAuthenticationFilter extends OncePerRequestFilter {
+    private static final String DATABASE_PRINCIPAL_SOURCE = "database";
+
     private final JwtService jwtTokenService;
-    private final AuthUserRepository userRepository;
+    private final UserDetailsService userDetailsService;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final boolean loadPrincipalFromDatabase;
+
+    public UserAuthenticationFilter(JwtService jwtTokenService,
+                                    UserDetailsService userDetailsService,
+                                    RevokedTokenRegistry revokedTokenRegistry,
+                                    @Value("${auth.principal-source:token}") String principalSource) {
+        this.jwtTokenService = jwtTokenService;
+        this.userDetailsService = userDetailsService;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.loadPrincipalFromDatabase = DATABASE_PRINCIPAL_SOURCE.equalsIgnoreCase(principalSource);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var token = this.recoverToken(request);
         if (token != null) {
-            String username = jwtTokenService.getUsername(token);
-            var user = userRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+            var verifiedToken = jwtTokenService.verify(token);
+            if (verifiedToken.userId() == null || verifiedToken.tokenId() == null) throw new InvalidTokenException("Token inválido");
+            if (revokedTokenRegistry.isRevoked(verifiedToken.tokenId())) throw new InvalidTokenException("Token revogado");
 
-            var userDetails = UserDetailsImpl.builder().authUser(user).build();
-
-            if (!jwtTokenService.isTokenValid(token, userDetails)) throw new InvalidTokenException("Token inválido");
+            var userDetails = loadPrincipalFromDatabase
+                    ? loadPrincipal(verifiedToken)
+                    : UserDetailsImpl.builder().authUser(toPrincipal(verifiedToken)).build();
 
             var authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(verifiedToken);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
@@ -46,4 +64,39 @@ public class UserAuthenticationFilter extends OncePerRequestFilter {
         }
         return authHeader.substring(7);
     }
-}
\ No newline at end of file
+
+    /**
+     * Monta o usuário autenticado a partir das claims do token, sem consultar o banco.
+     * O usuário resultante não é gerenciado pelo JPA e não carrega a senha.
+     *
+     * @param verifiedToken claims verificadas do token
+     * @return usuário autenticado com ID, email e papéis
+     */
+    private AuthUser toPrincipal(VerifiedToken verifiedToken) {
+        return AuthUser.builder()
+                .id(verifiedToken.userId())
+                .email(verifiedToken.username())
+                .roles(verifiedToken.roles())
+                .build();
+    }
+
+    /**
+     * Carrega o usuário autenticado do banco (através do cache de usuários), usado quando
+     * os papéis precisam refletir o estado atual do banco e não o momento da emissão do token.
+     *
+     * @param verifiedToken claims verificadas do token
+     * @return usuário autenticado carregado do banco
+     * @throws InvalidTokenException se o usuário do token não corresponder mais ao usuário cadastrado
+     */
+    private UserDetailsImpl loadPrincipal(VerifiedToken verifiedToken) {
+        UserDetailsImpl userDetails;
+        try {
+            userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(verifiedToken.username());
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidTokenException("Token inválido");
+        }
+        if (!userDetails.getAuthUser().getId().equals(verifiedToken.userId())) throw new InvalidTokenException("Token inválido");
+
+        return userDetails;
+    }
+}
@@ -0,0 +1,155 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.dto.response.ItemResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Agrupa os ajustes de quantidade que chegam ao mesmo tempo para o mesmo item, gravando-os em uma única transação.
+ * <p>
+ * O primeiro ajuste de um item abre um grupo e passa a ser o responsável por ele: espera a janela configurada,
+ * fecha o grupo e grava todos os ajustes de uma vez. Os ajustes que chegam nesse intervalo entram no grupo aberto e
+ * aguardam o resultado; os que chegam depois de fechado abrem o grupo seguinte. Assim, um item muito disputado
+ * recebe uma escrita por grupo, e não uma por requisição.
+ * <p>
+ * Os grupos são separados por item e por proprietário, então todos os ajustes de um grupo passam pela mesma
+ * verificação de propriedade. Cada chamador só recebe o resultado depois do commit.
+ */
+@Component
+public class AdjustmentCombiner {
+    private final ConcurrentMap<GroupKey, Group> openGroups = new ConcurrentHashMap<>();
+    private final TransactionOperations transactionOperations;
+    private final Duration window;
+    private final int maxGroupSize;
+
+    @Autowired
+    public AdjustmentCombiner(PlatformTransactionManager transactionManager,
+                              @Value("${inventorize.adjustment-combiner.window:2ms}") Duration window,
+                              @Value("${inventorize.adjustment-combiner.max-group-size:256}") int maxGroupSize) {
+        this(new TransactionTemplate(transactionManager), window, maxGroupSize);
+    }
+
+    AdjustmentCombiner(TransactionOperations transactionOperations, Duration window, int maxGroupSize) {
+        this.transactionOperations = transactionOperations;
+        this.window = window;
+        this.maxGroupSize = Math.max(1, maxGroupSize);
+    }
+
+    /**
+     * Grava o ajuste junto com os demais ajustes do mesmo item que chegarem dentro da janela.
+     *
+     * @param itemId     identificador do item
+     * @param ownerId    identificador do usuário autenticado
+     * @param adjustment valor a ser ajustado (positivo ou negativo)
+     * @param writer     gravação de um grupo de ajustes; se este chamador abrir o grupo, é ela que grava todos
+     * @return informações do item logo depois deste ajuste
+     */
+    public ItemResponseDTO submit(UUID itemId, UUID ownerId, int adjustment, GroupWriter writer) {
+        var key = new GroupKey(itemId, ownerId);
+        var pending = new Pending(adjustment, new CompletableFuture<>());
+        var joined = new Group[1];
+        var opened = new boolean[1];
+
+        openGroups.compute(key, (k, group) -> {
+            if (group == null) {
+                group = new Group();
+                opened[0] = true;
+            }
+            group.pending.add(pending);
+            joined[0] = group;
+
+            return group.pending.size() >= maxGroupSize ? null : group;
+        });
+
+        if (opened[0]) write(key, joined[0], writer);
+
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Fecha o grupo depois da janela e grava seus ajustes, completando o resultado de cada chamador.
+     * Uma falha na transação é repassada a todos os chamadores do grupo.
+     */
+    private void write(GroupKey key, Group group, GroupWriter writer) {
+        pause();
+        openGroups.remove(key, group);
+
+        var adjustments = group.pending.stream().map(Pending::adjustment).toList();
+        try {
+            var outcomes = transactionOperations.execute(status -> writer.write(adjustments));
+
+            for (int i = 0; i < group.pending.size(); i++) {
+                var outcome = outcomes.get(i);
+                var result = group.pending.get(i).result;
+
+                if (outcome.error() != null) result.completeExceptionally(outcome.error());
+                else result.complete(outcome.item());
+            }
+        } catch (RuntimeException | Error e) {
+            group.pending.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private void pause() {
+        if (window.isZero() || window.isNegative()) return;
+
+        try {
+            Thread.sleep(window.toMillis(), window.toNanosPart() % 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Grava um grupo de ajustes do mesmo item, dentro da transação aberta pelo combinador.
+     */
+    @FunctionalInterface
+    public interface GroupWriter {
+        /**
+         * @param adjustments ajustes na ordem de chegada
+         * @return o resultado de cada ajuste, na mesma ordem
+         */
+        List<Outcome> write(List<Integer> adjustments);
+    }
+
+    /**
+     * Resultado de um ajuste do grupo: o item logo depois do ajuste, ou o erro que o rejeitou.
+     */
+    public record Outcome(ItemResponseDTO item, RuntimeException error) {
+        public static Outcome applied(ItemResponseDTO item) {
+            return new Outcome(item, null);
+        }
+
+        public static Outcome rejected(RuntimeException error) {
+            return new Outcome(null, error);
+        }
+    }
+
+    private record GroupKey(UUID itemId, UUID ownerId) {
+    }
+
+    private record Pending(int adjustment, CompletableFuture<ItemResponseDTO> result) {
+    }
+
+    private static final class Group {
+        private final List<Pending> pending = new ArrayList<>();
+    }
+}
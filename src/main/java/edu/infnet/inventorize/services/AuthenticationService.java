@@ -10,6 +10,11 @@ import edu.infnet.inventorize.exceptions.custom.UserNotAuthenticatedException;
 import edu.infnet.inventorize.repository.AuthUserRepository;
 import edu.infnet.inventorize.security.auth.UserDetailsImpl;
 import edu.infnet.inventorize.services.auth.JwtService;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
+import edu.infnet.inventorize.services.auth.PrincipalCache;
+import edu.infnet.inventorize.services.auth.RefreshTokenService;
+import edu.infnet.inventorize.services.auth.RevokedTokenRegistry;
+import edu.infnet.inventorize.services.auth.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -28,9 +33,14 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthUserRepository authUserRepository;
     private final AuthenticationManager authenticationManager;
+    private final PrincipalCache principalCache;
+    private final RefreshTokenService refreshTokenService;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final OwnershipMemo ownershipMemo;
 
     /**
      * Registra um novo usuário no sistema.
+     * Remove o email do cache de usuários para que nenhuma consulta anterior ao cadastro seja reaproveitada.
      *
      * @param userData Dados do usuário a ser registrado.
      * @return Informações do usuário registrado.
@@ -47,6 +57,7 @@ public class AuthenticationService {
                 .build();
 
         AuthUser savedUser = authUserRepository.save(authUser);
+        principalCache.evict(savedUser.getEmail());
 
         return UserResponseDTO.from(savedUser);
     }
@@ -55,7 +66,7 @@ public class AuthenticationService {
      * Autentica um usuário com base nos dados fornecidos.
      *
      * @param userData Dados de autenticação do usuário.
-     * @return Resposta com o token de autenticação e informações do usuário.
+     * @return Resposta com o token de acesso, o refresh token e informações do usuário.
      */
     public AuthenticationResponseDTO authenticate(AuthenticationRequestDTO userData) {
         UsernamePasswordAuthenticationToken usernamePassword = new UsernamePasswordAuthenticationToken(userData.email(), userData.password());
@@ -64,17 +75,54 @@ public class AuthenticationService {
         UserDetailsImpl userDetails = (UserDetailsImpl) auth.getPrincipal();
         String token = tokenService.generateToken(userDetails);
         AuthUser user = userDetails.getAuthUser();
+        String refreshToken = refreshTokenService.issue(user);
 
-        return AuthenticationResponseDTO.from(token, user);
+        return AuthenticationResponseDTO.from(token, refreshToken, user);
+    }
+
+    /**
+     * Troca um refresh token por um novo token de acesso e um novo refresh token.
+     * O refresh token apresentado deixa de ser válido.
+     *
+     * @param refreshToken Refresh token recebido no login ou na última renovação.
+     * @return Resposta com o novo token de acesso, o novo refresh token e informações do usuário.
+     */
+    public AuthenticationResponseDTO refresh(String refreshToken) {
+        var rotated = refreshTokenService.rotate(refreshToken);
+        AuthUser user = rotated.user();
+
+        String token = tokenService.generateToken(UserDetailsImpl.builder().authUser(user).build());
+
+        return AuthenticationResponseDTO.from(token, rotated.refreshToken(), user);
+    }
+
+    /**
+     * Encerra a sessão do usuário autenticado, revogando o refresh token informado (e toda a sua família)
+     * e o token de acesso usado na requisição.
+     *
+     * @param refreshToken Refresh token da sessão a ser encerrada.
+     */
+    public void logout(String refreshToken) {
+        AuthUser user = getAuthenticatedUser();
+        refreshTokenService.revoke(refreshToken, user.getId());
+
+        Object details = SecurityContextHolder.getContext().getAuthentication().getDetails();
+        if (details instanceof VerifiedToken accessToken) revokedTokenRegistry.revoke(accessToken.tokenId(), accessToken.expiresAt());
     }
 
     /**
      * Obtém o usuário autenticado atualmente.
+     * O usuário é montado a partir das claims do token (ID, email e papéis), sem consulta ao banco,
+     * por isso deve ser comparado pelo ID e não carrega a senha. É resolvido uma vez por requisição.
      *
      * @return O usuário autenticado.
      * @throws UserNotAuthenticatedException Se nenhum usuário estiver autenticado.
      */
     protected AuthUser getAuthenticatedUser() {
+        return ownershipMemo.currentUser(this::resolveAuthenticatedUser);
+    }
+
+    private AuthUser resolveAuthenticatedUser() {
         UserDetailsImpl userDetails = (UserDetailsImpl) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         AuthUser authUser = userDetails.getAuthUser();
         if (authUser == null) throw new UserNotAuthenticatedException("Nenhum usuário autenticado encontrado.");
@@ -0,0 +1,134 @@
+package edu.infnet.inventorize.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.infnet.inventorize.enums.ExportFormat;
+import edu.infnet.inventorize.repository.ItemRepository;
+import edu.infnet.inventorize.repository.ProductRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exporta os itens e produtos do usuário autenticado em NDJSON ou CSV.
+ * Os registros são lidos de uma consulta em stream, já como DTOs, e escritos na resposta à medida que chegam,
+ * então a memória usada não depende da quantidade de registros exportados.
+ */
+@Service
+public class ExportService {
+    private static final int FLUSH_INTERVAL = 1000;
+    private static final List<String> ITEM_COLUMNS = List.of("id", "productId", "inventoryId", "currentQuantity", "minimumStockLevel");
+    private static final List<String> PRODUCT_COLUMNS = List.of("productId", "ownerId", "name", "supplierCode");
+
+    private final ItemRepository itemRepository;
+    private final ProductRepository productRepository;
+    private final AuthenticationService authenticationService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(ItemRepository itemRepository,
+                         ProductRepository productRepository,
+                         AuthenticationService authenticationService,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.productRepository = productRepository;
+        this.authenticationService = authenticationService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Prepara a exportação dos itens de inventário do usuário autenticado.
+     *
+     * @param format formato da exportação
+     * @return o corpo da resposta, que executa a consulta e escreve os itens quando for transmitido
+     */
+    public StreamingResponseBody exportItems(ExportFormat format) {
+        UUID ownerId = authenticationService.getAuthenticatedUser().getId();
+
+        return outputStream -> export(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), format, ITEM_COLUMNS,
+                () -> itemRepository.streamByOwnerId(ownerId),
+                item -> List.of(item.id(), item.productId(), item.inventoryId(), item.currentQuantity(), item.minimumStockLevel()));
+    }
+
+    /**
+     * Prepara a exportação dos produtos do usuário autenticado.
+     *
+     * @param format formato da exportação
+     * @return o corpo da resposta, que executa a consulta e escreve os produtos quando for transmitido
+     */
+    public StreamingResponseBody exportProducts(ExportFormat format) {
+        UUID ownerId = authenticationService.getAuthenticatedUser().getId();
+
+        return outputStream -> export(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), format, PRODUCT_COLUMNS,
+                () -> productRepository.streamByOwnerId(ownerId),
+                product -> List.of(product.productId(), product.ownerId(), product.name(), nullToEmpty(product.supplierCode())));
+    }
+
+    /**
+     * Escreve os registros da consulta no formato solicitado. A consulta precisa de uma transação aberta enquanto
+     * o stream é consumido, e a saída é descarregada periodicamente para que o cliente receba os dados aos poucos.
+     * O usuário é resolvido antes, na thread da requisição, pois a escrita pode acontecer em outra thread.
+     */
+    private <T> void export(Writer target, ExportFormat format, List<String> columns, Supplier<Stream<T>> query, Function<T, List<Object>> values) throws IOException {
+        var writer = new BufferedWriter(target);
+        try {
+            if (format == ExportFormat.CSV) writeCsvLine(writer, columns);
+
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = query.get()) {
+                    int written = 0;
+                    for (var iterator = rows.iterator(); iterator.hasNext(); ) {
+                        T row = iterator.next();
+                        if (format == ExportFormat.CSV) writeCsvLine(writer, values.apply(row));
+                        else writeJsonLine(writer, row);
+
+                        if (++written % FLUSH_INTERVAL == 0) writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeJsonLine(Writer writer, Object row) throws IOException {
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    private void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(',');
+            writer.write(escapeCsv(String.valueOf(values.get(i))));
+        }
+        writer.write('\n');
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) return value;
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,136 @@
+package edu.infnet.inventorize.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.infnet.inventorize.exceptions.custom.InvalidIdempotencyKeyException;
+import edu.infnet.inventorize.exceptions.custom.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Respostas das requisições enviadas com o cabeçalho Idempotency-Key, para que a repetição de uma requisição
+ * (por exemplo, depois de um timeout no cliente) devolva a resposta original em vez de executá-la de novo.
+ * <p>
+ * As chaves são separadas por usuário e guardadas junto com a operação e o corpo da requisição que as usou; a mesma
+ * chave com outra requisição é recusada. Uma repetição que chega enquanto a primeira ainda executa aguarda o seu
+ * resultado. Só as respostas de sucesso são guardadas: se a execução falhar, a chave é liberada e os que aguardavam
+ * recebem o mesmo erro. As chaves expiram depois do tempo configurado e ficam na memória desta instância.
+ * Acertos, falhas e remoções são publicados como métricas com o nome "idempotency".
+ */
+@Component
+public class IdempotencyStore {
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String CACHE_NAME = "idempotency";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final AuthenticationService authenticationService;
+    private final Cache<ScopedKey, Entry> entries;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(AuthenticationService authenticationService,
+                            @Value("${inventorize.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${inventorize.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${inventorize.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                            MeterRegistry meterRegistry) {
+        this.authenticationService = authenticationService;
+        this.waitTimeout = waitTimeout;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+    }
+
+    /**
+     * Executa a requisição uma única vez por chave, devolvendo a resposta guardada nas repetições.
+     * Sem chave, a requisição é simplesmente executada.
+     *
+     * @param key       valor do cabeçalho Idempotency-Key, ou null
+     * @param operation identificação da operação, como o método e o caminho
+     * @param request   os dados da requisição; repetições devem enviar dados iguais
+     * @param action    execução da requisição
+     * @return a resposta da execução, ou a resposta guardada, marcada com o cabeçalho Idempotent-Replayed
+     * @throws InvalidIdempotencyKeyException se a chave já tiver sido usada com outra requisição, ou for longa demais
+     * @throws ServiceOverloadedException     se a primeira execução não terminar dentro do tempo de espera
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) return action.get();
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(String.format("O cabeçalho %s deve ter no máximo %d caracteres", KEY_HEADER, MAX_KEY_LENGTH));
+        }
+
+        var scopedKey = new ScopedKey(authenticationService.getAuthenticatedUser().getId(), key);
+        var fingerprint = new Fingerprint(operation, request);
+        var entry = new Entry(fingerprint, new CompletableFuture<>());
+
+        var existing = entries.asMap().putIfAbsent(scopedKey, entry);
+        if (existing == null) return executeFirst(scopedKey, entry, action);
+
+        if (!existing.fingerprint().equals(fingerprint)) {
+            throw new InvalidIdempotencyKeyException(String.format("A chave [ %s ] já foi usada em outra requisição", key));
+        }
+
+        return replay(existing);
+    }
+
+    private <T> ResponseEntity<T> executeFirst(ScopedKey scopedKey, Entry entry, Supplier<ResponseEntity<T>> action) {
+        try {
+            var response = action.get();
+            entry.response().complete(response);
+
+            return response;
+        } catch (RuntimeException | Error e) {
+            entries.asMap().remove(scopedKey, entry);
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry entry) {
+        ResponseEntity<?> original;
+        try {
+            original = entry.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw stillRunning();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning();
+        }
+
+        return (ResponseEntity<T>) ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    private ServiceOverloadedException stillRunning() {
+        return new ServiceOverloadedException("A requisição original com esta chave ainda está em andamento", Math.max(1, waitTimeout.toSeconds()));
+    }
+
+    private record ScopedKey(UUID userId, String key) {
+    }
+
+    private record Fingerprint(String operation, Object request) {
+    }
+
+    private record Entry(Fingerprint fingerprint, CompletableFuture<ResponseEntity<?>> response) {
+    }
+}
@@ -0,0 +1,364 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.dto.request.item.ItemDTO;
+import edu.infnet.inventorize.dto.request.product.ProductDTO;
+import edu.infnet.inventorize.dto.response.ImportReportResponseDTO;
+import edu.infnet.inventorize.dto.response.ImportReportResponseDTO.RowError;
+import edu.infnet.inventorize.entities.UuidV7Generator;
+import edu.infnet.inventorize.enums.MovementReason;
+import edu.infnet.inventorize.exceptions.custom.InvalidImportFileException;
+import edu.infnet.inventorize.repository.InventoryRepository;
+import edu.infnet.inventorize.repository.ProductRepository;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importa produtos e itens do usuário autenticado a partir de arquivos CSV.
+ * O arquivo é lido linha a linha e processado em lotes: cada lote é validado, confrontado com o banco em uma única
+ * consulta e inserido com JDBC em batch, então a memória usada e a quantidade de consultas não crescem por linha.
+ * Linhas inválidas são rejeitadas individualmente e relatadas na resposta, sem interromper a importação.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportService {
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> PRODUCT_COLUMNS = List.of("name", "supplierCode");
+    private static final List<String> ITEM_COLUMNS = List.of("productId", "inventoryId", "currentQuantity", "minimumStockLevel");
+    private static final String INSERT_PRODUCT = "INSERT INTO product (id, name, supplier_code, owner_id, version) VALUES (?, ?, ?, ?, 0)";
+    private static final String INSERT_ITEM = """
+            INSERT INTO item (id, product_id, inventory_id, current_quantity, reserved_quantity, minimum_stock_level, low_stock, version)
+            VALUES (?, ?, ?, ?, 0, ?, ?, 0)
+            """;
+    private static final String INSERT_MOVEMENT = """
+            INSERT INTO stock_movement (id, item_id, item_version, delta, reason, actor_id, created_at)
+            VALUES (?, ?, 0, ?, ?, ?, ?)
+            """;
+
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final AuthenticationService authenticationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+
+    /**
+     * Importa produtos de um arquivo CSV com as colunas {@code name,supplierCode}, o mesmo formato usado na carga
+     * inicial de dados. O cabeçalho é opcional. Produtos repetidos no arquivo ou já cadastrados com o mesmo nome e
+     * código de fornecedor são rejeitados.
+     *
+     * @param file arquivo CSV enviado
+     * @return o relatório da importação
+     */
+    @Transactional
+    public ImportReportResponseDTO importProducts(MultipartFile file) {
+        UUID ownerId = authenticationService.getAuthenticatedUser().getId();
+        var report = new Report();
+        Set<ProductKey> seen = new HashSet<>();
+
+        read(file, PRODUCT_COLUMNS, report, chunk -> {
+            var candidates = new ArrayList<ParsedRow<ProductDTO>>();
+            for (var row : validate(chunk, report, values -> new ProductDTO(values.get(0), values.get(1)))) {
+                if (seen.add(ProductKey.of(row.data()))) candidates.add(row);
+                else report.reject(row.line(), "Produto repetido em uma linha anterior do arquivo");
+            }
+            if (candidates.isEmpty()) return;
+
+            Set<String> names = candidates.stream().map(row -> row.data().name()).collect(Collectors.toSet());
+            Set<ProductKey> existing = productRepository.findResponsesByNameIn(names).stream()
+                    .map(product -> new ProductKey(product.name(), product.supplierCode()))
+                    .collect(Collectors.toSet());
+
+            var products = new ArrayList<ProductDTO>(candidates.size());
+            for (var row : candidates) {
+                var product = row.data();
+                if (existing.contains(ProductKey.of(product))) {
+                    report.reject(row.line(), String.format("Já existe um produto cadastrado com: [Nome: %s] e [Código de Fornecedor: %s]",
+                            product.name(), product.supplierCode()));
+                } else {
+                    products.add(product);
+                }
+            }
+            if (products.isEmpty()) return;
+
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT, products, CHUNK_SIZE, (statement, product) -> {
+                statement.setObject(1, UuidV7Generator.nextId());
+                statement.setString(2, product.name());
+                statement.setString(3, product.supplierCode());
+                statement.setObject(4, ownerId);
+            });
+            report.imported(products.size());
+        });
+
+        return report.toResponse();
+    }
+
+    /**
+     * Importa itens de inventário de um arquivo CSV com as colunas
+     * {@code productId,inventoryId,currentQuantity,minimumStockLevel}. O cabeçalho é opcional.
+     * O produto e o inventário de cada linha devem pertencer ao usuário autenticado.
+     *
+     * @param file arquivo CSV enviado
+     * @return o relatório da importação
+     */
+    @Transactional
+    public ImportReportResponseDTO importItems(MultipartFile file) {
+        UUID ownerId = authenticationService.getAuthenticatedUser().getId();
+        var report = new Report();
+
+        read(file, ITEM_COLUMNS, report, chunk -> {
+            var rows = validate(chunk, report, this::toItemDTO);
+            if (rows.isEmpty()) return;
+
+            Set<UUID> productIds = rows.stream().map(row -> row.data().productId()).collect(Collectors.toSet());
+            Set<UUID> inventoryIds = rows.stream().map(row -> row.data().inventoryId()).collect(Collectors.toSet());
+            Set<UUID> ownedProducts = new HashSet<>(productRepository.findOwnedIds(ownerId, productIds));
+            Set<UUID> ownedInventories = new HashSet<>(inventoryRepository.findOwnedIds(ownerId, inventoryIds));
+
+            var items = new ArrayList<ItemDTO>(rows.size());
+            for (var row : rows) {
+                var item = row.data();
+                if (!ownedProducts.contains(item.productId())) {
+                    report.reject(row.line(), String.format("Produto com o [ ID: %s ] não encontrado ou não pertence ao usuário", item.productId()));
+                } else if (!ownedInventories.contains(item.inventoryId())) {
+                    report.reject(row.line(), String.format("Inventário com o [ ID: %s ] não encontrado ou não pertence ao usuário", item.inventoryId()));
+                } else {
+                    items.add(item);
+                }
+            }
+            if (items.isEmpty()) return;
+
+            // Por identidade: linhas repetidas no arquivo são itens diferentes, cada um com o seu ID
+            Map<ItemDTO, UUID> itemIds = new IdentityHashMap<>();
+            items.forEach(item -> itemIds.put(item, UuidV7Generator.nextId()));
+
+            jdbcTemplate.batchUpdate(INSERT_ITEM, items, CHUNK_SIZE, (statement, item) -> {
+                statement.setObject(1, itemIds.get(item));
+                statement.setObject(2, item.productId());
+                statement.setObject(3, item.inventoryId());
+                statement.setInt(4, item.currentQuantity());
+                statement.setInt(5, item.minimumStockLevel());
+                // Mesma regra aplicada pela entidade Item antes de cada inserção, que aqui não passa pelo JPA
+                statement.setBoolean(6, item.currentQuantity() <= item.minimumStockLevel());
+            });
+
+            // A quantidade inicial entra no histórico de movimentações, como no cadastro de um único item
+            var stocked = items.stream().filter(item -> item.currentQuantity() != 0).toList();
+            var importedAt = Timestamp.from(Instant.now());
+            jdbcTemplate.batchUpdate(INSERT_MOVEMENT, stocked, CHUNK_SIZE, (statement, item) -> {
+                statement.setObject(1, UuidV7Generator.nextId());
+                statement.setObject(2, itemIds.get(item));
+                statement.setInt(3, item.currentQuantity());
+                statement.setString(4, MovementReason.IMPORT.name());
+                statement.setObject(5, ownerId);
+                statement.setTimestamp(6, importedAt);
+            });
+            report.imported(items.size());
+        });
+
+        return report.toResponse();
+    }
+
+    /**
+     * Lê o arquivo linha a linha e entrega as linhas de dados em lotes de até {@link #CHUNK_SIZE}.
+     * Linhas em branco e o cabeçalho, se presente, são ignorados; linhas com a quantidade errada de colunas são rejeitadas.
+     */
+    private void read(MultipartFile file, List<String> columns, Report report, Consumer<List<CsvRow>> chunkHandler) {
+        if (file.isEmpty()) throw new InvalidImportFileException("O arquivo de importação está vazio");
+
+        try (var reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            var chunk = new ArrayList<CsvRow>(CHUNK_SIZE);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) line = line.substring(1);
+                if (line.isBlank()) continue;
+
+                List<String> values;
+                try {
+                    values = parseCsvLine(line);
+                } catch (IllegalArgumentException e) {
+                    report.processed();
+                    report.reject(lineNumber, e.getMessage());
+                    continue;
+                }
+                if (lineNumber == 1 && isHeader(values, columns)) continue;
+
+                report.processed();
+                if (values.size() != columns.size()) {
+                    report.reject(lineNumber, "A linha deve ter as colunas: " + String.join(",", columns));
+                    continue;
+                }
+
+                chunk.add(new CsvRow(lineNumber, values));
+                if (chunk.size() == CHUNK_SIZE) {
+                    chunkHandler.accept(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) chunkHandler.accept(chunk);
+        } catch (IOException e) {
+            throw new InvalidImportFileException("Não foi possível ler o arquivo de importação: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converte as linhas do lote e aplica as mesmas validações dos endpoints de criação, rejeitando as inválidas.
+     */
+    private <T> List<ParsedRow<T>> validate(List<CsvRow> chunk, Report report, Function<List<String>, T> converter) {
+        var valid = new ArrayList<ParsedRow<T>>(chunk.size());
+        for (var row : chunk) {
+            T data;
+            try {
+                data = converter.apply(row.values());
+            } catch (IllegalArgumentException e) {
+                report.reject(row.line(), e.getMessage());
+                continue;
+            }
+
+            Set<ConstraintViolation<T>> violations = validator.validate(data);
+            if (violations.isEmpty()) {
+                valid.add(new ParsedRow<>(row.line(), data));
+            } else {
+                report.reject(row.line(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+        return valid;
+    }
+
+    private ItemDTO toItemDTO(List<String> values) {
+        return new ItemDTO(
+                parseUuid(values.get(0), "O id do produto é inválido"),
+                parseUuid(values.get(1), "O id do inventário é inválido"),
+                parseInt(values.get(2), "A quantidade atual do item deve ser um número inteiro"),
+                parseInt(values.get(3), "O limite crítico de estoque do item deve ser um número inteiro")
+        );
+    }
+
+    private static UUID parseUuid(String value, String message) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private static int parseInt(String value, String message) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private static boolean isHeader(List<String> values, List<String> columns) {
+        if (values.size() != columns.size()) return false;
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (!columns.get(i).equalsIgnoreCase(values.get(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Separa os valores de uma linha CSV. Aceita valores entre aspas, com aspas internas duplicadas,
+     * como os gerados pela exportação. Espaços nas pontas dos valores são removidos.
+     */
+    private static List<String> parseCsvLine(String line) {
+        var values = new ArrayList<String>();
+        var value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().strip());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("A linha possui aspas que não foram fechadas");
+
+        values.add(value.toString().strip());
+        return values;
+    }
+
+    private record CsvRow(long line, List<String> values) {
+    }
+
+    private record ParsedRow<T>(long line, T data) {
+    }
+
+    private record ProductKey(String name, String supplierCode) {
+        private static ProductKey of(ProductDTO product) {
+            return new ProductKey(product.name(), product.supplierCode());
+        }
+    }
+
+    /**
+     * Acumula os totais da importação e os erros das linhas rejeitadas, guardando no máximo
+     * {@link #MAX_REPORTED_ERRORS} erros para que a resposta não cresça com o tamanho do arquivo.
+     */
+    private static class Report {
+        private int processedRows;
+        private int importedRows;
+        private int rejectedRows;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private void processed() {
+            processedRows++;
+        }
+
+        private void imported(int count) {
+            importedRows += count;
+        }
+
+        private void reject(long line, String message) {
+            rejectedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new RowError(line, message));
+        }
+
+        private ImportReportResponseDTO toResponse() {
+            errors.sort(Comparator.comparingLong(RowError::line));
+            return new ImportReportResponseDTO(processedRows, importedRows, rejectedRows, List.copyOf(errors));
+        }
+    }
+}
@@ -3,24 +3,28 @@ package edu.infnet.inventorize.services;
 import edu.infnet.inventorize.dto.request.inventory.InventoryDTO;
 import edu.infnet.inventorize.dto.request.inventory.PatchInventoryDTO;
 import edu.infnet.inventorize.dto.request.inventory.UpdateInventoryDTO;
+import edu.infnet.inventorize.dto.response.CursorPageResponseDTO;
 import edu.infnet.inventorize.dto.response.InventoryResponseDTO;
 import edu.infnet.inventorize.entities.AuthUser;
 import edu.infnet.inventorize.entities.Inventory;
 import edu.infnet.inventorize.exceptions.custom.InventoryNotFoundException;
 import edu.infnet.inventorize.exceptions.custom.UnauthorizedRequestException;
 import edu.infnet.inventorize.repository.InventoryRepository;
-import jakarta.transaction.Transactional;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
     private final InventoryRepository inventoryRepository;
     private final AuthenticationService authenticationService;
+    private final OwnershipMemo ownershipMemo;
+    private final OptimisticRetry optimisticRetry;
 
     /**
      * Cria um novo inventário.
@@ -43,73 +47,92 @@ public class InventoryService {
 
     /**
      * Busca um inventário pelo seu ID.
+     * O inventário é lido diretamente como DTO, em uma consulta já filtrada pelo proprietário.
      *
      * @param id identificador do inventário
      * @return informações do inventário encontrado
      */
     public InventoryResponseDTO getById(UUID id) {
-        Inventory inventory = validateOwnershipById(id);
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
 
-        return InventoryResponseDTO.from(inventory);
+        return inventoryRepository.findOwnedResponseById(id, currentUser.getId())
+                .orElseThrow(() -> notFoundOrUnauthorized(id));
     }
 
     /**
-     * Busca todos os inventários do usuário autenticado.
+     * Busca uma página dos inventários do usuário autenticado, ordenados pelo ID.
+     * A página seguinte parte do último ID retornado, então o custo não cresce com a profundidade.
+     * Os inventários são lidos diretamente como DTOs, sem carregar entidades no contexto de persistência.
      *
-     * @return lista de inventários do usuário
+     * @param limit tamanho da página
+     * @param after ID a partir do qual a página começa, ou null para a primeira página
+     * @return a página de inventários e o cursor da próxima
      */
-    public List<InventoryResponseDTO> getAll() {
+    public CursorPageResponseDTO<InventoryResponseDTO> getAll(int limit, UUID after) {
         var currentUser = authenticationService.getAuthenticatedUser();
-        return inventoryRepository.findByOwnerId(currentUser.getId())
-                .stream()
-                .map(InventoryResponseDTO::from)
-                .toList();
+        var rows = after == null
+                ? inventoryRepository.findPageByOwnerId(currentUser.getId(), Limit.of(limit + 1))
+                : inventoryRepository.findPageByOwnerIdAfter(currentUser.getId(), after, Limit.of(limit + 1));
+
+        return CursorPageResponseDTO.from(rows, limit, Function.identity(), InventoryResponseDTO::id);
     }
 
     /**
      * Atualiza parcialmente um inventário existente.
+     * Conflitos com outras requisições são tratados como em {@link #update}.
      *
      * @param inventoryId identificador do inventário a ser atualizado
      * @param inventoryRequestDTO dados atualizados do inventário
+     * @param expectedVersion versão do inventário conhecida pelo cliente (If-Match), ou null para não conferir
      * @return informações do inventário atualizado
      */
-    @Transactional
-    public InventoryResponseDTO patch(UUID inventoryId, PatchInventoryDTO inventoryRequestDTO) {
-        Inventory inventory = validateOwnershipById(inventoryId);
+    public InventoryResponseDTO patch(UUID inventoryId, PatchInventoryDTO inventoryRequestDTO, Long expectedVersion) {
+        return optimisticRetry.execute(() -> {
+            Inventory inventory = validateOwnershipById(inventoryId);
+            OptimisticRetry.checkVersion(expectedVersion, inventory.getVersion());
 
-        var inventoryBuilder = inventory.toBuilder();
+            var inventoryBuilder = inventory.toBuilder();
 
-        if (inventoryRequestDTO.name() != null) inventoryBuilder.name(inventoryRequestDTO.name());
-        if (inventoryRequestDTO.description() != null) inventoryBuilder.description(inventoryRequestDTO.description());
-        if (inventoryRequestDTO.notificationEmail() != null) inventoryBuilder.notificationEmail(inventoryRequestDTO.notificationEmail());
+            if (inventoryRequestDTO.name() != null) inventoryBuilder.name(inventoryRequestDTO.name());
+            if (inventoryRequestDTO.description() != null) inventoryBuilder.description(inventoryRequestDTO.description());
+            if (inventoryRequestDTO.notificationEmail() != null) inventoryBuilder.notificationEmail(inventoryRequestDTO.notificationEmail());
 
-        var savedInventory = inventoryRepository.save(inventoryBuilder.build());
+            var savedInventory = inventoryRepository.saveAndFlush(inventoryBuilder.build());
+            ownershipMemo.remember(Inventory.class, inventoryId, savedInventory);
 
-        return InventoryResponseDTO.from(savedInventory);
+            return InventoryResponseDTO.from(savedInventory);
+        }, () -> ownershipMemo.forget(Inventory.class, inventoryId));
     }
 
     /**
      * Atualiza um inventário existente.
+     * A gravação confere a versão lida; se outra requisição alterou o inventário nesse meio tempo, a atualização é
+     * refeita sobre o estado mais recente. Com a versão esperada informada pelo cliente, uma divergência é rejeitada.
      *
      * @param id identificador do inventário a ser atualizado
      * @param inventoryDTO dados atualizados do inventário
+     * @param expectedVersion versão do inventário conhecida pelo cliente (If-Match), ou null para não conferir
      * @return informações do inventário atualizado
      */
-    @Transactional
-    public InventoryResponseDTO update(UUID id, UpdateInventoryDTO inventoryDTO) {
-        Inventory inventory = validateOwnershipById(id);
-
-        var newInventory = Inventory.builder()
-                .id(id)
-                .owner(inventory.getOwner())
-                .name(inventoryDTO.name())
-                .notificationEmail(inventoryDTO.notificationEmail())
-                .description(inventoryDTO.description())
-                .build();
-
-        var savedInventory = inventoryRepository.save(newInventory);
-
-        return InventoryResponseDTO.from(savedInventory);
+    public InventoryResponseDTO update(UUID id, UpdateInventoryDTO inventoryDTO, Long expectedVersion) {
+        return optimisticRetry.execute(() -> {
+            Inventory inventory = validateOwnershipById(id);
+            OptimisticRetry.checkVersion(expectedVersion, inventory.getVersion());
+
+            var newInventory = Inventory.builder()
+                    .id(id)
+                    .owner(inventory.getOwner())
+                    .name(inventoryDTO.name())
+                    .notificationEmail(inventoryDTO.notificationEmail())
+                    .description(inventoryDTO.description())
+                    .version(inventory.getVersion())
+                    .build();
+
+            var savedInventory = inventoryRepository.saveAndFlush(newInventory);
+            ownershipMemo.remember(Inventory.class, id, savedInventory);
+
+            return InventoryResponseDTO.from(savedInventory);
+        }, () -> ownershipMemo.forget(Inventory.class, id));
     }
 
     /**
@@ -120,10 +143,12 @@ public class InventoryService {
     public void delete(UUID id) {
         var inventory = validateOwnershipById(id);
         inventoryRepository.delete(inventory);
+        ownershipMemo.forget(Inventory.class, id);
     }
 
     /**
      * Valida se o usuário autenticado é o proprietário do inventário.
+     * O resultado é reaproveitado pelas demais verificações do mesmo inventário na requisição.
      *
      * @param inventoryId ID do inventário a ser validado
      * @return o inventário se o usuário for o proprietário
@@ -131,12 +156,29 @@ public class InventoryService {
      * @throws UnauthorizedRequestException se o usuário não for o proprietário
      */
     protected Inventory validateOwnershipById(UUID inventoryId) {
+        return ownershipMemo.verified(Inventory.class, inventoryId, () -> loadOwnedInventory(inventoryId));
+    }
+
+    private Inventory loadOwnedInventory(UUID inventoryId) {
         var inventory = inventoryRepository.findById(inventoryId).orElseThrow(() -> new InventoryNotFoundException("Inventário com o [ ID: %s ] não encontrado".formatted(inventoryId)));
 
         AuthUser currentUser = authenticationService.getAuthenticatedUser();
 
-        if(!inventory.getOwner().equals(currentUser)) throw new UnauthorizedRequestException("Usuário não tem autorização para gerenciar este inventário");
+        if (!inventory.getOwner().getId().equals(currentUser.getId())) throw new UnauthorizedRequestException("Usuário não tem autorização para gerenciar este inventário");
 
         return inventory;
     }
+
+    /**
+     * Define o erro quando o inventário não é encontrado entre os inventários do usuário. Só é chamado no caminho de erro,
+     * para distinguir um inventário inexistente de um inventário de outro usuário.
+     *
+     * @param inventoryId identificador do inventário
+     * @return a exceção adequada para o caso
+     */
+    private RuntimeException notFoundOrUnauthorized(UUID inventoryId) {
+        if (inventoryRepository.existsById(inventoryId)) return new UnauthorizedRequestException("Usuário não tem autorização para gerenciar este inventário");
+
+        return new InventoryNotFoundException("Inventário com o [ ID: %s ] não encontrado".formatted(inventoryId));
+    }
 }
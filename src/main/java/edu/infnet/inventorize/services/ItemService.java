@@ -1,22 +1,40 @@
 package edu.infnet.inventorize.services;
 
+import edu.infnet.inventorize.dto.request.item.BatchAdjustmentDTO;
 import edu.infnet.inventorize.dto.request.item.ItemDTO;
 import edu.infnet.inventorize.dto.request.item.PatchItemDTO;
+import edu.infnet.inventorize.dto.request.item.ReservationDTO;
 import edu.infnet.inventorize.dto.request.item.UpdateItemDTO;
-import edu.infnet.inventorize.dto.response.InventoryResponseDTO;
+import edu.infnet.inventorize.dto.response.CursorPageResponseDTO;
 import edu.infnet.inventorize.dto.response.ItemResponseDTO;
+import edu.infnet.inventorize.dto.response.ReservationResponseDTO;
+import edu.infnet.inventorize.dto.response.StockAvailabilityResponseDTO;
+import edu.infnet.inventorize.dto.response.StockMovementResponseDTO;
+import edu.infnet.inventorize.dto.response.StockReplayResponseDTO;
 import edu.infnet.inventorize.entities.*;
+import edu.infnet.inventorize.enums.MovementReason;
+import edu.infnet.inventorize.exceptions.custom.BatchAdjustmentException;
 import edu.infnet.inventorize.exceptions.custom.InsufficientStockException;
 import edu.infnet.inventorize.exceptions.custom.InventoryItemNotFound;
+import edu.infnet.inventorize.exceptions.custom.ReservationNotFoundException;
+import edu.infnet.inventorize.exceptions.custom.UnauthorizedRequestException;
 import edu.infnet.inventorize.repository.ItemRepository;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemService {
@@ -24,13 +42,21 @@ public class ItemService {
     private final ProductService productService;
     private final InventoryService inventoryService;
     private final ItemRepository itemRepository;
+    private final AuthenticationService authenticationService;
+    private final OwnershipMemo ownershipMemo;
+    private final OptimisticRetry optimisticRetry;
+    private final AdjustmentCombiner adjustmentCombiner;
+    private final StockLedgerService stockLedgerService;
+    private final StockReservationService stockReservationService;
 
     /**
      * Cria um novo item de inventário.
+     * O item e a movimentação de criação são gravados na mesma transação.
      *
      * @param itemRequest dados do item a ser criado
      * @return informações do item criado
      */
+    @Transactional
     public ItemResponseDTO create(ItemDTO itemRequest) {
         Product product = productService.validateOwnershipById(itemRequest.productId());
         Inventory inventory = inventoryService.validateOwnershipById(itemRequest.inventoryId());
@@ -43,41 +69,46 @@ public class ItemService {
                 .build();
 
         var savedInventoryItem = itemRepository.save(newInventoryItem);
+        stockLedgerService.record(savedInventoryItem, savedInventoryItem.getCurrentQuantity(), MovementReason.CREATION,
+                authenticationService.getAuthenticatedUser().getId());
 
         return ItemResponseDTO.from(savedInventoryItem);
     }
 
     /**
      * Busca um item de inventário pelo seu ID.
+     * O item é lido diretamente como DTO, em uma consulta já filtrada pelo proprietário.
      *
      * @param id identificador do item
      * @return informações do item encontrado
      */
     public ItemResponseDTO getById(UUID id) {
-        Item item = validateOwnershipById(id);
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
 
-        return ItemResponseDTO.from(item);
+        return itemRepository.findOwnedResponseById(id, currentUser.getId())
+                .orElseThrow(() -> notFoundOrUnauthorized(id));
     }
 
     /**
-     * Lista todos os itens de inventário do usuário autenticado.
+     * Lista uma página dos itens de inventário do usuário autenticado, ordenados pelo ID.
+     * A página seguinte parte do último ID retornado, então o custo não cresce com a profundidade.
+     * Os itens são lidos diretamente como DTOs, sem carregar entidades no contexto de persistência.
      *
-     * @return lista de itens de inventário
+     * @param limit tamanho da página
+     * @param after ID a partir do qual a página começa, ou null para a primeira página
+     * @return a página de itens de inventário e o cursor da próxima
      */
-    public List<ItemResponseDTO> getAll() {
-        var inventoryIds = inventoryService.getAll()
-                .stream()
-                .map(InventoryResponseDTO::id)
-                .toList();
+    public CursorPageResponseDTO<ItemResponseDTO> getAll(int limit, UUID after) {
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+        var rows = after == null
+                ? itemRepository.findPageByOwnerId(currentUser.getId(), Limit.of(limit + 1))
+                : itemRepository.findPageByOwnerIdAfter(currentUser.getId(), after, Limit.of(limit + 1));
 
-        return itemRepository.getAllItemsByInventoryIdIn(inventoryIds)
-                .stream()
-                .map(ItemResponseDTO::from)
-                .toList();
+        return CursorPageResponseDTO.from(rows, limit, Function.identity(), ItemResponseDTO::id);
     }
 
     /**
-     * Lista todos os itens de inventário de um inventário específico.
+     * Lista todos os itens de inventário de um inventário específico, lidos diretamente como DTOs.
      *
      * @param inventoryId identificador do inventário
      * @return lista de itens de inventário
@@ -85,163 +116,508 @@ public class ItemService {
     public List<ItemResponseDTO> getAllItemsByInventoryId(UUID inventoryId) {
         inventoryService.validateOwnershipById(inventoryId);
 
-        List<Item> items = itemRepository.getAllItemsByInventoryId(inventoryId);
-
-        return items.stream()
-                .map(ItemResponseDTO::from)
-                .toList();
+        return itemRepository.findResponsesByInventoryId(inventoryId);
     }
 
     /**
-     * Atualiza um item de inventário existente.
+     * Atualiza um item de inventário existente. A quantidade atual não pode ficar abaixo da quantidade reservada.
+     * Um conflito com outra requisição que alterou o item ao mesmo tempo é resolvido relendo o item e aplicando
+     * os novos valores outra vez, exceto quando o cliente informa a versão esperada.
      *
-     * @param id          identificador do item a ser atualizado
-     * @param itemRequest dados do item a ser atualizado
+     * @param id              identificador do item a ser atualizado
+     * @param itemRequest     dados do item a ser atualizado
+     * @param expectedVersion versão do item conhecida pelo cliente (If-Match), ou null para não conferir
      * @return informações do item atualizado
      */
-    public ItemResponseDTO update(UUID id, UpdateItemDTO itemRequest) {
-        Item item = validateOwnershipById(id);
-
-        var updatedItem = item.toBuilder()
-                .currentQuantity(itemRequest.currentQuantity())
-                .minimumStockLevel(itemRequest.minimumStockLevel())
-                .build();
-
-        var savedItem = itemRepository.save(updatedItem);
-
-        return ItemResponseDTO.from(savedItem);
+    public ItemResponseDTO update(UUID id, UpdateItemDTO itemRequest, Long expectedVersion) {
+        return optimisticRetry.execute(() -> {
+            Item item = validateOwnershipById(id);
+            OptimisticRetry.checkVersion(expectedVersion, item.getVersion());
+            int previousQuantity = item.getCurrentQuantity();
+
+            var updatedItem = item.toBuilder()
+                    .currentQuantity(itemRequest.currentQuantity())
+                    .minimumStockLevel(itemRequest.minimumStockLevel())
+                    .build();
+            checkReservedQuantity(updatedItem);
+
+            var savedItem = itemRepository.saveAndFlush(updatedItem);
+            recordUpdate(savedItem, previousQuantity);
+
+            return ItemResponseDTO.from(savedItem);
+        });
     }
 
     /**
-     * Atualiza parcialmente um item de inventário existente.
+     * Atualiza parcialmente um item de inventário existente, com o mesmo tratamento de conflitos de {@link #update}.
      *
-     * @param id          identificador do item a ser atualizado
-     * @param itemRequest dados do item a ser atualizado
+     * @param id              identificador do item a ser atualizado
+     * @param itemRequest     dados do item a ser atualizado
+     * @param expectedVersion versão do item conhecida pelo cliente (If-Match), ou null para não conferir
      * @return informações do item atualizado
      */
-    public ItemResponseDTO patch(UUID id, PatchItemDTO itemRequest) {
-        Item item = validateOwnershipById(id);
-
-        var itemBuilder = item.toBuilder();
-        if (itemRequest.currentQuantity() != null) itemBuilder.currentQuantity(itemRequest.currentQuantity());
-        if (itemRequest.minimumStockLevel() != null) itemBuilder.minimumStockLevel(itemRequest.minimumStockLevel());
-
-        var updatedItem = itemBuilder.build();
-        var savedItem = itemRepository.save(updatedItem);
-
-        return ItemResponseDTO.from(savedItem);
+    public ItemResponseDTO patch(UUID id, PatchItemDTO itemRequest, Long expectedVersion) {
+        return optimisticRetry.execute(() -> {
+            Item item = validateOwnershipById(id);
+            OptimisticRetry.checkVersion(expectedVersion, item.getVersion());
+            int previousQuantity = item.getCurrentQuantity();
+
+            var itemBuilder = item.toBuilder();
+            if (itemRequest.currentQuantity() != null) itemBuilder.currentQuantity(itemRequest.currentQuantity());
+            if (itemRequest.minimumStockLevel() != null) itemBuilder.minimumStockLevel(itemRequest.minimumStockLevel());
+
+            var updatedItem = itemBuilder.build();
+            checkReservedQuantity(updatedItem);
+            var savedItem = itemRepository.saveAndFlush(updatedItem);
+            recordUpdate(savedItem, previousQuantity);
+
+            return ItemResponseDTO.from(savedItem);
+        });
     }
 
     /**
-     * Deleta um item de inventário pelo seu ID.
+     * Deleta um item de inventário pelo seu ID, junto com as suas reservas em aberto.
+     * As movimentações de estoque do item são mantidas como histórico.
      *
      * @param id identificador do item a ser deletado
      */
+    @Transactional
     public void deleteById(UUID id) {
         Item item = validateOwnershipById(id);
+        stockReservationService.forget(id);
         itemRepository.delete(item);
+        stockLedgerService.forget(id);
     }
 
     /**
      * Ajusta a quantidade atual de um item de inventário.
+     * Ajustes simultâneos do mesmo item são agrupados pelo {@link AdjustmentCombiner} e gravados em uma única
+     * transação, na ordem de chegada; cada chamador recebe o item logo depois do seu próprio ajuste, ou o erro que
+     * o rejeitou. O e-mail de estoque baixo só é enviado depois do commit, fora da transação.
      *
      * @param itemId     identificador do item
      * @param adjustment valor a ser ajustado (positivo ou negativo)
      * @return informações do item atualizado
-     * @throws InsufficientStockException se o ajuste resultar em quantidade negativa
+     * @throws InsufficientStockException se o ajuste deixar a quantidade abaixo da quantidade reservada
      */
-    @Transactional
     public ItemResponseDTO adjustCurrentQuantity(UUID itemId, int adjustment) {
-        var item = validateOwnershipWithLock(itemId);
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
 
-        int newQuantity = item.getCurrentQuantity() + adjustment;
+        return adjustmentCombiner.submit(itemId, currentUser.getId(), adjustment,
+                adjustments -> adjustGroup(itemId, currentUser.getId(), adjustments));
+    }
 
-        if (newQuantity < 0) {
-            throw new InsufficientStockException(String.format("Ajuste de estoque não pode resultar em quantidade negativa.\nITEM: [ %s ] \nEM ESTOQUE: %d ", item.getProduct().getName(), item.getCurrentQuantity()));
+    /**
+     * Grava um grupo de ajustes do mesmo item, dentro da transação aberta pelo combinador.
+     * Um ajuste sozinho é um único UPDATE condicional, sem leitura prévia. Com mais de um, só a linha do item é
+     * bloqueada, para que grupos de itens do mesmo inventário não esperem uns pelos outros; os ajustes são aplicados
+     * em sequência sobre a quantidade em memória, rejeitando os que a deixariam abaixo da quantidade reservada, e o
+     * resultado é gravado em um único UPDATE.
+     *
+     * @param itemId      identificador do item
+     * @param ownerId     identificador do usuário autenticado
+     * @param adjustments ajustes na ordem de chegada
+     * @return o resultado de cada ajuste, na mesma ordem
+     */
+    List<AdjustmentCombiner.Outcome> adjustGroup(UUID itemId, UUID ownerId, List<Integer> adjustments) {
+        if (adjustments.size() == 1) {
+            return List.of(AdjustmentCombiner.Outcome.applied(adjustAlone(itemId, ownerId, adjustments.get(0))));
         }
 
-        var newItem = item.toBuilder()
-                .currentQuantity(newQuantity)
-                .build();
+        var item = itemRepository.lockOwnedByIds(List.of(itemId), ownerId).stream()
+                .findFirst()
+                .orElseThrow(() -> notFoundOrUnauthorized(itemId));
+        itemRepository.findWithParentsByIds(List.of(itemId));
+        rememberParents(item);
+
+        int previousQuantity = item.getCurrentQuantity();
+        var quantities = new Integer[adjustments.size()];
+        var rejections = new RuntimeException[adjustments.size()];
+        int quantity = item.getCurrentQuantity();
+        for (int i = 0; i < adjustments.size(); i++) {
+            if (quantity + adjustments.get(i) < item.getReservedQuantity()) {
+                rejections[i] = new InsufficientStockException(insufficientStockMessage(item, quantity - item.getReservedQuantity()));
+                continue;
+            }
+
+            quantity += adjustments.get(i);
+            quantities[i] = quantity;
+        }
+
+        var savedItem = quantity == previousQuantity
+                ? item
+                : itemRepository.saveAndFlush(item.toBuilder().currentQuantity(quantity).build());
 
-        var updatedItem = itemRepository.save(newItem);
+        for (int i = 0; i < adjustments.size(); i++) {
+            if (rejections[i] == null) stockLedgerService.record(savedItem, adjustments.get(i), MovementReason.ADJUSTMENT, ownerId);
+        }
 
-        sendEmailIfLowStock(updatedItem);
+        if (Arrays.stream(rejections).anyMatch(Objects::isNull)) sendEmailAfterCommitIfLowStock(savedItem);
 
-        return ItemResponseDTO.from(updatedItem);
+        List<AdjustmentCombiner.Outcome> outcomes = new ArrayList<>(adjustments.size());
+        for (int i = 0; i < adjustments.size(); i++) {
+            outcomes.add(rejections[i] != null
+                    ? AdjustmentCombiner.Outcome.rejected(rejections[i])
+                    : AdjustmentCombiner.Outcome.applied(ItemResponseDTO.from(savedItem.toBuilder().currentQuantity(quantities[i]).build())));
+        }
+
+        return outcomes;
     }
 
-    public List<ItemResponseDTO> getLowStockItems() {
-        var inventoryIds = inventoryService.getAll()
-                .stream()
-                .map(InventoryResponseDTO::id)
-                .toList();
+    /**
+     * Ajusta as quantidades de vários itens de inventário em uma única transação: ou todos os ajustes são aplicados,
+     * ou nenhum. Os itens são bloqueados de uma vez, em ordem de ID, para que lotes concorrentes com itens em comum
+     * não entrem em deadlock; só as linhas dos itens são bloqueadas, e o inventário e o produto são lidos em seguida,
+     * sem bloqueio. As linhas de um mesmo item são aplicadas em sequência, na ordem do lote.
+     * As alterações são gravadas no commit, em um único lote de UPDATEs.
+     *
+     * @param batchRequest ajustes a serem aplicados
+     * @return informações dos itens atualizados, na ordem em que aparecem no lote
+     * @throws BatchAdjustmentException se alguma linha deixar o item abaixo do reservado, com o motivo de cada uma
+     */
+    @Transactional
+    public List<ItemResponseDTO> adjustCurrentQuantities(BatchAdjustmentDTO batchRequest) {
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+        var lines = batchRequest.adjustments();
+        var itemIds = lines.stream().map(BatchAdjustmentDTO.Line::itemId).collect(Collectors.toCollection(TreeSet::new));
+
+        Map<UUID, Item> items = new HashMap<>();
+        for (Item item : itemRepository.lockOwnedByIds(itemIds, currentUser.getId())) {
+            items.put(item.getId(), item);
+        }
+
+        for (UUID itemId : itemIds) {
+            if (!items.containsKey(itemId)) throw notFoundOrUnauthorized(itemId);
+        }
+        itemRepository.findWithParentsByIds(itemIds);
+
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        List<BatchAdjustmentException.LineError> errors = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i);
+            var item = items.get(line.itemId());
+            int currentQuantity = quantities.getOrDefault(item.getId(), item.getCurrentQuantity());
+            int newQuantity = currentQuantity + line.adjustment();
+
+            if (newQuantity < item.getReservedQuantity()) {
+                errors.add(new BatchAdjustmentException.LineError(i + 1, item.getId(), insufficientStockMessage(item, currentQuantity - item.getReservedQuantity())));
+                continue;
+            }
+
+            quantities.put(item.getId(), newQuantity);
+        }
 
-        List<Item> lowStockItems = itemRepository.getAllWhereMinimumStockLevelIsLowerThanCurrentQuantityByInventoryIdIn(inventoryIds);
+        if (!errors.isEmpty()) throw new BatchAdjustmentException(errors);
 
-        return lowStockItems.stream()
-                .map(ItemResponseDTO::from)
+        var updatedItems = quantities.entrySet().stream()
+                .map(entry -> items.get(entry.getKey()).toBuilder()
+                        .currentQuantity(entry.getValue())
+                        .build())
                 .toList();
+
+        Map<UUID, Item> savedItems = new HashMap<>();
+        for (Item savedItem : itemRepository.saveAllAndFlush(updatedItems)) {
+            savedItems.put(savedItem.getId(), savedItem);
+            sendEmailAfterCommitIfLowStock(savedItem);
+        }
+
+        for (var line : lines) {
+            stockLedgerService.record(savedItems.get(line.itemId()), line.adjustment(), MovementReason.BATCH_ADJUSTMENT, currentUser.getId());
+        }
+
+        return quantities.keySet().stream().map(savedItems::get).map(ItemResponseDTO::from).toList();
+    }
+
+    /**
+     * Lista uma página do histórico de movimentações de estoque de um item, da mais antiga para a mais recente.
+     *
+     * @param id    identificador do item
+     * @param limit tamanho da página
+     * @param after ID da movimentação a partir da qual a página começa, ou null para a primeira página
+     * @return a página de movimentações e o cursor da próxima
+     */
+    public CursorPageResponseDTO<StockMovementResponseDTO> getMovements(UUID id, int limit, UUID after) {
+        validateOwnershipById(id);
+
+        return stockLedgerService.getMovements(id, limit, after);
+    }
+
+    /**
+     * Reconstrói a quantidade de um item a partir do histórico de movimentações: o último snapshot mais as
+     * movimentações posteriores. Se a quantidade registrada no item for diferente, ela é corrigida.
+     * O item fica bloqueado durante a reconstrução, para que nenhum ajuste seja gravado no meio da soma; o inventário
+     * e o produto não são bloqueados.
+     *
+     * @param id identificador do item
+     * @return o resultado da reconstrução
+     */
+    @Transactional
+    public StockReplayResponseDTO replay(UUID id) {
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+        var item = itemRepository.lockOwnedByIds(List.of(id), currentUser.getId()).stream()
+                .findFirst()
+                .orElseThrow(() -> notFoundOrUnauthorized(id));
+
+        var replay = stockLedgerService.replay(item);
+        if (replay.replayedQuantity() != replay.previousQuantity()) {
+            log.warn("Quantidade do item {} divergente do histórico: registrada {}, reconstruída {}",
+                    id, replay.previousQuantity(), replay.replayedQuantity());
+            itemRepository.save(item.toBuilder().currentQuantity(replay.replayedQuantity()).build());
+        }
+
+        return replay;
+    }
+
+    /**
+     * Reserva uma quantidade do item por tempo limitado, sem retirá-la do estoque. Enquanto a reserva estiver em
+     * aberto, a quantidade deixa de estar disponível para outras reservas e para os ajustes.
+     * A reserva é feita com um único UPDATE condicional, que confere a propriedade e a quantidade disponível.
+     *
+     * @param itemId  identificador do item
+     * @param request quantidade e duração da reserva
+     * @return a reserva criada
+     * @throws InsufficientStockException se o item não tiver a quantidade disponível
+     */
+    @Transactional
+    public ReservationResponseDTO reserve(UUID itemId, ReservationDTO request) {
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+        if (itemRepository.reserveQuantity(itemId, currentUser.getId(), request.quantity()) == 0) {
+            throw reservationRejected(itemId, currentUser.getId());
+        }
+
+        var reservation = stockReservationService.hold(itemId, currentUser.getId(), request.quantity(), request.ttlSeconds());
+
+        return ReservationResponseDTO.from(reservation);
+    }
+
+    /**
+     * Confirma uma reserva em aberto, retirando a quantidade reservada do estoque. A retirada é registrada no histórico
+     * como uma movimentação da reserva.
+     *
+     * @param itemId        identificador do item
+     * @param reservationId identificador da reserva
+     * @return informações do item atualizado
+     * @throws ReservationNotFoundException se a reserva não existir, for de outro usuário ou já tiver expirado
+     */
+    @Transactional
+    public ItemResponseDTO commitReservation(UUID itemId, UUID reservationId) {
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+        var reservation = stockReservationService.claimActive(itemId, reservationId, currentUser.getId());
+        if (itemRepository.commitReservedQuantity(itemId, reservation.getQuantity()) == 0) {
+            throw notFoundOrUnauthorized(itemId);
+        }
+
+        var updatedItem = itemRepository.findOwnedById(itemId, currentUser.getId())
+                .map(this::rememberParents)
+                .orElseThrow(() -> notFoundOrUnauthorized(itemId));
+
+        stockLedgerService.record(updatedItem, -reservation.getQuantity(), MovementReason.RESERVATION, currentUser.getId());
+        sendEmailAfterCommitIfLowStock(updatedItem);
+
+        return ItemResponseDTO.from(updatedItem);
+    }
+
+    /**
+     * Libera uma reserva antes de ela expirar, devolvendo a quantidade ao estoque disponível.
+     *
+     * @param itemId        identificador do item
+     * @param reservationId identificador da reserva
+     * @throws ReservationNotFoundException se a reserva não existir ou for de outro usuário
+     */
+    @Transactional
+    public void releaseReservation(UUID itemId, UUID reservationId) {
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+        var reservation = stockReservationService.claim(itemId, reservationId, currentUser.getId());
+        if (itemRepository.releaseReservedQuantity(itemId, reservation.getQuantity()) == 0) {
+            throw notFoundOrUnauthorized(itemId);
+        }
+    }
+
+    /**
+     * Consulta a quantidade atual, a reservada e a disponível de um item, lidas diretamente da linha do item.
+     *
+     * @param itemId identificador do item
+     * @return a disponibilidade do item
+     */
+    public StockAvailabilityResponseDTO getAvailability(UUID itemId) {
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+
+        return itemRepository.findOwnedAvailabilityById(itemId, currentUser.getId())
+                .orElseThrow(() -> notFoundOrUnauthorized(itemId));
+    }
+
+    /**
+     * Lista os itens de inventário do usuário autenticado que estão com estoque baixo.
+     * Os itens são lidos diretamente como DTOs em uma única consulta filtrada pelo proprietário.
+     *
+     * @return lista de itens com estoque baixo
+     */
+    public List<ItemResponseDTO> getLowStockItems() {
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+
+        return itemRepository.findLowStockByOwnerId(currentUser.getId());
     }
 
     /**
      * Valida a propriedade de um item de inventário pelo seu ID, garantindo que o usuário autenticado é o proprietário do inventário e do produto associado ao item.
+     * O item, o inventário e o produto são carregados em uma única consulta já filtrada pelo proprietário,
+     * e o inventário e o produto ficam registrados como verificados para o restante da requisição.
      *
      * @param inventoryItemId identificador do item de inventário
      * @return InventoryItem validado
      */
     protected Item validateOwnershipById(UUID inventoryItemId) {
-        var inventoryItem = itemRepository.findById(inventoryItemId)
-                .orElseThrow(() -> new InventoryItemNotFound("Item de inventário com o [ ID: %s ] não encontrado".formatted(inventoryItemId)));
+        AuthUser currentUser = authenticationService.getAuthenticatedUser();
+
+        return itemRepository.findOwnedById(inventoryItemId, currentUser.getId())
+                .map(this::rememberParents)
+                .orElseThrow(() -> notFoundOrUnauthorized(inventoryItemId));
+    }
+
+    /**
+     * Registra o inventário e o produto do item como verificados, já que a consulta do item os filtrou pelo proprietário.
+     *
+     * @param item item de inventário validado
+     * @return o próprio item
+     */
+    private Item rememberParents(Item item) {
+        ownershipMemo.remember(Inventory.class, item.getInventory().getId(), item.getInventory());
+        ownershipMemo.remember(Product.class, item.getProduct().getId(), item.getProduct());
+        return item;
+    }
 
-        inventoryService.validateOwnershipById(inventoryItem.getInventory().getId());
-        productService.validateOwnershipById(inventoryItem.getProduct().getId());
+    /**
+     * Registra no histórico a diferença de quantidade causada pela atualização completa ou parcial do item.
+     *
+     * @param savedItem        o item gravado, com a nova versão
+     * @param previousQuantity quantidade antes da atualização
+     */
+    private void recordUpdate(Item savedItem, int previousQuantity) {
+        stockLedgerService.record(savedItem, savedItem.getCurrentQuantity() - previousQuantity, MovementReason.UPDATE,
+                authenticationService.getAuthenticatedUser().getId());
+    }
+
+    /**
+     * Confere se a nova quantidade atual do item ainda cobre as suas reservas em aberto.
+     *
+     * @param item o item com a nova quantidade
+     * @throws InsufficientStockException se a quantidade ficar abaixo da reservada
+     */
+    private void checkReservedQuantity(Item item) {
+        if (item.getCurrentQuantity() >= item.getReservedQuantity()) return;
 
-        return inventoryItem;
+        throw new InsufficientStockException(String.format("A quantidade atual não pode ficar abaixo da quantidade reservada.\nITEM: [ %s ] \nRESERVADO: %d ",
+                item.getProduct().getName(), item.getReservedQuantity()));
     }
 
     /**
-     * Valida a propriedade de um item de inventário pelo seu ID, garantindo que o usuário autenticado é o proprietário do inventário e do produto associado ao item, com bloqueio para evitar concorrência.
+     * Ajusta a quantidade de um item com um único UPDATE condicional, que já filtra pelo proprietário e rejeita
+     * quantidades abaixo da reservada, então a linha fica bloqueada apenas durante esse comando e a releitura do item.
      *
-     * @param inventoryItemId identificador do item de inventário
-     * @return InventoryItem validado com bloqueio
+     * @param itemId     identificador do item
+     * @param ownerId    identificador do usuário autenticado
+     * @param adjustment valor a ser ajustado (positivo ou negativo)
+     * @return informações do item atualizado
      */
-    protected Item validateOwnershipWithLock(UUID inventoryItemId) {
-        var inventoryItem = findByIdWithLock(inventoryItemId);
+    private ItemResponseDTO adjustAlone(UUID itemId, UUID ownerId, int adjustment) {
+        if (itemRepository.adjustQuantity(itemId, ownerId, adjustment) == 0) {
+            throw adjustmentRejected(itemId, ownerId);
+        }
 
-        inventoryService.validateOwnershipById(inventoryItem.getInventory().getId());
-        productService.validateOwnershipById(inventoryItem.getProduct().getId());
+        var updatedItem = itemRepository.findOwnedById(itemId, ownerId)
+                .map(this::rememberParents)
+                .orElseThrow(() -> notFoundOrUnauthorized(itemId));
 
-        return inventoryItem;
+        stockLedgerService.record(updatedItem, adjustment, MovementReason.ADJUSTMENT, ownerId);
+        sendEmailAfterCommitIfLowStock(updatedItem);
+
+        return ItemResponseDTO.from(updatedItem);
     }
 
     /**
-     * Busca um item de inventário pelo seu ID com bloqueio para evitar concorrência.
+     * Define o erro quando o item não é encontrado entre os itens do usuário. Só é chamado no caminho de erro,
+     * para distinguir um item inexistente de um item de outro usuário.
      *
      * @param inventoryItemId identificador do item de inventário
-     * @return InventoryItem encontrado com bloqueio
-     * @throws InventoryItemNotFound se o item não for encontrado
+     * @return a exceção adequada para o caso
      */
-    private Item findByIdWithLock(UUID inventoryItemId) {
-        return itemRepository.findItemById(inventoryItemId)
-                .orElseThrow(() -> new InventoryItemNotFound("Item de inventário com o [ ID: %s ] não encontrado".formatted(inventoryItemId)));
+    private RuntimeException notFoundOrUnauthorized(UUID inventoryItemId) {
+        if (itemRepository.existsById(inventoryItemId)) return new UnauthorizedRequestException("Usuário não tem autorização para gerenciar este item");
+
+        return new InventoryItemNotFound("Item de inventário com o [ ID: %s ] não encontrado".formatted(inventoryItemId));
     }
 
     /**
-     * Verifica se o estoque do item está baixo e envia um e-mail de notificação se necessário.
+     * Define o erro quando o ajuste não alterou nenhuma linha: o item não existe, pertence a outro usuário ou
+     * não tem estoque disponível suficiente. Só é chamado no caminho de erro.
+     *
+     * @param itemId  identificador do item de inventário
+     * @param ownerId identificador do usuário autenticado
+     * @return a exceção adequada para o caso
+     */
+    private RuntimeException adjustmentRejected(UUID itemId, UUID ownerId) {
+        return itemRepository.findOwnedById(itemId, ownerId)
+                .<RuntimeException>map(item -> new InsufficientStockException(insufficientStockMessage(item, item.getCurrentQuantity() - item.getReservedQuantity())))
+                .orElseGet(() -> notFoundOrUnauthorized(itemId));
+    }
+
+    /**
+     * Define o erro quando a reserva não alterou nenhuma linha, com os mesmos casos de {@link #adjustmentRejected}.
+     *
+     * @param itemId  identificador do item de inventário
+     * @param ownerId identificador do usuário autenticado
+     * @return a exceção adequada para o caso
+     */
+    private RuntimeException reservationRejected(UUID itemId, UUID ownerId) {
+        return itemRepository.findOwnedById(itemId, ownerId)
+                .<RuntimeException>map(item -> new InsufficientStockException(String.format("Estoque disponível insuficiente para a reserva.\nITEM: [ %s ] \nDISPONÍVEL: %d ",
+                        item.getProduct().getName(), item.getCurrentQuantity() - item.getReservedQuantity())))
+                .orElseGet(() -> notFoundOrUnauthorized(itemId));
+    }
+
+    /**
+     * Monta a mensagem de estoque insuficiente de um item.
+     *
+     * @param item            o item de inventário
+     * @param currentQuantity quantidade disponível no momento do ajuste
+     * @return a mensagem de erro
+     */
+    private String insufficientStockMessage(Item item, int currentQuantity) {
+        return String.format("Ajuste de estoque não pode resultar em quantidade negativa.\nITEM: [ %s ] \nEM ESTOQUE: %d ", item.getProduct().getName(), currentQuantity);
+    }
+
+    /**
+     * Verifica se o estoque do item está baixo e agenda o envio do e-mail de notificação para depois do commit,
+     * de modo que o servidor de e-mail não prolongue a transação e uma falha no envio não desfaça o ajuste.
+     * Sem uma transação ativa, o e-mail é enviado imediatamente.
      *
      * @param item o item de inventário a ser verificado
      */
-    private void sendEmailIfLowStock(Item item) {
-        if (isLowStock(item)) {
-            String emailBody = emailService.createEmailBody(
-                    item.getInventory().getName(),
-                    item.getProduct().getName(),
-                    item.getCurrentQuantity()
-            );
-
-            emailService.sendEmail(item.getInventory().getNotificationEmail(), emailBody);
+    private void sendEmailAfterCommitIfLowStock(Item item) {
+        if (!isLowStock(item)) return;
+
+        String notificationEmail = item.getInventory().getNotificationEmail();
+        String emailBody = emailService.createEmailBody(
+                item.getInventory().getName(),
+                item.getProduct().getName(),
+                item.getCurrentQuantity()
+        );
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            emailService.sendEmail(notificationEmail, emailBody);
+            return;
         }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    emailService.sendEmail(notificationEmail, emailBody);
+                } catch (MailException e) {
+                    log.warn("Falha ao enviar o e-mail de estoque baixo para {}: {}", notificationEmail, e.getMessage());
+                }
+            }
+        });
     }
 
     /**
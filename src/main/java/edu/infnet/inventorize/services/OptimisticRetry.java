@@ -0,0 +1,104 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.exceptions.custom.PreconditionFailedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Executa operações de escrita em transações próprias, repetindo-as quando outra transação altera a mesma entidade
+ * primeiro ({@link OptimisticLockingFailureException}). Cada nova tentativa relê a entidade e reaplica a operação,
+ * então só deve ser usado com operações que produzem o mesmo resultado quando repetidas sobre o estado mais recente.
+ * Entre as tentativas a espera cresce exponencialmente, com variação aleatória para que as requisições concorrentes
+ * não colidam de novo no mesmo instante. Esgotadas as tentativas, o conflito é propagado.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+    private final TransactionOperations transactionOperations;
+    private final int maxAttempts;
+    private final Duration backoff;
+
+    @Autowired
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${inventorize.optimistic-retry.max-attempts:3}") int maxAttempts,
+                           @Value("${inventorize.optimistic-retry.backoff:10ms}") Duration backoff) {
+        this(new TransactionTemplate(transactionManager), maxAttempts, backoff);
+    }
+
+    OptimisticRetry(TransactionOperations transactionOperations, int maxAttempts, Duration backoff) {
+        this.transactionOperations = transactionOperations;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+    }
+
+    /**
+     * Executa a operação, repetindo-a em caso de conflito de versão.
+     *
+     * @param operation  operação a ser executada; cada chamada roda em uma nova transação
+     * @param onConflict ação executada antes de cada nova tentativa, por exemplo para descartar entidades em memória
+     * @return o resultado da operação
+     * @throws OptimisticLockingFailureException se todas as tentativas entrarem em conflito
+     */
+    public <T> T execute(Supplier<T> operation, Runnable onConflict) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> operation.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) throw e;
+
+                log.debug("Conflito de versão na tentativa {} de {}: {}", attempt, maxAttempts, e.getMessage());
+                onConflict.run();
+                pause(attempt);
+            }
+        }
+    }
+
+    /**
+     * Executa a operação, repetindo-a em caso de conflito de versão, sem nenhuma ação entre as tentativas.
+     *
+     * @param operation operação a ser executada; cada chamada roda em uma nova transação
+     * @return o resultado da operação
+     */
+    public <T> T execute(Supplier<T> operation) {
+        return execute(operation, () -> {});
+    }
+
+    /**
+     * Confere a versão esperada pelo cliente (cabeçalho If-Match) com a versão atual da entidade.
+     * Um cliente com uma versão desatualizada precisa reler a entidade, então esse erro não é repetido.
+     *
+     * @param expectedVersion versão informada pelo cliente, ou null se a requisição não for condicional
+     * @param currentVersion  versão atual da entidade
+     * @throws PreconditionFailedException se as versões forem diferentes
+     */
+    public static void checkVersion(Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException(String.format(
+                    "O registro foi alterado desde a versão informada. Versão informada: %d, versão atual: %d", expectedVersion, currentVersion));
+        }
+    }
+
+    /**
+     * Espera um tempo aleatório entre metade e o total de {@code backoff × 2^(tentativa - 1)}.
+     */
+    private void pause(int attempt) {
+        long ceiling = backoff.toMillis() << (attempt - 1);
+        if (ceiling <= 0) return;
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
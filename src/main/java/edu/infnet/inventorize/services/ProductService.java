@@ -3,6 +3,7 @@ package edu.infnet.inventorize.services;
 import edu.infnet.inventorize.dto.request.product.PatchProductDTO;
 import edu.infnet.inventorize.dto.request.product.ProductDTO;
 import edu.infnet.inventorize.dto.request.product.UpdateProductDTO;
+import edu.infnet.inventorize.dto.response.CursorPageResponseDTO;
 import edu.infnet.inventorize.dto.response.ProductResponseDTO;
 import edu.infnet.inventorize.entities.AuthUser;
 import edu.infnet.inventorize.entities.Product;
@@ -10,19 +11,22 @@ import edu.infnet.inventorize.exceptions.custom.ProductAlreadyExistsException;
 import edu.infnet.inventorize.exceptions.custom.ProductNotFoundException;
 import edu.infnet.inventorize.exceptions.custom.UnauthorizedRequestException;
 import edu.infnet.inventorize.repository.ProductRepository;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
     private final AuthenticationService authService;
     private final ProductRepository productRepository;
+    private final OwnershipMemo ownershipMemo;
+    private final OptimisticRetry optimisticRetry;
 
     /**
      * Cria um novo produto.
@@ -49,26 +53,34 @@ public class ProductService {
 
     /**
      * Busca um produto pelo seu ID.
-     * @param id
-     * @return
+     * O produto é lido diretamente como DTO, em uma consulta já filtrada pelo proprietário.
+     *
+     * @param id ID do produto
+     * @return informações do produto encontrado
      */
     public ProductResponseDTO getById(UUID id) {
-        var product = validateOwnershipById(id);
+        AuthUser currentUser = authService.getAuthenticatedUser();
 
-        return ProductResponseDTO.fromProduct(product);
+        return productRepository.findOwnedResponseById(id, currentUser.getId())
+                .orElseThrow(() -> notFoundOrUnauthorized(id));
     }
 
     /**
-     * Busca todos os produtos do usuário autenticado.
+     * Busca uma página dos produtos do usuário autenticado, ordenados pelo ID.
+     * A página seguinte parte do último ID retornado, então o custo não cresce com a profundidade.
+     * Os produtos são lidos diretamente como DTOs, sem carregar entidades no contexto de persistência.
      *
-     * @return lista de produtos do usuário
+     * @param limit tamanho da página
+     * @param after ID a partir do qual a página começa, ou null para a primeira página
+     * @return a página de produtos e o cursor da próxima
      */
-    public List<ProductResponseDTO> getAll() {
+    public CursorPageResponseDTO<ProductResponseDTO> getAll(int limit, UUID after) {
         var userInfo = authService.getAuthenticatedUser();
+        var rows = after == null
+                ? productRepository.findPageByOwnerId(userInfo.getId(), Limit.of(limit + 1))
+                : productRepository.findPageByOwnerIdAfter(userInfo.getId(), after, Limit.of(limit + 1));
 
-        return productRepository.findAllByOwnerId(userInfo.getId()).stream()
-                .map(ProductResponseDTO::fromProduct)
-                .toList();
+        return CursorPageResponseDTO.from(rows, limit, Function.identity(), ProductResponseDTO::productId);
     }
 
     /**
@@ -80,52 +92,65 @@ public class ProductService {
         var product = validateOwnershipById(id);
 
         productRepository.delete(product);
+        ownershipMemo.forget(Product.class, id);
     }
 
     /**
      * Atualiza um produto existente com os dados fornecidos.
+     * Se outra requisição alterar o produto ao mesmo tempo, a atualização é refeita sobre a versão mais recente,
+     * a menos que o cliente tenha informado a versão esperada.
      *
      * @param productId ID do produto a ser atualizado
      * @param productData dados do produto a serem atualizados
+     * @param expectedVersion versão do produto conhecida pelo cliente (If-Match), ou null para não conferir
      * @return informações do produto atualizado
      */
-    @Transactional
-    public ProductResponseDTO updateProduct(UUID productId, UpdateProductDTO productData) {
-        Product product = validateOwnershipById(productId);
-
-        var productBuilder = product.toBuilder()
-                .id(productId)
-                .name(productData.newName())
-                .supplierCode(productData.newSupplierCode())
-                .build();
-
-        var updatedProduct = productRepository.save(productBuilder);
-
-        return ProductResponseDTO.fromProduct(updatedProduct);
+    public ProductResponseDTO updateProduct(UUID productId, UpdateProductDTO productData, Long expectedVersion) {
+        return optimisticRetry.execute(() -> {
+            Product product = validateOwnershipById(productId);
+            OptimisticRetry.checkVersion(expectedVersion, product.getVersion());
+
+            var productBuilder = product.toBuilder()
+                    .id(productId)
+                    .name(productData.newName())
+                    .supplierCode(productData.newSupplierCode())
+                    .build();
+
+            var updatedProduct = productRepository.saveAndFlush(productBuilder);
+            ownershipMemo.remember(Product.class, productId, updatedProduct);
+
+            return ProductResponseDTO.fromProduct(updatedProduct);
+        }, () -> ownershipMemo.forget(Product.class, productId));
     }
 
     /**
      * Atualiza parcialmente um produto existente com os dados fornecidos.
+     * Conflitos com outras requisições são tratados como em {@link #updateProduct}.
      *
      * @param productId ID do produto a ser atualizado
      * @param productData dados do produto a serem atualizados
+     * @param expectedVersion versão do produto conhecida pelo cliente (If-Match), ou null para não conferir
      * @return informações do produto atualizado
      */
-    @Transactional
-    public ProductResponseDTO patchProduct(UUID productId, PatchProductDTO productData) {
-        Product product = validateOwnershipById(productId);
-        var productBuilder = product.toBuilder();
+    public ProductResponseDTO patchProduct(UUID productId, PatchProductDTO productData, Long expectedVersion) {
+        return optimisticRetry.execute(() -> {
+            Product product = validateOwnershipById(productId);
+            OptimisticRetry.checkVersion(expectedVersion, product.getVersion());
+            var productBuilder = product.toBuilder();
 
-        if (productData.name() != null) productBuilder.name(productData.name());
-        if (productData.supplierCode() != null) productBuilder.supplierCode(productData.supplierCode());
+            if (productData.name() != null) productBuilder.name(productData.name());
+            if (productData.supplierCode() != null) productBuilder.supplierCode(productData.supplierCode());
 
-        var updatedProduct = productRepository.save(productBuilder.build());
+            var updatedProduct = productRepository.saveAndFlush(productBuilder.build());
+            ownershipMemo.remember(Product.class, productId, updatedProduct);
 
-        return ProductResponseDTO.fromProduct(updatedProduct);
+            return ProductResponseDTO.fromProduct(updatedProduct);
+        }, () -> ownershipMemo.forget(Product.class, productId));
     }
 
     /**
      * Valida se o usuário autenticado é o proprietário do produto com o ID fornecido.
+     * O resultado é reaproveitado pelas demais verificações do mesmo produto na requisição.
      *
      * @param productId ID do produto a ser validado
      * @return o produto se o usuário for o proprietário
@@ -133,11 +158,28 @@ public class ProductService {
      * @throws UnauthorizedRequestException se o usuário não for o proprietário do produto
      */
     protected Product validateOwnershipById(UUID productId) {
+        return ownershipMemo.verified(Product.class, productId, () -> loadOwnedProduct(productId));
+    }
+
+    private Product loadOwnedProduct(UUID productId) {
         var product = productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException(String.format("Produto com o [ ID: %s ] não encontrado", productId)));
         AuthUser currentUser = authService.getAuthenticatedUser();
 
-        if (!product.getOwner().equals(currentUser)) throw new UnauthorizedRequestException("Usuário não tem autorização para gerenciar este produto");
+        if (!product.getOwner().getId().equals(currentUser.getId())) throw new UnauthorizedRequestException("Usuário não tem autorização para gerenciar este produto");
 
         return product;
     }
-}
\ No newline at end of file
+
+    /**
+     * Define o erro quando o produto não é encontrado entre os produtos do usuário. Só é chamado no caminho de erro,
+     * para distinguir um produto inexistente de um produto de outro usuário.
+     *
+     * @param productId ID do produto
+     * @return a exceção adequada para o caso
+     */
+    private RuntimeException notFoundOrUnauthorized(UUID productId) {
+        if (productRepository.existsById(productId)) return new UnauthorizedRequestException("Usuário não tem autorização para gerenciar este produto");
+
+        return new ProductNotFoundException(String.format("Produto com o [ ID: %s ] não encontrado", productId));
+    }
+}
@@ -0,0 +1,158 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.dto.response.CursorPageResponseDTO;
+import edu.infnet.inventorize.dto.response.StockMovementResponseDTO;
+import edu.infnet.inventorize.dto.response.StockReplayResponseDTO;
+import edu.infnet.inventorize.entities.Item;
+import edu.infnet.inventorize.entities.StockMovement;
+import edu.infnet.inventorize.entities.StockSnapshot;
+import edu.infnet.inventorize.enums.MovementReason;
+import edu.infnet.inventorize.repository.StockMovementRepository;
+import edu.infnet.inventorize.repository.StockSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Histórico de movimentações de estoque dos itens.
+ * <p>
+ * Toda alteração de quantidade grava uma movimentação na mesma transação que atualiza o item, com a versão que o
+ * item passou a ter. A quantidade de um item pode então ser reconstruída a partir do histórico: o último
+ * {@link StockSnapshot} mais as movimentações com versão posterior à dele. Os snapshots são consolidados
+ * periodicamente, para que essa soma percorra poucas movimentações; as movimentações em si nunca são removidas.
+ * <p>
+ * Os métodos que gravam devem ser chamados dentro da transação de quem alterou o item.
+ */
+@Slf4j
+@Service
+public class StockLedgerService {
+    private static final long NO_VERSION = -1;
+
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final long compactionThreshold;
+    private final int compactionBatchSize;
+
+    public StockLedgerService(StockMovementRepository movementRepository,
+                              StockSnapshotRepository snapshotRepository,
+                              @Value("${inventorize.ledger.compaction-threshold:100}") long compactionThreshold,
+                              @Value("${inventorize.ledger.compaction-batch-size:500}") int compactionBatchSize) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.compactionThreshold = Math.max(1, compactionThreshold);
+        this.compactionBatchSize = Math.max(1, compactionBatchSize);
+    }
+
+    /**
+     * Registra uma movimentação do item. Variações nulas não são registradas.
+     *
+     * @param item    o item já gravado, com a versão resultante da alteração
+     * @param delta   variação da quantidade
+     * @param reason  origem da movimentação
+     * @param actorId identificador do usuário que fez a alteração
+     */
+    public void record(Item item, int delta, MovementReason reason, UUID actorId) {
+        if (delta == 0) return;
+
+        movementRepository.save(StockMovement.builder()
+                .itemId(item.getId())
+                .itemVersion(item.getVersion())
+                .delta(delta)
+                .reason(reason)
+                .actorId(actorId)
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Lista uma página das movimentações do item, da mais antiga para a mais recente.
+     * O acesso ao item deve ser validado por quem chama.
+     *
+     * @param itemId identificador do item
+     * @param limit  tamanho da página
+     * @param after  ID a partir do qual a página começa, ou null para a primeira página
+     * @return a página de movimentações e o cursor da próxima
+     */
+    public CursorPageResponseDTO<StockMovementResponseDTO> getMovements(UUID itemId, int limit, UUID after) {
+        var rows = after == null
+                ? movementRepository.findPageByItemId(itemId, Limit.of(limit + 1))
+                : movementRepository.findPageByItemIdAfter(itemId, after, Limit.of(limit + 1));
+
+        return CursorPageResponseDTO.from(rows, limit, Function.identity(), StockMovementResponseDTO::id);
+    }
+
+    /**
+     * Reconstrói a quantidade do item a partir do último snapshot e das movimentações posteriores, até a versão
+     * atual do item. O item deve estar bloqueado, para que nenhuma movimentação seja gravada durante a soma.
+     *
+     * @param item o item bloqueado
+     * @return o resultado da reconstrução, com a quantidade atualmente registrada no item
+     */
+    public StockReplayResponseDTO replay(Item item) {
+        var snapshot = snapshotOf(item.getId());
+        var tail = movementRepository.sumBetweenVersions(item.getId(), snapshot.getItemVersion(), item.getVersion());
+
+        return new StockReplayResponseDTO(
+                item.getId(),
+                snapshot.getQuantity(),
+                tail.getMovements(),
+                Math.toIntExact(snapshot.getQuantity() + tail.getDelta()),
+                item.getCurrentQuantity()
+        );
+    }
+
+    /**
+     * Remove o snapshot de um item removido. As movimentações são mantidas como histórico.
+     *
+     * @param itemId identificador do item
+     */
+    public void forget(UUID itemId) {
+        snapshotRepository.deleteById(itemId);
+    }
+
+    /**
+     * Consolida periodicamente o histórico dos itens com muitas alterações desde o último snapshot.
+     * <p>
+     * A versão de cada item é lida antes da soma: as movimentações até essa versão foram gravadas pelas transações
+     * que produziram as versões, já confirmadas quando a versão foi lida, então a soma não perde nenhuma delas
+     * e dispensa o bloqueio do item.
+     *
+     * @return a quantidade de snapshots atualizados
+     */
+    @Scheduled(fixedDelayString = "${inventorize.ledger.compaction-interval:PT5M}", initialDelayString = "${inventorize.ledger.compaction-interval:PT5M}")
+    public int compact() {
+        var candidates = snapshotRepository.findCompactionCandidates(compactionThreshold, Limit.of(compactionBatchSize));
+
+        for (var candidate : candidates) {
+            var snapshot = snapshotOf(candidate.getItemId());
+            var tail = movementRepository.sumBetweenVersions(candidate.getItemId(), snapshot.getItemVersion(), candidate.getVersion());
+
+            snapshotRepository.save(snapshot.toBuilder()
+                    .quantity(Math.toIntExact(snapshot.getQuantity() + tail.getDelta()))
+                    .itemVersion(candidate.getVersion())
+                    .takenAt(Instant.now())
+                    .build());
+        }
+
+        if (!candidates.isEmpty()) log.debug("Snapshots de estoque consolidados: {}", candidates.size());
+        return candidates.size();
+    }
+
+    /**
+     * O último snapshot do item, ou um snapshot vazio anterior a qualquer versão, se o item ainda não tiver um.
+     */
+    private StockSnapshot snapshotOf(UUID itemId) {
+        return snapshotRepository.findById(itemId).orElseGet(() -> StockSnapshot.builder()
+                .itemId(itemId)
+                .quantity(0)
+                .itemVersion(NO_VERSION)
+                .takenAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,184 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.entities.Item;
+import edu.infnet.inventorize.entities.StockReservation;
+import edu.infnet.inventorize.exceptions.custom.ReservationNotFoundException;
+import edu.infnet.inventorize.repository.ItemRepository;
+import edu.infnet.inventorize.repository.StockReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reservas de estoque em aberto e a liberação das que expiraram.
+ * <p>
+ * A quantidade de cada reserva é somada à quantidade reservada do item pelo {@link ItemService}, na mesma transação
+ * que grava a reserva; este serviço cuida apenas dos registros das reservas. Uma reserva só sai da tabela por um dos
+ * caminhos abaixo, sempre com a linha bloqueada, então a quantidade nunca é devolvida duas vezes:
+ * <ul>
+ *     <li>confirmação ou liberação pelo cliente, que bloqueiam a reserva pelo ID;</li>
+ *     <li>varredura periódica, que bloqueia as vencidas em lotes, pulando as que estão bloqueadas pelos outros
+ *     caminhos.</li>
+ * </ul>
+ * Os métodos que gravam, exceto a varredura, devem ser chamados dentro da transação de quem alterou o item.
+ */
+@Slf4j
+@Service
+public class StockReservationService {
+    private final StockReservationRepository reservationRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionOperations transactionOperations;
+    private final Duration defaultTtl;
+    private final int sweepBatchSize;
+
+    @Autowired
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   ItemRepository itemRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${inventorize.reservations.default-ttl:10m}") Duration defaultTtl,
+                                   @Value("${inventorize.reservations.sweep-batch-size:500}") int sweepBatchSize) {
+        this(reservationRepository, itemRepository, new TransactionTemplate(transactionManager), defaultTtl, sweepBatchSize);
+    }
+
+    StockReservationService(StockReservationRepository reservationRepository, ItemRepository itemRepository,
+                            TransactionOperations transactionOperations, Duration defaultTtl, int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.itemRepository = itemRepository;
+        this.transactionOperations = transactionOperations;
+        this.defaultTtl = defaultTtl;
+        this.sweepBatchSize = Math.max(1, sweepBatchSize);
+    }
+
+    /**
+     * Grava uma reserva. A quantidade já deve ter sido somada à quantidade reservada do item.
+     *
+     * @param itemId     identificador do item
+     * @param ownerId    identificador do usuário que reservou
+     * @param quantity   quantidade reservada
+     * @param ttlSeconds por quantos segundos a reserva é mantida, ou null para o tempo padrão
+     * @return a reserva gravada
+     */
+    public StockReservation hold(UUID itemId, UUID ownerId, int quantity, Integer ttlSeconds) {
+        var now = Instant.now();
+        var ttl = ttlSeconds == null ? defaultTtl : Duration.ofSeconds(ttlSeconds);
+
+        return reservationRepository.save(StockReservation.builder()
+                .itemId(itemId)
+                .ownerId(ownerId)
+                .quantity(quantity)
+                .expiresAt(now.plus(ttl))
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Remove uma reserva ainda válida para confirmá-la. Uma reserva vencida é mantida para a varredura liberar.
+     *
+     * @param itemId        identificador do item
+     * @param reservationId identificador da reserva
+     * @param ownerId       identificador do usuário autenticado
+     * @return a reserva removida
+     * @throws ReservationNotFoundException se a reserva não existir, for de outro usuário ou já tiver expirado
+     */
+    public StockReservation claimActive(UUID itemId, UUID reservationId, UUID ownerId) {
+        var reservation = lock(itemId, reservationId, ownerId);
+        if (reservation.isExpiredAt(Instant.now())) {
+            throw new ReservationNotFoundException("A reserva [ ID: %s ] expirou".formatted(reservationId));
+        }
+
+        reservationRepository.delete(reservation);
+        return reservation;
+    }
+
+    /**
+     * Remove uma reserva para liberá-la, mesmo que já tenha expirado e ainda não tenha sido varrida.
+     *
+     * @param itemId        identificador do item
+     * @param reservationId identificador da reserva
+     * @param ownerId       identificador do usuário autenticado
+     * @return a reserva removida
+     * @throws ReservationNotFoundException se a reserva não existir ou for de outro usuário
+     */
+    public StockReservation claim(UUID itemId, UUID reservationId, UUID ownerId) {
+        var reservation = lock(itemId, reservationId, ownerId);
+
+        reservationRepository.delete(reservation);
+        return reservation;
+    }
+
+    /**
+     * Remove as reservas de um item removido.
+     *
+     * @param itemId identificador do item
+     */
+    public void forget(UUID itemId) {
+        reservationRepository.deleteByItemId(itemId);
+    }
+
+    /**
+     * Libera periodicamente as reservas vencidas, das mais antigas para as mais recentes, em lotes.
+     * Cada lote é uma transação: as reservas são bloqueadas e removidas, e as quantidades de cada item são somadas e
+     * devolvidas em um único UPDATE por item. Os itens são bloqueados antes, em uma única consulta ordenada pelo ID no
+     * banco, na mesma ordem do ajuste em lote, para que os dois não entrem em deadlock. A varredura continua enquanto
+     * encontrar lotes cheios.
+     *
+     * @return a quantidade de reservas liberadas
+     */
+    @Scheduled(fixedDelayString = "${inventorize.reservations.sweep-interval:PT15S}", initialDelayString = "${inventorize.reservations.sweep-interval:PT15S}")
+    public int releaseExpired() {
+        int released = 0;
+        int batch;
+        do {
+            batch = transactionOperations.execute(status -> releaseExpiredBatch(Instant.now()));
+            released += batch;
+        } while (batch == sweepBatchSize);
+
+        if (released > 0) log.debug("Reservas de estoque expiradas liberadas: {}", released);
+        return released;
+    }
+
+    private int releaseExpiredBatch(Instant now) {
+        var expired = reservationRepository.findExpiredForUpdate(now, Limit.of(sweepBatchSize));
+        if (expired.isEmpty()) return 0;
+
+        Map<UUID, Integer> heldByItem = new HashMap<>();
+        for (var reservation : expired) {
+            heldByItem.merge(reservation.getItemId(), reservation.getQuantity(), Integer::sum);
+        }
+
+        reservationRepository.deleteAllByIdInBatch(expired.stream().map(StockReservation::getId).toList());
+        var lockedIds = itemRepository.findAllByIdsForUpdate(heldByItem.keySet()).stream()
+                .map(Item::getId)
+                .toList();
+        for (var itemId : lockedIds) {
+            int quantity = heldByItem.get(itemId);
+            if (itemRepository.releaseReservedQuantity(itemId, quantity) == 0) {
+                log.warn("Item {} sem a quantidade reservada {} para liberar", itemId, quantity);
+            }
+        }
+        if (lockedIds.size() < heldByItem.size()) {
+            log.warn("Itens não encontrados para liberar as reservas vencidas: {}", heldByItem.keySet().stream()
+                    .filter(itemId -> !lockedIds.contains(itemId))
+                    .toList());
+        }
+
+        return expired.size();
+    }
+
+    private StockReservation lock(UUID itemId, UUID reservationId, UUID ownerId) {
+        return reservationRepository.findOwnedByIdForUpdate(reservationId, itemId, ownerId)
+                .orElseThrow(() -> new ReservationNotFoundException("Reserva com o [ ID: %s ] não encontrada".formatted(reservationId)));
+    }
+}
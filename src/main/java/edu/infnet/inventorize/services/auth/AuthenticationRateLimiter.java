@@ -0,0 +1,138 @@
+package edu.infnet.inventorize.services.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.infnet.inventorize.exceptions.custom.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limitador de tentativas de login e cadastro baseado em token bucket, com um balde por conta (email)
+ * e outro por endereço do cliente. A verificação acontece antes de qualquer cálculo de BCrypt.
+ * Baldes ociosos são removidos do cache, mantendo a memória limitada, e o acesso a cada balde é
+ * protegido por um conjunto fixo de locks (lock striping) em vez de um lock global.
+ * Requisições recusadas são contadas na métrica "auth.throttled", por dimensão.
+ */
+@Component
+public class AuthenticationRateLimiter {
+    private static final int LOCK_STRIPES = 64;
+    private static final String ACCOUNT = "account";
+    private static final String ADDRESS = "ip";
+
+    private final boolean enabled;
+    private final BucketLimit accountLimit;
+    private final BucketLimit addressLimit;
+    private final Cache<String, TokenBucket> buckets;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Counter accountThrottled;
+    private final Counter addressThrottled;
+
+    public AuthenticationRateLimiter(@Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                                     @Value("${auth.rate-limit.account.capacity:5}") int accountCapacity,
+                                     @Value("${auth.rate-limit.account.refill-period:1m}") Duration accountRefillPeriod,
+                                     @Value("${auth.rate-limit.ip.capacity:20}") int addressCapacity,
+                                     @Value("${auth.rate-limit.ip.refill-period:3s}") Duration addressRefillPeriod,
+                                     @Value("${auth.rate-limit.idle-timeout:15m}") Duration idleTimeout,
+                                     @Value("${auth.rate-limit.maximum-size:100000}") long maximumSize,
+                                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.accountLimit = new BucketLimit(accountCapacity, accountRefillPeriod);
+        this.addressLimit = new BucketLimit(addressCapacity, addressRefillPeriod);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maximumSize)
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new ReentrantLock();
+
+        this.accountThrottled = Counter.builder("auth.throttled")
+                .tag("dimension", ACCOUNT)
+                .description("Tentativas de autenticação recusadas pelo limite da conta")
+                .register(meterRegistry);
+        this.addressThrottled = Counter.builder("auth.throttled")
+                .tag("dimension", ADDRESS)
+                .description("Tentativas de autenticação recusadas pelo limite do endereço do cliente")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consome uma tentativa dos baldes do endereço do cliente e da conta.
+     *
+     * @param email         email informado na requisição
+     * @param clientAddress endereço do cliente
+     * @throws TooManyRequestsException se algum dos limites tiver sido atingido
+     */
+    public void check(String email, String clientAddress) {
+        if (!enabled) return;
+
+        long addressWait = tryConsume(ADDRESS + ":" + clientAddress, addressLimit);
+        if (addressWait > 0) {
+            addressThrottled.increment();
+            throw new TooManyRequestsException("Muitas tentativas a partir deste endereço", toRetryAfterSeconds(addressWait));
+        }
+
+        long accountWait = tryConsume(ACCOUNT + ":" + email.toLowerCase(Locale.ROOT), accountLimit);
+        if (accountWait > 0) {
+            accountThrottled.increment();
+            throw new TooManyRequestsException("Muitas tentativas para esta conta", toRetryAfterSeconds(accountWait));
+        }
+    }
+
+    /**
+     * Tenta consumir um token do balde indicado.
+     *
+     * @return zero se o token foi consumido, ou o tempo em nanossegundos até o próximo token ficar disponível
+     */
+    private long tryConsume(String key, BucketLimit limit) {
+        var lock = locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            var bucket = buckets.get(key, k -> new TokenBucket(limit.capacity(), now));
+            return bucket.tryConsume(limit, now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Limite de um balde: quantidade máxima de tentativas seguidas e o tempo para recuperar cada uma.
+     */
+    private record BucketLimit(int capacity, Duration refillPeriod) {
+    }
+
+    /**
+     * Estado mutável de um balde; só deve ser acessado com o lock da sua faixa adquirido.
+     */
+    private static class TokenBucket {
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        long tryConsume(BucketLimit limit, long now) {
+            long refillNanos = limit.refillPeriod().toNanos();
+            tokens = Math.min(limit.capacity(), tokens + (double) (now - lastRefill) / refillNanos);
+            lastRefill = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * refillNanos);
+        }
+    }
+}
@@ -1,36 +1,101 @@
 package edu.infnet.inventorize.services.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import edu.infnet.inventorize.enums.Role;
+import edu.infnet.inventorize.security.auth.UserDetailsImpl;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
+    private final SecretKey secretKey;
+    private final Duration accessTokenTtl;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.cache.maximum-size:10000}") long cacheMaximumSize,
+                      @Value("${jwt.access-token.ttl:15m}") Duration accessTokenTtl) {
+        this.secretKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.accessTokenTtl = accessTokenTtl;
+        this.parser = Jwts.parser()
+                .verifyWith(this.secretKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
 
     /**
-     * Gera um token JWT para o usuário especificado.
+     * Gera um token de acesso JWT de curta duração para o usuário especificado.
+     * O token carrega o ID e os papéis do usuário, permitindo autenticar requisições sem consultar o banco,
+     * e um identificador único (jti) usado para revogá-lo antes da expiração. O jti é um UUID aleatório, e não
+     * ordenado pelo tempo, porque o filtro de Bloom de tokens revogados usa os seus bits diretamente como hash.
      *
      * @param userDetails detalhes do usuário para o qual o token será gerado
      * @return String contendo o token JWT gerado
      */
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(UserDetailsImpl userDetails) {
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        long now = System.currentTimeMillis();
+
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + 86400000))
-                .signWith(getSecretKey())
+                .claim(USER_ID_CLAIM, userDetails.getAuthUser().getId().toString())
+                .claim(ROLES_CLAIM, roles)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + accessTokenTtl.toMillis()))
+                .signWith(secretKey)
                 .compact();
     }
 
+    /**
+     * Verifica a assinatura e a expiração do token uma única vez e retorna suas claims já validadas.
+     * Tokens já verificados ficam em cache (indexados pelo digest SHA-256 do token) até expirarem,
+     * de modo que requisições repetidas com o mesmo token não repetem a verificação criptográfica.
+     *
+     * @param token token JWT a ser verificado
+     * @return as claims verificadas do token
+     * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+     */
+    public VerifiedToken verify(String token) {
+        String key = TokenDigest.sha256Hex(token);
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && !cached.isExpiredAt(Instant.now())) return cached;
+
+        VerifiedToken verified = parse(token);
+        verifiedTokens.put(key, verified);
+
+        return verified;
+    }
+
     /**
      * Verifica se um token é válido para um determinado usuário.
      *
@@ -38,9 +103,9 @@ public class JwtService {
      * @return true se o token for válido, false caso contrário
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = getUsername(token);
-        if (!username.equals(userDetails.getUsername())) return false;
-        return !isTokenExpired(token);
+        var verified = verify(token);
+        if (!verified.username().equals(userDetails.getUsername())) return false;
+        return !verified.isExpiredAt(Instant.now());
     }
 
     /**
@@ -50,56 +115,62 @@ public class JwtService {
      * @return String contendo o username
      */
     public String getUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).username();
     }
 
     /**
-     * Verifica se o token está expirado.
+     * Faz a verificação criptográfica do token e converte suas claims.
      *
      * @param token token JWT a ser verificado
-     * @return true se o token estiver expirado, false caso contrário
+     * @return as claims verificadas do token
      */
-    private boolean isTokenExpired(String token) {
-        return getExpirationDate(token).before(new Date());
-    }
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
 
-    /**
-     * Obtém a data de expiração contida no token.
-     *
-     * @param token token JWT a ser lido
-     * @return Date contendo a data de expiração
-     */
-    private Date getExpirationDate(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+
+        return new VerifiedToken(
+                claims.getId() != null ? UUID.fromString(claims.getId()) : null,
+                userId != null ? UUID.fromString(userId) : null,
+                claims.getSubject(),
+                toRoles(claims.get(ROLES_CLAIM, Collection.class)),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant()
+        );
     }
 
     /**
-     * Extrai uma claim específica do token usando uma função de resolução.
+     * Converte a claim de papéis do token para o conjunto de papéis do sistema.
      *
-     * @param token          token JWT do qual será extraída a claim
-     * @param claimsResolver função para resolver o tipo específico da claim
-     * @return T valor da claim convertido para o tipo especificado
+     * @param roles valores da claim de papéis, podendo ser nulo em tokens antigos
+     * @return conjunto de papéis do usuário
      */
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private static Set<Role> toRoles(Collection<?> roles) {
+        if (roles == null) return Set.of();
+
+        return roles.stream()
+                .map(role -> Role.valueOf(role.toString()))
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     /**
-     * Obtém todas as claims do token JWT.
-     *
-     * @param token token JWT do qual serão extraídas as claims
-     * @return Claims objeto contendo todas as claims do token
+     * Expira cada entrada do cache junto com o token que ela representa.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSecretKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remaining = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+            return Math.max(remaining, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
 
-    private SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
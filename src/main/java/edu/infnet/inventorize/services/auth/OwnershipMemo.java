@@ -0,0 +1,106 @@
+package edu.infnet.inventorize.services.auth;
+
+import edu.infnet.inventorize.entities.AuthUser;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Memória de autorização com escopo de requisição. Guarda o usuário autenticado e as entidades
+ * (inventários, produtos) cuja propriedade já foi verificada para ele, de modo que operações que
+ * tocam a mesma entidade várias vezes na requisição façam a consulta e a verificação uma única vez.
+ * Os dados ficam nos atributos da requisição atual e são descartados ao fim dela; fora de uma
+ * requisição (tarefas agendadas, testes) nada é memorizado e cada chamada executa a verificação.
+ * Apenas verificações bem-sucedidas são guardadas.
+ */
+@Component
+public class OwnershipMemo {
+    private static final String ATTRIBUTE = OwnershipMemo.class.getName();
+
+    /**
+     * Obtém o usuário autenticado da requisição, resolvendo-o apenas na primeira chamada.
+     *
+     * @param resolver função que obtém o usuário autenticado
+     * @return o usuário autenticado
+     */
+    public AuthUser currentUser(Supplier<AuthUser> resolver) {
+        Memo memo = currentMemo();
+        if (memo == null) return resolver.get();
+
+        if (memo.user == null) memo.user = resolver.get();
+        return memo.user;
+    }
+
+    /**
+     * Obtém uma entidade já verificada nesta requisição ou executa a verificação e guarda o resultado.
+     *
+     * @param type     tipo da entidade
+     * @param id       identificador da entidade
+     * @param verifier função que carrega a entidade e valida a propriedade, lançando exceção se falhar
+     * @return a entidade verificada
+     */
+    public <T> T verified(Class<T> type, UUID id, Supplier<T> verifier) {
+        Memo memo = currentMemo();
+        if (memo == null) return verifier.get();
+
+        var key = new Key(type, id);
+        Object cached = memo.entities.get(key);
+        if (cached != null) return type.cast(cached);
+
+        T entity = verifier.get();
+        memo.entities.put(key, entity);
+        return entity;
+    }
+
+    /**
+     * Registra uma entidade cuja propriedade já foi verificada por outro caminho, por exemplo uma
+     * consulta filtrada pelo proprietário, ou substitui a versão guardada após uma atualização.
+     *
+     * @param type   tipo da entidade
+     * @param id     identificador da entidade
+     * @param entity entidade verificada
+     */
+    public <T> void remember(Class<T> type, UUID id, T entity) {
+        Memo memo = currentMemo();
+        if (memo != null) memo.entities.put(new Key(type, id), entity);
+    }
+
+    /**
+     * Remove uma entidade da memória, por exemplo após a sua exclusão.
+     *
+     * @param type tipo da entidade
+     * @param id   identificador da entidade
+     */
+    public void forget(Class<?> type, UUID id) {
+        Memo memo = currentMemo();
+        if (memo != null) memo.entities.remove(new Key(type, id));
+    }
+
+    private Memo currentMemo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+
+        Memo memo = (Memo) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new Memo();
+            attributes.setAttribute(ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+
+    private record Key(Class<?> type, UUID id) {
+    }
+
+    /**
+     * Estado de uma requisição; acessado apenas pela thread que a atende.
+     */
+    private static class Memo {
+        private AuthUser user;
+        private final Map<Key, Object> entities = new HashMap<>();
+    }
+}
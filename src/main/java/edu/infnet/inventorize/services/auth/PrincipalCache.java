@@ -0,0 +1,57 @@
+package edu.infnet.inventorize.services.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.infnet.inventorize.security.auth.UserDetailsImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache limitado, com expiração por tempo, dos usuários carregados do banco, indexado pelo email.
+ * Toda escrita de um AuthUser (cadastro, troca de senha ou de papéis) deve chamar {@link #evict(String)}
+ * para que o cache nunca sirva credenciais ou papéis desatualizados.
+ * Acertos, falhas e remoções são publicados como métricas com o nome "principals".
+ */
+@Component
+public class PrincipalCache {
+    private static final String CACHE_NAME = "principals";
+
+    private final Cache<String, UserDetailsImpl> principals;
+
+    public PrincipalCache(@Value("${auth.principal-cache.ttl:5m}") Duration ttl,
+                          @Value("${auth.principal-cache.maximum-size:10000}") long maximumSize,
+                          MeterRegistry meterRegistry) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, CACHE_NAME);
+    }
+
+    /**
+     * Retorna o usuário em cache ou o carrega com a função informada.
+     * Exceções lançadas pela função são propagadas e nada é armazenado.
+     *
+     * @param email  email do usuário
+     * @param loader função que carrega o usuário do banco em caso de falha no cache
+     * @return o usuário correspondente ao email
+     */
+    public UserDetailsImpl get(String email, Function<String, UserDetailsImpl> loader) {
+        return principals.get(email, loader);
+    }
+
+    /**
+     * Remove o usuário do cache, forçando a próxima leitura a ir ao banco.
+     *
+     * @param email email do usuário alterado
+     */
+    public void evict(String email) {
+        principals.invalidate(email);
+    }
+}
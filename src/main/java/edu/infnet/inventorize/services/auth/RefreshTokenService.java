@@ -0,0 +1,114 @@
+package edu.infnet.inventorize.services.auth;
+
+import edu.infnet.inventorize.entities.AuthUser;
+import edu.infnet.inventorize.entities.RefreshToken;
+import edu.infnet.inventorize.exceptions.custom.InvalidTokenException;
+import edu.infnet.inventorize.repository.RefreshTokenRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Emite, rotaciona e revoga refresh tokens. Os tokens são valores aleatórios opacos e apenas o seu digest é persistido.
+ * Cada uso gera um novo token da mesma família e invalida o anterior; se um token já utilizado for
+ * apresentado novamente, toda a família é revogada, pois isso indica que o token vazou.
+ */
+@Service
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-token.ttl:14d}") Duration refreshTokenTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    /**
+     * Emite o primeiro refresh token de uma nova família, no momento do login.
+     *
+     * @param user usuário autenticado
+     * @return o refresh token em texto puro, que só é exposto ao cliente
+     */
+    public String issue(AuthUser user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    /**
+     * Troca um refresh token válido por um novo token da mesma família.
+     *
+     * @param rawToken refresh token apresentado pelo cliente
+     * @return o usuário dono do token e o novo refresh token
+     * @throws InvalidTokenException se o token não existir, estiver expirado ou já tiver sido utilizado
+     */
+    @Transactional(dontRollbackOn = InvalidTokenException.class)
+    public RotatedRefreshToken rotate(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenDigest.sha256Hex(rawToken))
+                .orElseThrow(() -> new InvalidTokenException("Refresh token inválido"));
+
+        if (refreshToken.isRevoked() || refreshTokenRepository.revokeIfActive(refreshToken.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            throw new InvalidTokenException("Refresh token já utilizado, faça login novamente");
+        }
+        if (!refreshToken.getExpiresAt().isAfter(Instant.now())) throw new InvalidTokenException("Refresh token expirado");
+
+        AuthUser user = refreshToken.getUser();
+        return new RotatedRefreshToken(user, issue(user, refreshToken.getFamilyId()));
+    }
+
+    /**
+     * Revoga a família do refresh token informado, desde que ele pertença ao usuário.
+     *
+     * @param rawToken refresh token apresentado pelo cliente
+     * @param userId   ID do usuário autenticado
+     * @throws InvalidTokenException se o token não existir ou pertencer a outro usuário
+     */
+    @Transactional
+    public void revoke(String rawToken, UUID userId) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenDigest.sha256Hex(rawToken))
+                .filter(token -> token.getUser().getId().equals(userId))
+                .orElseThrow(() -> new InvalidTokenException("Refresh token inválido"));
+
+        refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+    }
+
+    /**
+     * Remove periodicamente os refresh tokens expirados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.cleanup-interval:PT1H}", initialDelayString = "${jwt.refresh-token.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private String issue(AuthUser user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(TokenDigest.sha256Hex(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(Instant.now().plus(refreshTokenTtl))
+                .revoked(false)
+                .build());
+
+        return rawToken;
+    }
+
+    /**
+     * Resultado de uma rotação: o dono do token e o novo refresh token em texto puro.
+     */
+    public record RotatedRefreshToken(AuthUser user, String refreshToken) {
+    }
+}
@@ -0,0 +1,131 @@
+package edu.infnet.inventorize.services.auth;
+
+import edu.infnet.inventorize.entities.RevokedAccessToken;
+import edu.infnet.inventorize.repository.RevokedAccessTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registro dos tokens de acesso revogados antes da expiração.
+ * Os jti revogados ficam em um filtro de Bloom em memória: para quase todas as requisições a verificação
+ * termina no filtro, sem acesso ao banco; apenas um resultado positivo (revogado ou falso positivo)
+ * é confirmado na tabela. O filtro é reconstruído a partir do banco na inicialização e periodicamente,
+ * o que também descarta registros de tokens já expirados e incorpora revogações feitas por outras instâncias.
+ */
+@Component
+public class RevokedTokenRegistry {
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile BloomFilter filter;
+
+    public RevokedTokenRegistry(RevokedAccessTokenRepository revokedAccessTokenRepository,
+                                @Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+                                @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * Verifica se o token de acesso foi revogado.
+     *
+     * @param tokenId jti do token
+     * @return true se o token tiver sido revogado, false caso contrário
+     */
+    public boolean isRevoked(UUID tokenId) {
+        if (!filter.mightContain(tokenId)) return false;
+        return revokedAccessTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Revoga o token de acesso até a sua expiração.
+     *
+     * @param tokenId   jti do token
+     * @param expiresAt instante de expiração do token
+     */
+    public void revoke(UUID tokenId, Instant expiresAt) {
+        lock.lock();
+        try {
+            revokedAccessTokenRepository.save(RevokedAccessToken.builder()
+                    .tokenId(tokenId)
+                    .expiresAt(expiresAt)
+                    .build());
+            filter.put(tokenId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove do banco os tokens já expirados e reconstrói o filtro com os que ainda estão revogados.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:PT5M}", initialDelayString = "${jwt.revocation.rebuild-interval:PT5M}")
+    public void rebuild() {
+        lock.lock();
+        try {
+            Instant now = Instant.now();
+            revokedAccessTokenRepository.deleteExpired(now);
+            List<UUID> tokenIds = revokedAccessTokenRepository.findActiveTokenIds(now);
+
+            var rebuilt = new BloomFilter(Math.max(expectedInsertions, tokenIds.size() * 2), falsePositiveRate);
+            tokenIds.forEach(rebuilt::put);
+            filter = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Filtro de Bloom para UUIDs aleatórios. Como os bits do UUID já são uniformemente distribuídos,
+     * as posições são obtidas por hashing duplo diretamente das duas metades do identificador.
+     * Leituras concorrentes com escritas são seguras porque os bits ficam em um AtomicLongArray.
+     */
+    private static class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashFunctions;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (optimalBits + 63) / 64);
+
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void put(UUID id) {
+            long hash1 = id.getMostSignificantBits();
+            long hash2 = id.getLeastSignificantBits();
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitCount);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                bits.getAndUpdate(word, current -> current | mask);
+            }
+        }
+
+        boolean mightContain(UUID id) {
+            long hash1 = id.getMostSignificantBits();
+            long hash2 = id.getLeastSignificantBits();
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package edu.infnet.inventorize.services.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Calcula o digest SHA-256 de tokens, para que eles nunca sejam mantidos em memória ou gravados no banco em texto puro.
+ */
+final class TokenDigest {
+    private TokenDigest() {
+    }
+
+    /**
+     * @param token token a ser resumido
+     * @return digest SHA-256 do token em hexadecimal (64 caracteres)
+     */
+    static String sha256Hex(String token) {
+        try {
+            var messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+}
@@ -5,17 +5,52 @@ import edu.infnet.inventorize.repository.AuthUserRepository;
 import edu.infnet.inventorize.security.auth.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final AuthUserRepository userRepository;
+    private final PrincipalCache principalCache;
 
+    /**
+     * Carrega o usuário pelo email, consultando o banco apenas quando ele não estiver no cache.
+     *
+     * @param email email do usuário
+     * @return os detalhes do usuário
+     * @throws UsernameNotFoundException se nenhum usuário for encontrado com o email fornecido
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return principalCache.get(email, this::findByEmail);
+    }
+
+    /**
+     * Substitui o hash da senha do usuário. Chamado pelo Spring Security após um login bem-sucedido
+     * quando o custo do hash armazenado difere do custo configurado.
+     *
+     * @param user        usuário autenticado
+     * @param newPassword novo hash da senha
+     * @return o usuário com o hash atualizado
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AuthUser authUser = ((UserDetailsImpl) user).getAuthUser().toBuilder()
+                .hashPassword(newPassword)
+                .build();
+
+        AuthUser savedUser = userRepository.save(authUser);
+        principalCache.evict(savedUser.getEmail());
+
+        return UserDetailsImpl.builder()
+                .authUser(savedUser)
+                .build();
+    }
+
+    private UserDetailsImpl findByEmail(String email) {
         AuthUser authUser = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException(String.format("Usuário não encontrado com o [EMAIL: %s]: ", email)));
 
@@ -23,4 +58,4 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .authUser(authUser)
                 .build();
     }
-}
\ No newline at end of file
+}
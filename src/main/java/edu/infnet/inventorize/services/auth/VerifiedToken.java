@@ -0,0 +1,37 @@
+package edu.infnet.inventorize.services.auth;
+
+import edu.infnet.inventorize.enums.Role;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resultado imutável da verificação de um token JWT.
+ * Só é criado depois que a assinatura e a expiração do token foram validadas.
+ *
+ * @param tokenId   o identificador único (jti) do token, usado na revogação
+ * @param userId    o ID do usuário contido no token
+ * @param username  o username (email) contido no token
+ * @param roles     os papéis do usuário contidos no token
+ * @param issuedAt  instante de emissão do token
+ * @param expiresAt instante de expiração do token
+ */
+public record VerifiedToken(
+        UUID tokenId,
+        UUID userId,
+        String username,
+        Set<Role> roles,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+    /**
+     * Verifica se o token já expirou no instante informado.
+     *
+     * @param now instante de referência
+     * @return true se o token estiver expirado, false caso contrário
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
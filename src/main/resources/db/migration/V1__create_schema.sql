@@ -0,0 +1,81 @@
+-- Esquema inicial, equivalente ao modelo de entidades.
+-- Os comandos são idempotentes para que um banco criado manualmente antes das migrações possa ser adotado
+-- (spring.flyway.baseline-on-migrate): tabelas e índices existentes são mantidos e apenas o que falta é criado.
+
+create table if not exists auth_user (
+    id            uuid         not null,
+    email         varchar(255) not null,
+    hash_password char(60)     not null,
+    constraint pk_auth_user primary key (id),
+    constraint uk_auth_user_email unique (email)
+);
+
+create table if not exists auth_user_roles (
+    auth_user_id uuid         not null,
+    roles        varchar(255) check (roles in ('ROLE_ADMIN', 'ROLE_USER')),
+    constraint fk_auth_user_roles_auth_user foreign key (auth_user_id) references auth_user (id)
+);
+
+create table if not exists inventory (
+    id                 uuid         not null,
+    owner_id           uuid         not null,
+    name               varchar(50)  not null,
+    description        varchar(200),
+    notification_email varchar(255) not null,
+    constraint pk_inventory primary key (id),
+    constraint fk_inventory_owner foreign key (owner_id) references auth_user (id)
+);
+
+create table if not exists product (
+    id            uuid         not null,
+    owner_id      uuid         not null,
+    name          varchar(100) not null,
+    supplier_code varchar(100),
+    constraint pk_product primary key (id),
+    constraint fk_product_owner foreign key (owner_id) references auth_user (id)
+);
+
+create table if not exists item (
+    id                  uuid    not null,
+    product_id          uuid    not null,
+    inventory_id        uuid    not null,
+    current_quantity    integer not null,
+    minimum_stock_level integer not null,
+    low_stock           boolean not null,
+    constraint pk_item primary key (id),
+    constraint fk_item_product foreign key (product_id) references product (id),
+    constraint fk_item_inventory foreign key (inventory_id) references inventory (id)
+);
+
+-- Bancos anteriores à coluna low_stock: cria e preenche a coluna a partir das quantidades
+alter table item add column if not exists low_stock boolean not null default false;
+update item set low_stock = current_quantity <= minimum_stock_level where low_stock <> (current_quantity <= minimum_stock_level);
+
+create table if not exists refresh_token (
+    id         uuid                        not null,
+    token_hash char(64)                    not null,
+    family_id  uuid                        not null,
+    user_id    uuid                        not null,
+    expires_at timestamp(6) with time zone not null,
+    revoked    boolean                     not null,
+    constraint pk_refresh_token primary key (id),
+    constraint uk_refresh_token_token_hash unique (token_hash),
+    constraint fk_refresh_token_user foreign key (user_id) references auth_user (id)
+);
+
+create table if not exists revoked_access_token (
+    token_id   uuid                        not null,
+    expires_at timestamp(6) with time zone not null,
+    constraint pk_revoked_access_token primary key (token_id)
+);
+
+-- Chaves estrangeiras e filtros usados pelos repositórios.
+-- Os índices das listagens (idx_inventory_owner_id, idx_product_owner_id, idx_item_inventory_id e
+-- idx_item_low_stock_inventory_id) são criados na V2, já no formato final, sem bloquear as escritas.
+create index if not exists idx_auth_user_roles_auth_user_id on auth_user_roles (auth_user_id);
+create index if not exists idx_product_name_supplier_code on product (name, supplier_code);
+create index if not exists idx_item_product_id on item (product_id);
+create index if not exists idx_refresh_token_family_id on refresh_token (family_id);
+create index if not exists idx_refresh_token_user_id on refresh_token (user_id);
+create index if not exists idx_refresh_token_expires_at on refresh_token (expires_at);
+create index if not exists idx_revoked_access_token_expires_at on revoked_access_token (expires_at);
@@ -0,0 +1,30 @@
+-- Índices específicos do PostgreSQL para as consultas de listagem.
+-- As listagens leem apenas colunas do próprio índice (index-only scan), ordenadas pelo ID para a paginação por cursor,
+-- e os itens com estoque baixo ficam em um índice parcial, que contém só as linhas com low_stock = true.
+-- Os nomes são os mesmos dos índices declarados nas entidades, que no H2 continuam sendo criados pelo Hibernate.
+--
+-- Em um banco adotado (spring.flyway.baseline-on-migrate), índices com esses nomes já existem, criados pelo Hibernate
+-- com outras colunas. Para não bloquear as escritas durante a construção, cada índice é criado com CONCURRENTLY sob
+-- um nome temporário, o antigo é removido também com CONCURRENTLY e o novo recebe o nome final. Esses comandos não
+-- podem rodar dentro de uma transação (executeInTransaction=false em V2__tune_list_indexes.sql.conf). Um índice
+-- temporário deixado inválido por uma execução interrompida é descartado antes de ser construído de novo.
+
+drop index concurrently if exists idx_inventory_owner_id_v2;
+create index concurrently idx_inventory_owner_id_v2 on inventory (owner_id, id) include (name, description, notification_email);
+drop index concurrently if exists idx_inventory_owner_id;
+alter index idx_inventory_owner_id_v2 rename to idx_inventory_owner_id;
+
+drop index concurrently if exists idx_product_owner_id_v2;
+create index concurrently idx_product_owner_id_v2 on product (owner_id, id) include (name, supplier_code);
+drop index concurrently if exists idx_product_owner_id;
+alter index idx_product_owner_id_v2 rename to idx_product_owner_id;
+
+drop index concurrently if exists idx_item_inventory_id_v2;
+create index concurrently idx_item_inventory_id_v2 on item (inventory_id, id) include (product_id, current_quantity, minimum_stock_level);
+drop index concurrently if exists idx_item_inventory_id;
+alter index idx_item_inventory_id_v2 rename to idx_item_inventory_id;
+
+drop index concurrently if exists idx_item_low_stock_inventory_id_v2;
+create index concurrently idx_item_low_stock_inventory_id_v2 on item (inventory_id, id) where low_stock;
+drop index concurrently if exists idx_item_low_stock_inventory_id;
+alter index idx_item_low_stock_inventory_id_v2 rename to idx_item_low_stock_inventory_id;
@@ -0,0 +1,6 @@
+-- Coluna de versão para o controle de concorrência otimista (@Version) de inventários, produtos e itens.
+-- As linhas existentes começam na versão 0, o mesmo valor atribuído pelo Hibernate a novas entidades.
+
+alter table inventory add column if not exists version bigint not null default 0;
+alter table product add column if not exists version bigint not null default 0;
+alter table item add column if not exists version bigint not null default 0;
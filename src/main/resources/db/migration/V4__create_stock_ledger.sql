@@ -0,0 +1,31 @@
+-- Histórico de movimentações de estoque e snapshots consolidados das quantidades.
+-- As movimentações referenciam o item e o usuário apenas pelos IDs, sem chave estrangeira, para continuarem existindo
+-- como histórico depois que o item é removido.
+
+create table if not exists stock_movement (
+    id           uuid                        not null,
+    item_id      uuid                        not null,
+    item_version bigint                      not null,
+    delta        integer                     not null,
+    reason       varchar(20)                 not null check (reason in ('CREATION', 'IMPORT', 'ADJUSTMENT', 'BATCH_ADJUSTMENT', 'UPDATE')),
+    actor_id     uuid,
+    created_at   timestamp(6) with time zone not null,
+    constraint pk_stock_movement primary key (id)
+);
+
+create index if not exists idx_stock_movement_item_id on stock_movement (item_id, id);
+create index if not exists idx_stock_movement_item_version on stock_movement (item_id, item_version) include (delta);
+
+create table if not exists stock_snapshot (
+    item_id      uuid                        not null,
+    quantity     integer                     not null,
+    item_version bigint                      not null,
+    taken_at     timestamp(6) with time zone not null,
+    constraint pk_stock_snapshot primary key (item_id)
+);
+
+-- Os itens existentes não têm histórico: a quantidade atual de cada um passa a ser o seu primeiro snapshot
+insert into stock_snapshot (item_id, quantity, item_version, taken_at)
+select id, current_quantity, version, now()
+from item
+on conflict (item_id) do nothing;
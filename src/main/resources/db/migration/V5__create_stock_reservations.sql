@@ -0,0 +1,24 @@
+-- Reservas de estoque por tempo limitado. A soma das reservas em aberto de cada item fica em item.reserved_quantity,
+-- para que a quantidade disponível seja lida da própria linha do item, sem somar as reservas.
+
+alter table item add column if not exists reserved_quantity integer not null default 0;
+alter table item drop constraint if exists ck_item_reserved_quantity;
+alter table item add constraint ck_item_reserved_quantity check (reserved_quantity >= 0 and reserved_quantity <= current_quantity);
+
+create table if not exists stock_reservation (
+    id         uuid                        not null,
+    item_id    uuid                        not null,
+    owner_id   uuid                        not null,
+    quantity   integer                     not null check (quantity > 0),
+    expires_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    constraint pk_stock_reservation primary key (id)
+);
+
+create index if not exists idx_stock_reservation_expires_at on stock_reservation (expires_at);
+create index if not exists idx_stock_reservation_item_id on stock_reservation (item_id);
+
+-- A confirmação de uma reserva entra no histórico com a sua própria origem
+alter table stock_movement drop constraint if exists stock_movement_reason_check;
+alter table stock_movement add constraint stock_movement_reason_check
+    check (reason in ('CREATION', 'IMPORT', 'ADJUSTMENT', 'BATCH_ADJUSTMENT', 'UPDATE', 'RESERVATION'));
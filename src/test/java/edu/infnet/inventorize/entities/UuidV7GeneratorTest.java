@@ -0,0 +1,65 @@
+package edu.infnet.inventorize.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7GeneratorTest {
+    @Test
+    public void shouldGenerateVersion7WithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.nextId();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version(), "O UUID deve ser da versão 7");
+        assertEquals(2, id.variant(), "O UUID deve usar a variante da RFC 9562");
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1, "Os 48 bits iniciais devem conter o instante da geração");
+    }
+
+    @Test
+    public void shouldGenerateStrictlyIncreasingIds() {
+        List<UUID> ids = IntStream.range(0, 100_000).mapToObj(i -> UuidV7Generator.nextId()).toList();
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0,
+                    "Cada ID deve ser maior que o anterior, inclusive no mesmo milissegundo");
+        }
+    }
+
+    @Test
+    public void shouldKeepIncreasingWhenClockGoesBackwards() {
+        long now = System.currentTimeMillis();
+
+        long first = UuidV7Generator.nextState(now);
+        long second = UuidV7Generator.nextState(now - 10_000);
+
+        assertTrue(second > first, "Um atraso do relógio não deve gerar IDs menores");
+    }
+
+    @Test
+    public void shouldGenerateUniqueIdsConcurrently() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(UuidV7Generator.nextId()));
+
+        assertEquals(200_000, ids.size(), "IDs gerados em paralelo não devem se repetir");
+    }
+
+    // Métodos auxiliares -----------------------
+
+    /**
+     * Compara como os bancos de dados comparam UUIDs: byte a byte, sem sinal.
+     */
+    private int compareUnsigned(UUID a, UUID b) {
+        int most = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return most != 0 ? most : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
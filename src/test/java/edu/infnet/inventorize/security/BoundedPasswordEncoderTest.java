@@ -0,0 +1,94 @@
+package edu.infnet.inventorize.security;
+
+import edu.infnet.inventorize.exceptions.custom.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    public void tearDown() {
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    public void shouldEncodeAndMatchThroughDedicatedPool() {
+        passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 4, Duration.ofSeconds(5), meterRegistry);
+
+        var hash = passwordEncoder.encode("SenhaSegura!123");
+
+        assertTrue(passwordEncoder.matches("SenhaSegura!123", hash), "A senha correta deve corresponder ao hash gerado");
+        assertFalse(passwordEncoder.matches("SenhaErrada", hash), "Uma senha diferente não deve corresponder ao hash");
+        assertEquals(1, meterRegistry.get("auth.hashing.duration").tag("operation", "encode").timer().count(),
+                "A latência do hash deve ser registrada");
+        assertEquals(2, meterRegistry.get("auth.hashing.duration").tag("operation", "matches").timer().count(),
+                "A latência da verificação deve ser registrada");
+    }
+
+    @Test
+    public void shouldRejectWhenQueueIsFull() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        var running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("primeira"));
+        assertTrue(started.await(5, TimeUnit.SECONDS), "A primeira operação deve ocupar a única thread do pool");
+        var queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("segunda"));
+        while (meterRegistry.get("auth.hashing.queue.size").gauge().value() < 1) Thread.onSpinWait();
+
+        var exception = assertThrows(ServiceOverloadedException.class, () -> passwordEncoder.encode("terceira"),
+                "Deve recusar imediatamente quando a fila estiver cheia");
+
+        release.countDown();
+        assertEquals("primeira", running.get(5, TimeUnit.SECONDS), "As operações aceitas devem ser concluídas");
+        assertEquals("segunda", queued.get(5, TimeUnit.SECONDS), "As operações enfileiradas devem ser concluídas");
+        assertEquals(5, exception.getRetryAfterSeconds(), "O tempo de nova tentativa deve acompanhar o tempo limite");
+        assertEquals(1.0, meterRegistry.get("auth.hashing.rejected").counter().count(), "A recusa deve ser registrada");
+    }
+
+    @Test
+    public void shouldRejectWhenResultIsNotReadyInTime() {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertThrows(ServiceOverloadedException.class, () -> passwordEncoder.encode("lenta"),
+                "Deve desistir quando o hash não ficar pronto dentro do tempo limite");
+
+        release.countDown();
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+}
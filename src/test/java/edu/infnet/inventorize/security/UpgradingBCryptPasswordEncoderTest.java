@@ -0,0 +1,38 @@
+package edu.infnet.inventorize.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpgradingBCryptPasswordEncoderTest {
+    private final UpgradingBCryptPasswordEncoder passwordEncoder = new UpgradingBCryptPasswordEncoder(5);
+
+    @Test
+    public void shouldNotUpgradeHashWithConfiguredCost() {
+        var hash = passwordEncoder.encode("SenhaSegura!123");
+
+        assertFalse(passwordEncoder.upgradeEncoding(hash), "Hashes com o custo configurado não devem ser recalculados");
+    }
+
+    @Test
+    public void shouldUpgradeHashWithLowerCost() {
+        var hash = new BCryptPasswordEncoder(4).encode("SenhaSegura!123");
+
+        assertTrue(passwordEncoder.upgradeEncoding(hash), "Hashes com custo menor devem ser recalculados");
+        assertTrue(passwordEncoder.matches("SenhaSegura!123", hash), "Hashes com outro custo devem continuar válidos");
+    }
+
+    @Test
+    public void shouldUpgradeHashWithHigherCost() {
+        var hash = new BCryptPasswordEncoder(6).encode("SenhaSegura!123");
+
+        assertTrue(passwordEncoder.upgradeEncoding(hash), "Hashes com custo maior também devem ser recalculados");
+    }
+
+    @Test
+    public void shouldNotUpgradeInvalidHash() {
+        assertFalse(passwordEncoder.upgradeEncoding(null), "Um hash nulo não deve ser recalculado");
+        assertFalse(passwordEncoder.upgradeEncoding("texto-qualquer"), "Um valor que não é BCrypt não deve ser recalculado");
+    }
+}
@@ -0,0 +1,136 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.dto.response.ItemResponseDTO;
+import edu.infnet.inventorize.exceptions.custom.InsufficientStockException;
+import edu.infnet.inventorize.exceptions.custom.InventoryItemNotFound;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdjustmentCombinerTest {
+    private static final UUID ITEM_ID = UUID.fromString("271baaee-3228-411e-aedd-c1ca58e68cb6");
+    private static final UUID OWNER_ID = UUID.fromString("4931241e-a79e-44f0-83fd-af904e933f29");
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldWriteConcurrentAdjustmentsAsOneGroup() throws Exception {
+        var combiner = new AdjustmentCombiner(TransactionOperations.withoutTransaction(), Duration.ofMillis(300), 256);
+        var groups = new CopyOnWriteArrayList<List<Integer>>();
+        AdjustmentCombiner.GroupWriter writer = adjustments -> {
+            groups.add(adjustments);
+            return adjustments.stream()
+                    .map(adjustment -> adjustment < 0
+                            ? AdjustmentCombiner.Outcome.rejected(new InsufficientStockException("Sem estoque"))
+                            : AdjustmentCombiner.Outcome.applied(itemWithQuantity(adjustment)))
+                    .toList();
+        };
+
+        var results = submitAll(combiner, writer, List.of(1, 2, 3, -4, 5, 6, 7, 8));
+        awaitAll(results);
+
+        assertEquals(1, groups.size(), "Os ajustes simultâneos devem ser gravados em um único grupo");
+        assertEquals(8, groups.get(0).size(), "O grupo deve conter todos os ajustes");
+        for (int i = 0; i < results.size(); i++) {
+            int adjustment = i + 1;
+            if (adjustment == 4) {
+                var exception = assertThrows(ExecutionException.class, results.get(i)::get);
+                assertInstanceOf(InsufficientStockException.class, exception.getCause(), "O ajuste rejeitado deve receber o seu próprio erro");
+            } else {
+                assertEquals(adjustment, results.get(i).get().currentQuantity(), "Cada chamador deve receber o seu próprio resultado");
+            }
+        }
+    }
+
+    @Test
+    public void shouldFailEveryAdjustmentOfTheGroupWhenTheWriteFails() throws Exception {
+        var combiner = new AdjustmentCombiner(TransactionOperations.withoutTransaction(), Duration.ofMillis(300), 256);
+        AdjustmentCombiner.GroupWriter writer = adjustments -> {
+            throw new InventoryItemNotFound("Item de inventário com o [ ID: %s ] não encontrado".formatted(ITEM_ID));
+        };
+
+        var results = submitAll(combiner, writer, List.of(1, 2, 3));
+
+        for (var result : results) {
+            var exception = assertThrows(ExecutionException.class, result::get);
+            assertInstanceOf(InventoryItemNotFound.class, exception.getCause(), "A falha do grupo deve chegar a todos os chamadores");
+        }
+    }
+
+    @Test
+    public void shouldStartNewGroupWhenTheCurrentOneIsFull() throws Exception {
+        var combiner = new AdjustmentCombiner(TransactionOperations.withoutTransaction(), Duration.ofMillis(300), 2);
+        var groups = new CopyOnWriteArrayList<List<Integer>>();
+        AdjustmentCombiner.GroupWriter writer = adjustments -> {
+            groups.add(adjustments);
+            return adjustments.stream().map(adjustment -> AdjustmentCombiner.Outcome.applied(itemWithQuantity(adjustment))).toList();
+        };
+
+        awaitAll(submitAll(combiner, writer, List.of(1, 2, 3, 4, 5)));
+
+        assertEquals(3, groups.size(), "Nenhum grupo deve passar do tamanho máximo");
+        assertTrue(groups.stream().allMatch(group -> group.size() <= 2), "Nenhum grupo deve passar do tamanho máximo");
+    }
+
+    @Test
+    public void shouldRunSingleAdjustmentInTheCallerThread() {
+        var combiner = new AdjustmentCombiner(TransactionOperations.withoutTransaction(), Duration.ZERO, 256);
+        var callerThread = Thread.currentThread();
+
+        var result = combiner.submit(ITEM_ID, OWNER_ID, 5, adjustments -> {
+            assertSame(callerThread, Thread.currentThread(), "O grupo deve ser gravado pela thread de quem o abriu");
+            return List.of(AdjustmentCombiner.Outcome.applied(itemWithQuantity(15)));
+        });
+
+        assertEquals(15, result.currentQuantity());
+        assertThrows(InsufficientStockException.class, () -> combiner.submit(ITEM_ID, OWNER_ID, -20, adjustments -> {
+            throw new InsufficientStockException("Sem estoque");
+        }), "O erro deve ser lançado ao chamador sem ser encapsulado");
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private List<Future<ItemResponseDTO>> submitAll(AdjustmentCombiner combiner, AdjustmentCombiner.GroupWriter writer,
+                                                    List<Integer> adjustments) throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var results = new ArrayList<Future<ItemResponseDTO>>();
+        for (int adjustment : adjustments) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return combiner.submit(ITEM_ID, OWNER_ID, adjustment, writer);
+            }));
+        }
+        start.countDown();
+
+        return results;
+    }
+
+    private void awaitAll(List<Future<ItemResponseDTO>> results) throws InterruptedException {
+        for (var result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException ignored) {
+                // os erros de cada ajuste são conferidos pelo próprio teste
+            } catch (TimeoutException e) {
+                fail("Todos os ajustes devem ser concluídos");
+            }
+        }
+    }
+
+    private ItemResponseDTO itemWithQuantity(int quantity) {
+        return new ItemResponseDTO(ITEM_ID, UUID.randomUUID(), UUID.randomUUID(), quantity, 5, 1L);
+    }
+}
@@ -0,0 +1,66 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.exceptions.custom.TooManyRequestsException;
+import edu.infnet.inventorize.services.auth.AuthenticationRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthenticationRateLimiterTest {
+    private static final String ADDRESS = "203.0.113.10";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void shouldRejectAttemptsAboveAccountCapacity() {
+        var rateLimiter = rateLimiter(true, 2, 100);
+
+        rateLimiter.check("user@email.com", ADDRESS);
+        rateLimiter.check("USER@email.com", ADDRESS);
+
+        var exception = assertThrows(TooManyRequestsException.class, () -> rateLimiter.check("user@email.com", ADDRESS),
+                "Deve recusar tentativas acima do limite da conta, independente de maiúsculas no email");
+
+        assertTrue(exception.getRetryAfterSeconds() >= 1, "Deve informar quando tentar novamente");
+        assertEquals(1.0, meterRegistry.get("auth.throttled").tag("dimension", "account").counter().count(),
+                "A recusa deve ser contada na dimensão da conta");
+        assertDoesNotThrow(() -> rateLimiter.check("outro@email.com", ADDRESS), "Outras contas não devem ser afetadas");
+    }
+
+    @Test
+    public void shouldRejectAttemptsAboveAddressCapacity() {
+        var rateLimiter = rateLimiter(true, 100, 3);
+
+        rateLimiter.check("a@email.com", ADDRESS);
+        rateLimiter.check("b@email.com", ADDRESS);
+        rateLimiter.check("c@email.com", ADDRESS);
+
+        assertThrows(TooManyRequestsException.class, () -> rateLimiter.check("d@email.com", ADDRESS),
+                "Deve recusar tentativas acima do limite do endereço, mesmo alternando contas");
+        assertEquals(1.0, meterRegistry.get("auth.throttled").tag("dimension", "ip").counter().count(),
+                "A recusa deve ser contada na dimensão do endereço");
+        assertDoesNotThrow(() -> rateLimiter.check("d@email.com", "203.0.113.11"), "Outros endereços não devem ser afetados");
+    }
+
+    @Test
+    public void shouldNotLimitWhenDisabled() {
+        var rateLimiter = rateLimiter(false, 1, 1);
+
+        for (int i = 0; i < 10; i++) rateLimiter.check("user@email.com", ADDRESS);
+
+        assertEquals(0.0, meterRegistry.get("auth.throttled").tag("dimension", "account").counter().count(),
+                "Nenhuma tentativa deve ser recusada com o limitador desativado");
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private AuthenticationRateLimiter rateLimiter(boolean enabled, int accountCapacity, int addressCapacity) {
+        return new AuthenticationRateLimiter(enabled,
+                accountCapacity, Duration.ofHours(1),
+                addressCapacity, Duration.ofHours(1),
+                Duration.ofMinutes(15), 1000, meterRegistry);
+    }
+}
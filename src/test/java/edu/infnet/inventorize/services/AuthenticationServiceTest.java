@@ -9,20 +9,26 @@ import edu.infnet.inventorize.exceptions.custom.UserNotAuthenticatedException;
 import edu.infnet.inventorize.repository.AuthUserRepository;
 import edu.infnet.inventorize.security.auth.UserDetailsImpl;
 import edu.infnet.inventorize.services.auth.JwtService;
+import edu.infnet.inventorize.services.auth.PrincipalCache;
+import edu.infnet.inventorize.services.auth.RefreshTokenService;
+import edu.infnet.inventorize.services.auth.RevokedTokenRegistry;
+import edu.infnet.inventorize.services.auth.VerifiedToken;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -47,6 +53,18 @@ public class AuthenticationServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Spy
+    private OwnershipMemo ownershipMemo = new OwnershipMemo();
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -87,7 +105,8 @@ public class AuthenticationServiceTest {
         verify(userRepository).existsByEmail(authenticationRequestDTO.email());
         verify(passwordEncoder).encode(authenticationRequestDTO.password());
         verify(userRepository).save(any(AuthUser.class));
-        verifyNoMoreInteractions(userRepository, passwordEncoder);
+        verify(principalCache).evict(mockedUser.getEmail());
+        verifyNoMoreInteractions(userRepository, passwordEncoder, principalCache);
     }
 
     @Test
@@ -116,11 +135,13 @@ public class AuthenticationServiceTest {
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(userDetails);
-        when(tokenService.generateToken(any(UserDetails.class))).thenReturn(jwtToken);
+        when(tokenService.generateToken(any(UserDetailsImpl.class))).thenReturn(jwtToken);
+        when(refreshTokenService.issue(mockedUser)).thenReturn("refresh-token");
 
         var authenticationResponseDTO = authenticationService.authenticate(authenticationRequestDTO);
 
         assertEquals(jwtToken, authenticationResponseDTO.token(), "O token retornado deve ser igual ao esperado");
+        assertEquals("refresh-token", authenticationResponseDTO.refreshToken(), "O refresh token emitido deve ser retornado");
         assertEquals(authenticationRequestDTO.email(), authenticationResponseDTO.email(), "O email retornado deve corresponder ao da requisição");
         assertEquals(mockedUser.getId(), authenticationResponseDTO.userId(), "O ID do usuário retornado deve ser igual ao esperado");
     }
@@ -138,14 +159,16 @@ public class AuthenticationServiceTest {
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(userDetails);
-        when(tokenService.generateToken(any(UserDetails.class))).thenReturn(jwtToken);
+        when(tokenService.generateToken(any(UserDetailsImpl.class))).thenReturn(jwtToken);
+        when(refreshTokenService.issue(mockedUser)).thenReturn("refresh-token");
 
         authenticationService.authenticate(authenticationRequestDTO);
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(authentication).getPrincipal();
-        verify(tokenService).generateToken(any(UserDetails.class));
-        verifyNoMoreInteractions(authenticationManager, tokenService);
+        verify(tokenService).generateToken(any(UserDetailsImpl.class));
+        verify(refreshTokenService).issue(mockedUser);
+        verifyNoMoreInteractions(authenticationManager, tokenService, refreshTokenService);
     }
 
     @Test
@@ -187,6 +210,40 @@ public class AuthenticationServiceTest {
                 "Deve lançar UsernameNotFoundException quando nenhum usuário for encontrado com o email fornecido");
     }
 
+    @Test
+    public void shouldRotateRefreshTokenAndIssueNewAccessToken() {
+        var mockedUser = mockedAuthUser("test@email.com");
+
+        when(refreshTokenService.rotate("refresh-antigo")).thenReturn(new RefreshTokenService.RotatedRefreshToken(mockedUser, "refresh-novo"));
+        when(tokenService.generateToken(any(UserDetailsImpl.class))).thenReturn("access-novo");
+
+        var authenticationResponseDTO = authenticationService.refresh("refresh-antigo");
+
+        assertEquals("access-novo", authenticationResponseDTO.token(), "Um novo token de acesso deve ser emitido");
+        assertEquals("refresh-novo", authenticationResponseDTO.refreshToken(), "O novo refresh token deve ser retornado");
+        assertEquals(mockedUser.getId(), authenticationResponseDTO.userId(), "O ID do usuário retornado deve ser o dono do refresh token");
+    }
+
+    @Test
+    public void shouldRevokeRefreshTokenAndCurrentAccessTokenOnLogout() {
+        var mockedUser = mockedAuthUser("test@email.com");
+        var userDetails = UserDetailsImpl.builder()
+                .authUser(mockedUser)
+                .build();
+        var accessToken = new VerifiedToken(UUID.randomUUID(), mockedUser.getId(), mockedUser.getEmail(),
+                mockedUser.getRoles(), Instant.now(), Instant.now().plusSeconds(900));
+        var authentication = mock(Authentication.class);
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(authentication.getDetails()).thenReturn(accessToken);
+
+        authenticationService.logout("refresh-token");
+
+        verify(refreshTokenService).revoke("refresh-token", mockedUser.getId());
+        verify(revokedTokenRegistry).revoke(accessToken.tokenId(), accessToken.expiresAt());
+    }
+
     // Métodos auxiliares -----------------------
 
     private AuthenticationRequestDTO mockedAuthenticationRequest() {
@@ -0,0 +1,118 @@
+package edu.infnet.inventorize.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.infnet.inventorize.dto.response.ItemResponseDTO;
+import edu.infnet.inventorize.dto.response.ProductResponseDTO;
+import edu.infnet.inventorize.entities.AuthUser;
+import edu.infnet.inventorize.enums.ExportFormat;
+import edu.infnet.inventorize.enums.Role;
+import edu.infnet.inventorize.repository.ItemRepository;
+import edu.infnet.inventorize.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExportService exportService;
+
+    @BeforeEach
+    public void setUp() {
+        exportService = new ExportService(itemRepository, productRepository, authenticationService, objectMapper, transactionManager);
+    }
+
+    @Test
+    public void shouldExportItemsAsNdjson() throws Exception {
+        var user = createAuthUser();
+        var items = createItems();
+        var closed = new AtomicBoolean();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.streamByOwnerId(user.getId())).thenReturn(Stream.of(items).onClose(() -> closed.set(true)));
+
+        var output = new ByteArrayOutputStream();
+        exportService.exportItems(ExportFormat.NDJSON).writeTo(output);
+
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(items.length, lines.length, "Cada item deve ser escrito em uma linha");
+        for (int i = 0; i < items.length; i++) {
+            assertEquals(items[i], objectMapper.readValue(lines[i], ItemResponseDTO.class), "A linha deve conter o item na mesma posição");
+        }
+        assertTrue(closed.get(), "O stream da consulta deve ser fechado ao fim da exportação");
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void shouldExportProductsAsCsvEscapingValues() throws Exception {
+        var user = createAuthUser();
+        var product = new ProductResponseDTO(UUID.randomUUID(), user.getId(), "Pincel \"Chato\", 12mm", null);
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.streamByOwnerId(user.getId())).thenReturn(Stream.of(product));
+
+        var output = new ByteArrayOutputStream();
+        exportService.exportProducts(ExportFormat.CSV).writeTo(output);
+
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("productId,ownerId,name,supplierCode", lines[0], "A primeira linha deve ser o cabeçalho");
+        assertEquals(product.productId() + "," + user.getId() + ",\"Pincel \"\"Chato\"\", 12mm\",", lines[1],
+                "Valores com vírgula ou aspas devem ser escapados e valores nulos devem ficar vazios");
+    }
+
+    @Test
+    public void shouldResolveUserBeforeStreaming() {
+        var user = createAuthUser();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+
+        exportService.exportItems(ExportFormat.NDJSON);
+
+        verify(authenticationService).getAuthenticatedUser();
+        verifyNoInteractions(itemRepository, transactionManager);
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private AuthUser createAuthUser() {
+        return AuthUser.builder()
+                .id(UUID.fromString("7b1d6c9e-3f54-4a8e-9d1b-2c6f0a4e8b31"))
+                .email("usuario@email.com")
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+    }
+
+    private ItemResponseDTO[] createItems() {
+        var inventoryId = UUID.randomUUID();
+        return new ItemResponseDTO[]{
+                new ItemResponseDTO(UUID.randomUUID(), UUID.randomUUID(), inventoryId, 10, 2),
+                new ItemResponseDTO(UUID.randomUUID(), UUID.randomUUID(), inventoryId, 0, 5)
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.entities.AuthUser;
+import edu.infnet.inventorize.enums.Role;
+import edu.infnet.inventorize.exceptions.custom.InsufficientStockException;
+import edu.infnet.inventorize.exceptions.custom.InvalidIdempotencyKeyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyStoreTest {
+    private static final String KEY = "2f1c7d4e-checkout-42";
+    private static final UUID ITEM_ID = UUID.fromString("271baaee-3228-411e-aedd-c1ca58e68cb6");
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    public void setUp() {
+        idempotencyStore = new IdempotencyStore(authenticationService, Duration.ofHours(24), 1000, Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldReturnStoredResponseWhenRequestIsRetried() {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createUser());
+        var executions = new AtomicInteger();
+
+        var first = idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions));
+        var retry = idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions));
+
+        assertEquals(1, executions.get(), "A repetição não deve executar o ajuste novamente");
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody(), "A repetição deve receber a resposta original");
+        assertEquals("\"7\"", retry.getHeaders().getETag(), "Os cabeçalhos da resposta original devem ser mantidos");
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER), "A primeira execução não é uma repetição");
+    }
+
+    @Test
+    public void shouldRejectKeyReusedWithDifferentRequest() {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createUser());
+        var executions = new AtomicInteger();
+
+        idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions));
+
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -5), () -> adjust(executions)));
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> idempotencyStore.execute(KEY, "POST /items/adjustments", List.of(ITEM_ID, -3), () -> adjust(executions)));
+        assertEquals(1, executions.get(), "Uma requisição diferente com a mesma chave não deve ser executada");
+    }
+
+    @Test
+    public void shouldExecuteAgainWhenFirstExecutionFailed() {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createUser());
+        var executions = new AtomicInteger();
+
+        assertThrows(InsufficientStockException.class, () -> idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> {
+            executions.incrementAndGet();
+            throw new InsufficientStockException("Sem estoque");
+        }));
+        var retry = idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions));
+
+        assertEquals(2, executions.get(), "Uma falha não deve ser guardada");
+        assertNull(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    public void shouldMakeConcurrentDuplicateWaitForFirstExecution() throws Exception {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createUser());
+        var executions = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var first = executor.submit(() -> idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> {
+            started.countDown();
+            await(release);
+            return adjust(executions);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        var duplicate = executor.submit(() -> idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions)));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone(), "A requisição simultânea deve aguardar a primeira terminar");
+        release.countDown();
+
+        var retry = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(1, executions.get(), "A requisição simultânea não deve executar de novo");
+        assertEquals(first.get(5, TimeUnit.SECONDS).getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    public void shouldSeparateKeysByUser() {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createUser(), createUser());
+        var executions = new AtomicInteger();
+
+        idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions));
+        var otherUser = idempotencyStore.execute(KEY, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions));
+
+        assertEquals(2, executions.get(), "A mesma chave de outro usuário é outra requisição");
+        assertNull(otherUser.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    public void shouldExecuteEveryTimeWithoutKey() {
+        var executions = new AtomicInteger();
+
+        idempotencyStore.execute(null, "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions));
+        idempotencyStore.execute(" ", "PATCH /items/{id}/adjust", List.of(ITEM_ID, -3), () -> adjust(executions));
+
+        assertEquals(2, executions.get());
+        verifyNoInteractions(authenticationService);
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private ResponseEntity<String> adjust(AtomicInteger executions) {
+        return ResponseEntity.ok()
+                .eTag("\"7\"")
+                .body("ajuste " + executions.incrementAndGet());
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private AuthUser createUser() {
+        return AuthUser.builder()
+                .id(UUID.randomUUID())
+                .email("teste@teste.com")
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+    }
+}
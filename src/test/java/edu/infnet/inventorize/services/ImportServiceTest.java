@@ -0,0 +1,175 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.dto.request.item.ItemDTO;
+import edu.infnet.inventorize.dto.request.product.ProductDTO;
+import edu.infnet.inventorize.dto.response.ImportReportResponseDTO.RowError;
+import edu.infnet.inventorize.dto.response.ProductResponseDTO;
+import edu.infnet.inventorize.entities.AuthUser;
+import edu.infnet.inventorize.enums.Role;
+import edu.infnet.inventorize.exceptions.custom.InvalidImportFileException;
+import edu.infnet.inventorize.repository.InventoryRepository;
+import edu.infnet.inventorize.repository.ProductRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportServiceTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Captor
+    private ArgumentCaptor<Collection<ProductDTO>> productsCaptor;
+
+    @Captor
+    private ArgumentCaptor<Collection<ItemDTO>> itemsCaptor;
+
+    private ImportService importService;
+
+    @BeforeEach
+    public void setUp() {
+        var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        importService = new ImportService(productRepository, inventoryRepository, authenticationService, jdbcTemplate, validator);
+    }
+
+    @Test
+    public void shouldImportProductsRejectingInvalidAndDuplicatedRows() {
+        var user = createAuthUser();
+        var csv = """
+                name,supplierCode
+                Massa de Biscuit Branca Premium,MBP-2024
+                "Pincel Chato, 12mm",PS-12
+                ,SEM-NOME
+                Massa de Biscuit Branca Premium,MBP-2024
+                Tinta Acrílica Ouro 120ml,TAO-24G
+
+                Linha com colunas a mais,COD,EXTRA
+                """;
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.findResponsesByNameIn(anyCollection())).thenReturn(List.of(
+                new ProductResponseDTO(UUID.randomUUID(), UUID.randomUUID(), "Tinta Acrílica Ouro 120ml", "TAO-24G")
+        ));
+
+        var report = importService.importProducts(createFile(csv));
+
+        verify(productRepository, times(1)).findResponsesByNameIn(anyCollection());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO product"), productsCaptor.capture(), anyInt(), any());
+        assertEquals(List.of(
+                new ProductDTO("Massa de Biscuit Branca Premium", "MBP-2024"),
+                new ProductDTO("Pincel Chato, 12mm", "PS-12")
+        ), List.copyOf(productsCaptor.getValue()), "Apenas as linhas válidas e novas devem ser inseridas, com valores entre aspas preservados");
+
+        assertEquals(6, report.processedRows(), "O cabeçalho e as linhas em branco não devem ser contados");
+        assertEquals(2, report.importedRows());
+        assertEquals(4, report.rejectedRows());
+        assertEquals(List.of(4L, 5L, 6L, 8L), report.errors().stream().map(RowError::line).toList(), "Os erros devem informar as linhas rejeitadas em ordem");
+        assertEquals("O nome do produto é obrigatório", report.errors().get(0).message());
+        assertEquals("Produto repetido em uma linha anterior do arquivo", report.errors().get(1).message());
+        assertTrue(report.errors().get(2).message().startsWith("Já existe um produto cadastrado"), "Produtos já cadastrados devem ser rejeitados");
+    }
+
+    @Test
+    public void shouldQueryAndInsertProductsOncePerChunk() {
+        var user = createAuthUser();
+        var csv = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            csv.append("Produto ").append(i).append(",COD-").append(i).append('\n');
+        }
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.findResponsesByNameIn(anyCollection())).thenReturn(List.of());
+
+        var report = importService.importProducts(createFile(csv.toString()));
+
+        verify(productRepository, times(3)).findResponsesByNameIn(anyCollection());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), productsCaptor.capture(), anyInt(), any());
+        assertEquals(List.of(1000, 1000, 500), productsCaptor.getAllValues().stream().map(Collection::size).toList(),
+                "O arquivo deve ser processado em lotes de tamanho fixo");
+        assertEquals(2500, report.importedRows());
+        assertEquals(0, report.rejectedRows());
+    }
+
+    @Test
+    public void shouldImportOnlyItemsOwnedByUser() {
+        var user = createAuthUser();
+        var productId = UUID.randomUUID();
+        var inventoryId = UUID.randomUUID();
+        var otherProductId = UUID.randomUUID();
+        var csv = String.join("\n",
+                productId + "," + inventoryId + ",10,5",
+                otherProductId + "," + inventoryId + ",10,5",
+                "id-invalido," + inventoryId + ",10,5",
+                productId + "," + inventoryId + ",-1,5",
+                productId + "," + inventoryId + ",2,5");
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.findOwnedIds(eq(user.getId()), anyCollection())).thenReturn(List.of(productId));
+        when(inventoryRepository.findOwnedIds(eq(user.getId()), anyCollection())).thenReturn(List.of(inventoryId));
+
+        var report = importService.importItems(createFile(csv));
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO item"), itemsCaptor.capture(), anyInt(), any());
+        assertEquals(List.of(
+                new ItemDTO(productId, inventoryId, 10, 5),
+                new ItemDTO(productId, inventoryId, 2, 5)
+        ), List.copyOf(itemsCaptor.getValue()));
+
+        assertEquals(5, report.processedRows());
+        assertEquals(2, report.importedRows());
+        assertEquals(List.of(
+                new RowError(2, String.format("Produto com o [ ID: %s ] não encontrado ou não pertence ao usuário", otherProductId)),
+                new RowError(3, "O id do produto é inválido"),
+                new RowError(4, "A quantidade atual do item deve ser zero ou positiva")
+        ), report.errors());
+    }
+
+    @Test
+    public void shouldRejectEmptyFile() {
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+
+        assertThrows(InvalidImportFileException.class, () -> importService.importItems(createFile("")));
+
+        verifyNoInteractions(productRepository, inventoryRepository, jdbcTemplate);
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private AuthUser createAuthUser() {
+        return AuthUser.builder()
+                .id(UUID.fromString("7b1d6c9e-3f54-4a8e-9d1b-2c6f0a4e8b31"))
+                .email("usuario@email.com")
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+    }
+
+    private MockMultipartFile createFile(String content) {
+        return new MockMultipartFile("file", "import.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,22 +3,29 @@ package edu.infnet.inventorize.services;
 import edu.infnet.inventorize.dto.request.inventory.InventoryDTO;
 import edu.infnet.inventorize.dto.request.inventory.PatchInventoryDTO;
 import edu.infnet.inventorize.dto.request.inventory.UpdateInventoryDTO;
+import edu.infnet.inventorize.dto.response.InventoryResponseDTO;
 import edu.infnet.inventorize.entities.AuthUser;
 import edu.infnet.inventorize.entities.Inventory;
 import edu.infnet.inventorize.enums.Role;
 import edu.infnet.inventorize.exceptions.custom.InventoryNotFoundException;
 import edu.infnet.inventorize.exceptions.custom.UnauthorizedRequestException;
 import edu.infnet.inventorize.repository.InventoryRepository;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -31,6 +38,12 @@ public class InventoryServiceTest {
     @Mock
     private AuthenticationService authenticationService;
 
+    @Spy
+    private OwnershipMemo ownershipMemo = new OwnershipMemo();
+
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry(TransactionOperations.withoutTransaction(), 3, Duration.ZERO);
+
     @InjectMocks
     private InventoryService inventoryService;
 
@@ -122,8 +135,8 @@ public class InventoryServiceTest {
         var inventory = getValidInventory();
         var user = getValidUser();
 
-        when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(inventoryRepository.findOwnedResponseById(inventory.getId(), user.getId())).thenReturn(Optional.of(InventoryResponseDTO.from(inventory)));
 
         var responseDTO = inventoryService.getById(inventory.getId());
 
@@ -139,47 +152,76 @@ public class InventoryServiceTest {
         var inventory = getValidInventory();
         var user = getValidUser();
 
-        when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(inventoryRepository.findOwnedResponseById(inventory.getId(), user.getId())).thenReturn(Optional.of(InventoryResponseDTO.from(inventory)));
 
         inventoryService.getById(inventory.getId());
 
-        verify(inventoryRepository, times(1)).findById(inventory.getId());
+        verify(inventoryRepository, times(1)).findOwnedResponseById(inventory.getId(), user.getId());
         verify(authenticationService, times(1)).getAuthenticatedUser();
+        verifyNoMoreInteractions(inventoryRepository);
     }
 
     @Test
-    public void shouldRespondGetAllWithCorrectData() {
+    public void shouldThrowNotFoundWhenGettingMissingInventoryById() {
+        var inventoryId = UUID.randomUUID();
+        var user = getValidUser();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(inventoryRepository.findOwnedResponseById(inventoryId, user.getId())).thenReturn(Optional.empty());
+        when(inventoryRepository.existsById(inventoryId)).thenReturn(false);
+
+        var exception = assertThrows(InventoryNotFoundException.class, () -> inventoryService.getById(inventoryId),
+                "Deve lançar uma exceção quando o inventário não existir");
+
+        assertEquals("Inventário com o [ ID: %s ] não encontrado".formatted(inventoryId), exception.getMessage());
+    }
+
+    @Test
+    public void shouldThrowUnauthorizedWhenGettingInventoryOfAnotherUser() {
+        var inventoryId = UUID.randomUUID();
+        var user = getValidUser();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(inventoryRepository.findOwnedResponseById(inventoryId, user.getId())).thenReturn(Optional.empty());
+        when(inventoryRepository.existsById(inventoryId)).thenReturn(true);
+
+        assertThrows(UnauthorizedRequestException.class, () -> inventoryService.getById(inventoryId),
+                "Deve lançar uma exceção quando o inventário pertencer a outro usuário");
+    }
+
+    @Test
+    public void shouldRespondPageOfInventoriesWithNextCursor() {
         var user = getValidUser();
         var inventoryList = getValidInventories();
+        int limit = inventoryList.size() - 1;
 
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(inventoryRepository.findByOwnerId(user.getId())).thenReturn(inventoryList);
+        when(inventoryRepository.findPageByOwnerId(user.getId(), Limit.of(limit + 1))).thenReturn(toResponseDTOs(inventoryList));
 
-        var responseDtoList = inventoryService.getAll();
+        var inventoryPage = inventoryService.getAll(limit, null);
 
-        assertEquals(inventoryList.size(), responseDtoList.size());
-        for (var i = 0; i < inventoryList.size(); i++) {
-            assertEquals(inventoryList.get(i).getId(), responseDtoList.get(i).id(), "O id retornado deve ser igual ao id do inventário mockado");
-            assertEquals(inventoryList.get(i).getName(), responseDtoList.get(i).name(), "O nome retornado deve ser igual ao do inventário mockado");
-            assertEquals(inventoryList.get(i).getDescription(), responseDtoList.get(i).description(), "A descrição retornada deve ser igual à do inventário mockado");
-            assertEquals(inventoryList.get(i).getNotificationEmail(), responseDtoList.get(i).notificationEmail(), "O email de notificação retornado deve ser igual ao do inventário mockado");
-            assertEquals(user.getId(), responseDtoList.get(i).ownerId(), "O dono do inventário retornado deve ser o usuário autenticado");
+        assertEquals(limit, inventoryPage.size(), "A página deve ter o tamanho solicitado");
+        assertEquals(inventoryList.get(limit - 1).getId(), inventoryPage.nextCursor(), "O cursor deve ser o ID do último inventário da página");
+        for (var i = 0; i < limit; i++) {
+            assertEquals(inventoryList.get(i).getId(), inventoryPage.content().get(i).id(), "O id retornado deve ser igual ao id do inventário mockado");
         }
     }
 
     @Test
-    public void shouldCallCorrectMethodsWhenGettingAll() {
+    public void shouldQueryAfterCursorWhenGettingNextPage() {
         var user = getValidUser();
         var inventoryList = getValidInventories();
+        var after = UUID.randomUUID();
 
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(inventoryRepository.findByOwnerId(user.getId())).thenReturn(inventoryList);
+        when(inventoryRepository.findPageByOwnerIdAfter(user.getId(), after, Limit.of(51))).thenReturn(toResponseDTOs(inventoryList));
 
-        inventoryService.getAll();
+        var inventoryPage = inventoryService.getAll(50, after);
 
-        verify(authenticationService, times(1)).getAuthenticatedUser();
-        verify(inventoryRepository, times(1)).findByOwnerId(user.getId());
+        assertEquals(inventoryList.size(), inventoryPage.size(), "Todos os inventários devem caber na página");
+        assertNull(inventoryPage.nextCursor(), "Não deve haver próxima página na última página");
+        verify(inventoryRepository, never()).findPageByOwnerId(any(), any());
     }
 
     // TESTES DE ATUALIZAÇÃO PARCIAL -----------------------------------------------------------------------------------
@@ -198,11 +240,11 @@ public class InventoryServiceTest {
 
         when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(updatedInventory);
+        when(inventoryRepository.saveAndFlush(any(Inventory.class))).thenReturn(updatedInventory);
 
-        var responseDto = inventoryService.patch(inventory.getId(), patchDto);
+        var responseDto = inventoryService.patch(inventory.getId(), patchDto, null);
 
-        verify(inventoryRepository).save(captor.capture());
+        verify(inventoryRepository).saveAndFlush(captor.capture());
         var savedInventory = captor.getValue();
 
         assertEquals(user.getId(), savedInventory.getOwner().getId(), "O dono do inventário salvo deve ser o usuário autenticado");
@@ -230,10 +272,10 @@ public class InventoryServiceTest {
 
         when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(updatedInventory);
+        when(inventoryRepository.saveAndFlush(any(Inventory.class))).thenReturn(updatedInventory);
 
-        var responseDto = inventoryService.patch(inventory.getId(), patchDto);
-        verify(inventoryRepository).save(captor.capture());
+        var responseDto = inventoryService.patch(inventory.getId(), patchDto, null);
+        verify(inventoryRepository).saveAndFlush(captor.capture());
         var savedInventory = captor.getValue();
 
         assertEquals(user.getId(), savedInventory.getOwner().getId(), "O dono do inventário salvo deve ser o usuário autenticado");
@@ -259,10 +301,10 @@ public class InventoryServiceTest {
 
         when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(inventory);
+        when(inventoryRepository.saveAndFlush(any(Inventory.class))).thenReturn(inventory);
 
-        var responseDto = inventoryService.patch(inventory.getId(), patchDto);
-        verify(inventoryRepository).save(captor.capture());
+        var responseDto = inventoryService.patch(inventory.getId(), patchDto, null);
+        verify(inventoryRepository).saveAndFlush(captor.capture());
         var savedInventory = captor.getValue();
 
         assertEquals(user.getId(), savedInventory.getOwner().getId(), "O dono do inventário salvo deve ser o usuário autenticado");
@@ -292,13 +334,13 @@ public class InventoryServiceTest {
 
         when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(updatedInventory);
+        when(inventoryRepository.saveAndFlush(any(Inventory.class))).thenReturn(updatedInventory);
 
-        inventoryService.patch(inventory.getId(), patchDto);
+        inventoryService.patch(inventory.getId(), patchDto, null);
 
         verify(authenticationService, times(1)).getAuthenticatedUser();
         verify(inventoryRepository, times(1)).findById(inventory.getId());
-        verify(inventoryRepository, times(1)).save(any(Inventory.class));
+        verify(inventoryRepository, times(1)).saveAndFlush(any(Inventory.class));
     }
 
     // TESTES DE ATUALIZAÇÃO TOTAL -------------------------------------------------------------------------------------
@@ -316,10 +358,10 @@ public class InventoryServiceTest {
 
         when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(updatedInventory);
+        when(inventoryRepository.saveAndFlush(any(Inventory.class))).thenReturn(updatedInventory);
 
-        var responseDto = inventoryService.update(inventory.getId(), updateInventoryDTO);
-        verify(inventoryRepository).save(captor.capture());
+        var responseDto = inventoryService.update(inventory.getId(), updateInventoryDTO, null);
+        verify(inventoryRepository).saveAndFlush(captor.capture());
         var savedInventory = captor.getValue();
 
         assertEquals(user.getId(), savedInventory.getOwner().getId(), "O dono do inventário salvo deve ser o usuário autenticado");
@@ -349,13 +391,13 @@ public class InventoryServiceTest {
 
         when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(inventoryRepository.save(any(Inventory.class))).thenReturn(updatedInventory);
+        when(inventoryRepository.saveAndFlush(any(Inventory.class))).thenReturn(updatedInventory);
 
-        inventoryService.update(inventory.getId(), updateInventoryDTO);
+        inventoryService.update(inventory.getId(), updateInventoryDTO, null);
 
         verify(inventoryRepository, times(1)).findById(inventory.getId());
         verify(authenticationService, times(1)).getAuthenticatedUser();
-        verify(inventoryRepository, times(1)).save(any(Inventory.class));
+        verify(inventoryRepository, times(1)).saveAndFlush(any(Inventory.class));
         verifyNoMoreInteractions(inventoryRepository, authenticationService);
     }
 
@@ -388,6 +430,23 @@ public class InventoryServiceTest {
         assertEquals(user.getId(), foundInventory.getOwner().getId(), "O dono do inventário encontrado deve ser o usuário autenticado");
     }
 
+    @Test
+    public void shouldValidateOwnershipByIdForTokenPrincipal() {
+        var inventory = getValidInventory();
+        var tokenPrincipal = AuthUser.builder()
+                .id(inventory.getOwner().getId())
+                .email(inventory.getOwner().getEmail())
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+
+        when(inventoryRepository.findById(inventory.getId())).thenReturn(Optional.of(inventory));
+        when(authenticationService.getAuthenticatedUser()).thenReturn(tokenPrincipal);
+
+        var foundInventory = inventoryService.validateOwnershipById(inventory.getId());
+
+        assertEquals(inventory.getId(), foundInventory.getId(), "O dono deve ser reconhecido pelo ID, mesmo sem a senha no usuário autenticado");
+    }
+
     @Test
     public void shouldThrowExceptionWhenInventoryNotFound() {
         var inventory = getValidInventory();
@@ -458,6 +517,12 @@ public class InventoryServiceTest {
         return newInventoryList;
     }
 
+    private List<InventoryResponseDTO> toResponseDTOs(List<Inventory> inventories) {
+        return inventories.stream()
+                .map(InventoryResponseDTO::from)
+                .toList();
+    }
+
     private ArgumentCaptor<Inventory> getInventoryCaptor() {
         return ArgumentCaptor.forClass(Inventory.class);
     }
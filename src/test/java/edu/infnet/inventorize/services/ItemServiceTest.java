@@ -1,29 +1,55 @@
 package edu.infnet.inventorize.services;
 
+import edu.infnet.inventorize.dto.request.item.BatchAdjustmentDTO;
 import edu.infnet.inventorize.dto.request.item.ItemDTO;
 import edu.infnet.inventorize.dto.request.item.PatchItemDTO;
+import edu.infnet.inventorize.dto.request.item.ReservationDTO;
 import edu.infnet.inventorize.dto.request.item.UpdateItemDTO;
-import edu.infnet.inventorize.dto.response.InventoryResponseDTO;
+import edu.infnet.inventorize.dto.response.ItemResponseDTO;
+import edu.infnet.inventorize.dto.response.StockReplayResponseDTO;
 import edu.infnet.inventorize.entities.AuthUser;
 import edu.infnet.inventorize.entities.Inventory;
 import edu.infnet.inventorize.entities.Item;
 import edu.infnet.inventorize.entities.Product;
+import edu.infnet.inventorize.entities.StockReservation;
+import edu.infnet.inventorize.enums.MovementReason;
 import edu.infnet.inventorize.enums.Role;
+import edu.infnet.inventorize.exceptions.custom.BatchAdjustmentException;
 import edu.infnet.inventorize.exceptions.custom.InsufficientStockException;
 import edu.infnet.inventorize.exceptions.custom.InventoryItemNotFound;
+import edu.infnet.inventorize.exceptions.custom.PreconditionFailedException;
+import edu.infnet.inventorize.exceptions.custom.UnauthorizedRequestException;
 import edu.infnet.inventorize.repository.ItemRepository;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +66,24 @@ public class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Spy
+    private OwnershipMemo ownershipMemo = new OwnershipMemo();
+
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry(TransactionOperations.withoutTransaction(), 3, Duration.ZERO);
+
+    @Spy
+    private AdjustmentCombiner adjustmentCombiner = new AdjustmentCombiner(TransactionOperations.withoutTransaction(), Duration.ZERO, 256);
+
     @InjectMocks
     private ItemService itemService;
 
@@ -55,6 +99,7 @@ public class ItemServiceTest {
         when(productService.validateOwnershipById(itemRequestDto.productId())).thenReturn(product);
         when(inventoryService.validateOwnershipById(itemRequestDto.inventoryId())).thenReturn(inventory);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
 
         var itemResponseDTO = itemService.create(itemRequestDto);
 
@@ -79,12 +124,39 @@ public class ItemServiceTest {
         when(productService.validateOwnershipById(itemRequestDto.productId())).thenReturn(product);
         when(inventoryService.validateOwnershipById(itemRequestDto.inventoryId())).thenReturn(inventory);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
 
         itemService.create(itemRequestDto);
 
         verify(productService, times(1)).validateOwnershipById(itemRequestDto.productId());
         verify(inventoryService, times(1)).validateOwnershipById(itemRequestDto.inventoryId());
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(stockLedgerService, times(1)).record(item, item.getCurrentQuantity(), MovementReason.CREATION, createAuthUser().getId());
+    }
+
+    @Test
+    public void shouldRollBackItemWhenLedgerFailsOnCreation() {
+        var itemRequestDto = getItemDTO();
+        var item = createItem();
+        var transactionManager = mock(PlatformTransactionManager.class);
+        var transaction = mock(TransactionStatus.class);
+        var transactionalItemService = createTransactionalProxy(transactionManager);
+
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        when(productService.validateOwnershipById(itemRequestDto.productId())).thenReturn(createProduct());
+        when(inventoryService.validateOwnershipById(itemRequestDto.inventoryId())).thenReturn(createInventory());
+        when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        doThrow(new IllegalStateException("Falha ao gravar a movimentação"))
+                .when(stockLedgerService).record(any(Item.class), anyInt(), eq(MovementReason.CREATION), any(UUID.class));
+
+        assertThrows(IllegalStateException.class, () -> transactionalItemService.create(itemRequestDto));
+
+        var order = inOrder(transactionManager, itemRepository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(itemRepository).save(any(Item.class));
+        order.verify(transactionManager).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
     }
 
     // TESTES DE BUSCA ---------------------------------------------------------------------------------------------------
@@ -94,9 +166,8 @@ public class ItemServiceTest {
         var product = createProduct();
         var item = createItem();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedResponseById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(ItemResponseDTO.from(item)));
 
         var itemResponseDTO = itemService.getById(item.getId());
 
@@ -114,34 +185,32 @@ public class ItemServiceTest {
         var product = createProduct();
         var item = createItem();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedResponseById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(ItemResponseDTO.from(item)));
 
         itemService.getById(item.getId());
 
-        verify(itemRepository, times(1)).findById(item.getId());
-        verify(inventoryService, times(1)).validateOwnershipById(item.getInventory().getId());
-        verify(productService, times(1)).validateOwnershipById(item.getProduct().getId());
+        verify(itemRepository, times(1)).findOwnedResponseById(item.getId(), createAuthUser().getId());
+        verifyNoMoreInteractions(itemRepository);
+        verifyNoInteractions(inventoryService, productService);
     }
 
     @Test
     public void shouldGetAllItemsCorrectly() {
-        var inventoryResponseDtoList = getInventoryResponseDTOList();
-        var inventoryIdsList = getInventoryIdsList();
         var itemList = createItemListWithDifferentInventories();
         var user = createAuthUser();
 
-        when(inventoryService.getAll()).thenReturn(inventoryResponseDtoList);
-        when(itemRepository.getAllItemsByInventoryIdIn(inventoryIdsList)).thenReturn(itemList);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.findPageByOwnerId(user.getId(), Limit.of(51))).thenReturn(toResponseDTOs(itemList));
 
-        var itemDtoList = itemService.getAll();
+        var itemPage = itemService.getAll(50, null);
 
-        assertEquals(itemList.size(), itemDtoList.size());
+        assertEquals(itemList.size(), itemPage.size());
+        assertNull(itemPage.nextCursor(), "Não deve haver próxima página quando todos os itens couberem na página");
 
         for (var i = 0; i < itemList.size(); i++) {
             var item = itemList.get(i);
-            var responseDto = itemDtoList.get(i);
+            var responseDto = itemPage.content().get(i);
 
             assertEquals(item.getId(), responseDto.id(), "O ID do item deve ser igual ao ID do DTO");
 
@@ -153,18 +222,20 @@ public class ItemServiceTest {
     }
 
     @Test
-    public void shouldCallCorrectMethodsWhenGettingAllItems() {
-        var inventoryResponseDtoList = getInventoryResponseDTOList();
-        var inventoryIdsList = getInventoryIdsList();
+    public void shouldReturnNextCursorWhenThereAreMoreItems() {
         var itemList = createItemListWithDifferentInventories();
+        var user = createAuthUser();
+        var after = UUID.randomUUID();
+        int limit = itemList.size() - 1;
 
-        when(inventoryService.getAll()).thenReturn(inventoryResponseDtoList);
-        when(itemRepository.getAllItemsByInventoryIdIn(inventoryIdsList)).thenReturn(itemList);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.findPageByOwnerIdAfter(user.getId(), after, Limit.of(limit + 1))).thenReturn(toResponseDTOs(itemList));
 
-        itemService.getAll();
+        var itemPage = itemService.getAll(limit, after);
 
-        verify(inventoryService, times(1)).getAll();
-        verify(itemRepository, times(1)).getAllItemsByInventoryIdIn(inventoryIdsList);
+        assertEquals(limit, itemPage.size(), "A página deve ter o tamanho solicitado");
+        assertEquals(itemList.get(limit - 1).getId(), itemPage.nextCursor(), "O cursor deve ser o ID do último item da página");
+        verify(itemRepository, never()).findPageByOwnerId(any(), any());
     }
 
     @Test
@@ -173,7 +244,7 @@ public class ItemServiceTest {
         var itemList = createItemListForTheSameInventory();
 
         when(inventoryService.validateOwnershipById(inventory.getId())).thenReturn(inventory);
-        when(itemRepository.getAllItemsByInventoryId(inventory.getId())).thenReturn(itemList);
+        when(itemRepository.findResponsesByInventoryId(inventory.getId())).thenReturn(toResponseDTOs(itemList));
 
         var itemResponseDtoList = itemService.getAllItemsByInventoryId(inventory.getId());
 
@@ -196,12 +267,12 @@ public class ItemServiceTest {
         var itemList = createItemListForTheSameInventory();
 
         when(inventoryService.validateOwnershipById(inventory.getId())).thenReturn(inventory);
-        when(itemRepository.getAllItemsByInventoryId(inventory.getId())).thenReturn(itemList);
+        when(itemRepository.findResponsesByInventoryId(inventory.getId())).thenReturn(toResponseDTOs(itemList));
 
         itemService.getAllItemsByInventoryId(inventory.getId());
 
         verify(inventoryService, times(1)).validateOwnershipById(inventory.getId());
-        verify(itemRepository, times(1)).getAllItemsByInventoryId(inventory.getId());
+        verify(itemRepository, times(1)).findResponsesByInventoryId(inventory.getId());
         verifyNoMoreInteractions(itemRepository, inventoryService, productService);
     }
 
@@ -218,13 +289,12 @@ public class ItemServiceTest {
                 .build();
         var itemCaptor = getItemArgumentCaptor();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(updatedItem);
 
-        var itemResponseDTO = itemService.update(item.getId(), updateItemDTO);
-        verify(itemRepository).save(itemCaptor.capture());
+        var itemResponseDTO = itemService.update(item.getId(), updateItemDTO, null);
+        verify(itemRepository).saveAndFlush(itemCaptor.capture());
         var savedItem = itemCaptor.getValue();
 
         assertEquals(item.getId(), itemResponseDTO.id(), "O ID do item retornado deve ser igual ao ID do item salvo");
@@ -233,6 +303,7 @@ public class ItemServiceTest {
         assertEquals(inventory.getId(), savedItem.getInventory().getId(), "O ID do inventário associado deve ser igual ao do inventário mockado");
         assertEquals(updateItemDTO.currentQuantity(), savedItem.getCurrentQuantity(), "A quantidade atual do item deve ser igual à quantidade da requisição");
         assertEquals(updateItemDTO.minimumStockLevel(), savedItem.getMinimumStockLevel(), "O limite de estoque do item deve ser igual ao nível da requisição");
+        verify(stockLedgerService).record(updatedItem, 5, MovementReason.UPDATE, createAuthUser().getId());
     }
 
     @Test
@@ -243,17 +314,15 @@ public class ItemServiceTest {
         var product = createProduct();
         var itemCaptor = getItemArgumentCaptor();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(item);
 
-        var itemResponseDTO = itemService.update(item.getId(), updateItemDTO);
+        var itemResponseDTO = itemService.update(item.getId(), updateItemDTO, null);
 
-        verify(itemRepository, times(1)).findById(item.getId());
-        verify(inventoryService, times(1)).validateOwnershipById(item.getInventory().getId());
-        verify(productService, times(1)).validateOwnershipById(item.getProduct().getId());
-        verify(itemRepository, times(1)).save(itemCaptor.capture());
+        verify(itemRepository, times(1)).findOwnedById(item.getId(), createAuthUser().getId());
+        verifyNoInteractions(inventoryService, productService);
+        verify(itemRepository, times(1)).saveAndFlush(itemCaptor.capture());
         verifyNoMoreInteractions(itemRepository, inventoryService, productService);
     }
 
@@ -270,13 +339,12 @@ public class ItemServiceTest {
                 .build();
         var itemCaptor = getItemArgumentCaptor();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(updatedItem);
 
-        var itemResponseDto = itemService.patch(item.getId(), patchItemDTO);
-        verify(itemRepository).save(itemCaptor.capture());
+        var itemResponseDto = itemService.patch(item.getId(), patchItemDTO, null);
+        verify(itemRepository).saveAndFlush(itemCaptor.capture());
         var savedItem = itemCaptor.getValue();
 
         assertEquals(item.getId(), itemResponseDto.id(), "O ID do item retornado deve ser igual ao ID do item salvo");
@@ -299,13 +367,12 @@ public class ItemServiceTest {
                 .build();
         var itemCaptor = getItemArgumentCaptor();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(updatedItem);
 
-        var itemResponseDto = itemService.patch(item.getId(), patchItemDTO);
-        verify(itemRepository).save(itemCaptor.capture());
+        var itemResponseDto = itemService.patch(item.getId(), patchItemDTO, null);
+        verify(itemRepository).saveAndFlush(itemCaptor.capture());
         var savedItem = itemCaptor.getValue();
 
         assertEquals(item.getId(), itemResponseDto.id(), "O ID do item retornado deve ser igual ao ID do item salvo");
@@ -328,20 +395,31 @@ public class ItemServiceTest {
                 .minimumStockLevel(patchItemDTO.minimumStockLevel())
                 .build();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(updatedItem);
 
-        itemService.patch(item.getId(), patchItemDTO);
+        itemService.patch(item.getId(), patchItemDTO, null);
 
-        verify(itemRepository, times(1)).findById(item.getId());
-        verify(inventoryService, times(1)).validateOwnershipById(item.getInventory().getId());
-        verify(productService, times(1)).validateOwnershipById(item.getProduct().getId());
-        verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemRepository, times(1)).findOwnedById(item.getId(), createAuthUser().getId());
+        verifyNoInteractions(inventoryService, productService);
+        verify(itemRepository, times(1)).saveAndFlush(any(Item.class));
         verifyNoMoreInteractions(inventoryService, productService, itemRepository);
     }
 
+    @Test
+    public void shouldNotPatchItemWhenVersionIsOutdated() {
+        var patchItemDTO = new PatchItemDTO(20, 10);
+        var item = createItem().toBuilder().version(7L).build();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
+
+        assertThrows(PreconditionFailedException.class, () -> itemService.patch(item.getId(), patchItemDTO, 6L),
+                "Deve lançar exceção quando o item foi alterado desde a versão informada");
+        verify(itemRepository, never()).saveAndFlush(any(Item.class));
+    }
+
     @Test
     public void shouldNotPatchItem() {
         var inventory = createInventory();
@@ -350,13 +428,12 @@ public class ItemServiceTest {
         var item = createItem();
         var itemCaptor = getItemArgumentCaptor();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(item);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(item);
 
-        var itemResponseDto = itemService.patch(item.getId(), patchItemDTO);
-        verify(itemRepository).save(itemCaptor.capture());
+        var itemResponseDto = itemService.patch(item.getId(), patchItemDTO, null);
+        verify(itemRepository).saveAndFlush(itemCaptor.capture());
         var savedItem = itemCaptor.getValue();
 
         assertEquals(item.getId(), itemResponseDto.id(), "O ID do item retornado deve ser igual ao ID do item salvo");
@@ -370,8 +447,7 @@ public class ItemServiceTest {
     // TESTES DE AJUSTE DE QUANTIDADE ----------------------------------------------------------------------------------
     @Test
     public void shouldAdjustQuantityUpCorrectly() {
-        var inventory = createInventory();
-        var product = createProduct();
+        var user = createAuthUser();
         var item = createItem();
 
         var adjustment = 5;
@@ -381,28 +457,24 @@ public class ItemServiceTest {
                 .currentQuantity(newQuantity)
                 .build();
 
-        var itemCaptor = getItemArgumentCaptor();
-
-        when(itemRepository.findItemById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.adjustQuantity(item.getId(), user.getId(), adjustment)).thenReturn(1);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.of(updatedItem));
 
         var itemResponseDto = itemService.adjustCurrentQuantity(item.getId(), adjustment);
-        verify(itemRepository).save(itemCaptor.capture());
-        var savedItem = itemCaptor.getValue();
 
-        assertEquals(item.getId(), itemResponseDto.id(), "O ID do item retornado deve ser igual ao ID do item salvo");
-        assertEquals(product.getId(), savedItem.getProduct().getId(), "O produto associado não deve ser alterado");
-        assertEquals(inventory.getId(), savedItem.getInventory().getId(), "O inventário associado não deve ser alterado");
-        assertEquals(newQuantity, savedItem.getCurrentQuantity(), "A quantidade atual do item deve ser atualizada corretamente em +5");
-        assertEquals(item.getMinimumStockLevel(), savedItem.getMinimumStockLevel(), "A quantidade mínima em estoque do item não deve ser alterada");
+        verify(itemRepository, times(1)).adjustQuantity(item.getId(), user.getId(), adjustment);
+        verify(itemRepository, never()).save(any(Item.class));
+        assertEquals(item.getId(), itemResponseDto.id(), "O ID do item retornado deve ser igual ao ID do item ajustado");
+        assertEquals(item.getProduct().getId(), itemResponseDto.productId(), "O produto associado não deve ser alterado");
+        assertEquals(item.getInventory().getId(), itemResponseDto.inventoryId(), "O inventário associado não deve ser alterado");
+        assertEquals(newQuantity, itemResponseDto.currentQuantity(), "A quantidade atual do item deve ser atualizada corretamente em +5");
+        assertEquals(item.getMinimumStockLevel(), itemResponseDto.minimumStockLevel(), "A quantidade mínima em estoque do item não deve ser alterada");
     }
 
     @Test
     public void shouldAdjustQuantityDownCorrectly() {
-        var inventory = createInventory();
-        var product = createProduct();
+        var user = createAuthUser();
         var item = createItem();
 
         var adjustment = -5;
@@ -412,36 +484,28 @@ public class ItemServiceTest {
                 .currentQuantity(newQuantity)
                 .build();
 
-        var itemCaptor = getItemArgumentCaptor();
-
-        when(itemRepository.findItemById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(inventory.getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(product.getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.adjustQuantity(item.getId(), user.getId(), adjustment)).thenReturn(1);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.of(updatedItem));
 
         var itemResponseDto = itemService.adjustCurrentQuantity(item.getId(), adjustment);
-        verify(itemRepository).save(itemCaptor.capture());
-        var savedItem = itemCaptor.getValue();
 
-        assertEquals(item.getId(), itemResponseDto.id(), "O ID do item retornado deve ser igual ao ID do item salvo");
-        assertEquals(product.getId(), savedItem.getProduct().getId(), "O produto associado não deve ser alterado");
-        assertEquals(inventory.getId(), savedItem.getInventory().getId(), "O inventário associado não deve ser alterado");
-        assertEquals(newQuantity, savedItem.getCurrentQuantity(), "A quantidade atual do item deve ser atualizada corretamente em -5");
-        assertEquals(item.getMinimumStockLevel(), savedItem.getMinimumStockLevel(), "A quantidade mínima em estoque do item não deve ser alterada");
+        verify(itemRepository, times(1)).adjustQuantity(item.getId(), user.getId(), adjustment);
+        assertEquals(item.getId(), itemResponseDto.id(), "O ID do item retornado deve ser igual ao ID do item ajustado");
+        assertEquals(newQuantity, itemResponseDto.currentQuantity(), "A quantidade atual do item deve ser atualizada corretamente em -5");
+        assertEquals(item.getMinimumStockLevel(), itemResponseDto.minimumStockLevel(), "A quantidade mínima em estoque do item não deve ser alterada");
     }
 
     @Test
     public void shouldThrowExceptionWhenInsufficientStock() {
-        var inventory = createInventory();
-        var product = createProduct();
+        var user = createAuthUser();
         var item = createItem();
 
         var adjustment = -50;
-        var newQuantity = item.getCurrentQuantity() + adjustment;
 
-        when(itemRepository.findItemById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(inventory.getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(product.getId())).thenReturn(product);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.adjustQuantity(item.getId(), user.getId(), adjustment)).thenReturn(0);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.of(item));
 
         var insufficientStockException = assertThrows(InsufficientStockException.class,
                 () -> itemService.adjustCurrentQuantity(item.getId(), adjustment),
@@ -449,45 +513,391 @@ public class ItemServiceTest {
         assertEquals(String.format("Ajuste de estoque não pode resultar em quantidade negativa.\nITEM: [ %s ] \nEM ESTOQUE: %d ", item.getProduct().getName(), item.getCurrentQuantity()),
                 insufficientStockException.getMessage(),
                 "A mensagem de exceção deve exibir o nome do item e a quantidade atual");
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenAdjustingItemNotFound() {
+        var user = createAuthUser();
+        var itemId = UUID.randomUUID();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.adjustQuantity(itemId, user.getId(), 5)).thenReturn(0);
+        when(itemRepository.findOwnedById(itemId, user.getId())).thenReturn(Optional.empty());
+        when(itemRepository.existsById(itemId)).thenReturn(false);
+
+        var inventoryItemNotFound = assertThrows(InventoryItemNotFound.class,
+                () -> itemService.adjustCurrentQuantity(itemId, 5),
+                "Deve lançar uma exceção quando o item ajustado não for encontrado");
+
+        assertEquals(String.format("Item de inventário com o [ ID: %s ] não encontrado", itemId), inventoryItemNotFound.getMessage());
+    }
+
+    @Test
+    public void shouldThrowUnauthorizedWhenAdjustingItemOfAnotherUser() {
+        var user = createAuthUser();
+        var itemId = UUID.randomUUID();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.adjustQuantity(itemId, user.getId(), 5)).thenReturn(0);
+        when(itemRepository.findOwnedById(itemId, user.getId())).thenReturn(Optional.empty());
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+
+        assertThrows(UnauthorizedRequestException.class,
+                () -> itemService.adjustCurrentQuantity(itemId, 5),
+                "Deve lançar uma exceção quando o item ajustado pertencer a outro usuário");
+    }
+
+    @Test
+    public void shouldApplyGroupedAdjustmentsInOrderWithASingleWrite() {
+        var user = createAuthUser();
+        var item = createItem();
+        ArgumentCaptor<Item> itemCaptor = getItemArgumentCaptor();
+
+        when(itemRepository.lockOwnedByIds(List.of(item.getId()), user.getId())).thenReturn(List.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var outcomes = itemService.adjustGroup(item.getId(), user.getId(), List.of(-4, -8, 3, -9));
+
+        var order = inOrder(itemRepository);
+        order.verify(itemRepository).lockOwnedByIds(List.of(item.getId()), user.getId());
+        order.verify(itemRepository).findWithParentsByIds(List.of(item.getId()));
+        order.verify(itemRepository, times(1)).saveAndFlush(itemCaptor.capture());
+        verify(itemRepository, never()).adjustQuantity(any(), any(), anyInt());
+        assertEquals(0, itemCaptor.getValue().getCurrentQuantity(), "Apenas a soma dos ajustes aceitos deve ser gravada");
+        assertEquals(6, outcomes.get(0).item().currentQuantity(), "Cada ajuste deve ver a quantidade deixada pelos anteriores");
+        assertEquals(InsufficientStockException.class, outcomes.get(1).error().getClass(), "O ajuste que deixaria o estoque negativo deve ser rejeitado");
+        assertEquals(String.format("Ajuste de estoque não pode resultar em quantidade negativa.\nITEM: [ %s ] \nEM ESTOQUE: %d ", item.getProduct().getName(), 6),
+                outcomes.get(1).error().getMessage(),
+                "A mensagem deve informar o estoque no momento do ajuste rejeitado");
+        assertEquals(9, outcomes.get(2).item().currentQuantity(), "Os ajustes seguintes ao rejeitado devem ser aplicados");
+        assertEquals(0, outcomes.get(3).item().currentQuantity(), "O último ajuste deve zerar o estoque");
+        verify(emailService, times(1)).sendEmail(eq(item.getInventory().getNotificationEmail()), any());
+        verify(stockLedgerService).record(any(Item.class), eq(-4), eq(MovementReason.ADJUSTMENT), eq(user.getId()));
+        verify(stockLedgerService).record(any(Item.class), eq(3), eq(MovementReason.ADJUSTMENT), eq(user.getId()));
+        verify(stockLedgerService).record(any(Item.class), eq(-9), eq(MovementReason.ADJUSTMENT), eq(user.getId()));
+        verify(stockLedgerService, never()).record(any(Item.class), eq(-8), any(), any());
+    }
+
+    @Test
+    public void shouldNotWriteGroupWhenEveryAdjustmentIsRejected() {
+        var user = createAuthUser();
+        var item = createItem();
+
+        when(itemRepository.lockOwnedByIds(List.of(item.getId()), user.getId())).thenReturn(List.of(item));
+
+        var outcomes = itemService.adjustGroup(item.getId(), user.getId(), List.of(-11, -20));
+
+        assertNull(outcomes.get(0).item(), "O ajuste rejeitado não deve retornar item");
+        assertEquals(InsufficientStockException.class, outcomes.get(1).error().getClass(), "Todos os ajustes devem ser rejeitados");
+        verify(itemRepository, never()).saveAndFlush(any(Item.class));
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    public void shouldRejectWholeGroupWhenItemBelongsToAnotherUser() {
+        var user = createAuthUser();
+        var item = createItem();
+
+        when(itemRepository.lockOwnedByIds(List.of(item.getId()), user.getId())).thenReturn(List.of());
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+
+        assertThrows(UnauthorizedRequestException.class, () -> itemService.adjustGroup(item.getId(), user.getId(), List.of(1, 2)),
+                "Deve lançar exceção quando o item pertence a outro usuário");
+        verify(itemRepository, never()).saveAndFlush(any(Item.class));
+    }
+
+    // TESTES DE AJUSTE EM LOTE ----------------------------------------------------------------------------------------
+    @Test
+    public void shouldAdjustBatchLockingItemsInIdOrder() {
+        var user = createAuthUser();
+        var first = createItem().toBuilder().id(UUID.fromString("00000000-0000-7000-8000-000000000002")).build();
+        var second = createItem().toBuilder().id(UUID.fromString("00000000-0000-7000-8000-000000000001")).build();
+        var batchRequest = new BatchAdjustmentDTO(List.of(
+                new BatchAdjustmentDTO.Line(first.getId(), -3),
+                new BatchAdjustmentDTO.Line(second.getId(), 4),
+                new BatchAdjustmentDTO.Line(first.getId(), -2)));
+        ArgumentCaptor<Collection<UUID>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<List<Item>> itemsCaptor = ArgumentCaptor.forClass(List.class);
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.lockOwnedByIds(any(), eq(user.getId()))).thenReturn(List.of(second, first));
+        when(itemRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var responses = itemService.adjustCurrentQuantities(batchRequest);
+
+        var order = inOrder(itemRepository);
+        order.verify(itemRepository).lockOwnedByIds(idsCaptor.capture(), eq(user.getId()));
+        order.verify(itemRepository).findWithParentsByIds(idsCaptor.getValue());
+        order.verify(itemRepository).saveAllAndFlush(itemsCaptor.capture());
+        assertEquals(List.of(second.getId(), first.getId()), List.copyOf(idsCaptor.getValue()), "Os itens devem ser bloqueados em ordem de ID");
+        assertEquals(2, itemsCaptor.getValue().size(), "Cada item deve ser gravado uma única vez");
+        assertEquals(List.of(first.getId(), second.getId()), responses.stream().map(ItemResponseDTO::id).toList(), "A resposta deve seguir a ordem do lote");
+        assertEquals(5, responses.get(0).currentQuantity(), "As linhas de um mesmo item devem ser somadas");
+        assertEquals(14, responses.get(1).currentQuantity(), "O segundo item deve receber o seu ajuste");
+        verify(stockLedgerService).record(argThat(item -> item.getId().equals(first.getId())), eq(-3), eq(MovementReason.BATCH_ADJUSTMENT), eq(user.getId()));
+        verify(stockLedgerService).record(argThat(item -> item.getId().equals(second.getId())), eq(4), eq(MovementReason.BATCH_ADJUSTMENT), eq(user.getId()));
+        verify(stockLedgerService).record(argThat(item -> item.getId().equals(first.getId())), eq(-2), eq(MovementReason.BATCH_ADJUSTMENT), eq(user.getId()));
+    }
+
+    @Test
+    public void shouldRejectWholeBatchWhenAnyLineHasInsufficientStock() {
+        var user = createAuthUser();
+        var first = createItem().toBuilder().id(UUID.fromString("00000000-0000-7000-8000-000000000001")).build();
+        var second = createItem().toBuilder().id(UUID.fromString("00000000-0000-7000-8000-000000000002")).build();
+        var batchRequest = new BatchAdjustmentDTO(List.of(
+                new BatchAdjustmentDTO.Line(first.getId(), -8),
+                new BatchAdjustmentDTO.Line(second.getId(), -1),
+                new BatchAdjustmentDTO.Line(first.getId(), -3),
+                new BatchAdjustmentDTO.Line(second.getId(), -20)));
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.lockOwnedByIds(any(), eq(user.getId()))).thenReturn(List.of(first, second));
+
+        var exception = assertThrows(BatchAdjustmentException.class,
+                () -> itemService.adjustCurrentQuantities(batchRequest),
+                "Deve rejeitar o lote quando alguma linha resultar em quantidade negativa");
+
+        assertEquals(List.of(3, 4), exception.getErrors().stream().map(BatchAdjustmentException.LineError::line).toList(),
+                "Devem ser informadas apenas as linhas rejeitadas");
+        assertEquals(String.format("Ajuste de estoque não pode resultar em quantidade negativa.\nITEM: [ %s ] \nEM ESTOQUE: %d ", first.getProduct().getName(), 2),
+                exception.getErrors().get(0).message(),
+                "A mensagem deve considerar os ajustes das linhas anteriores do mesmo item");
+        verify(itemRepository, never()).saveAllAndFlush(anyList());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    public void shouldThrowExceptionWhenBatchHasItemNotFound() {
+        var user = createAuthUser();
+        var item = createItem();
+        var missingId = UUID.randomUUID();
+        var batchRequest = new BatchAdjustmentDTO(List.of(
+                new BatchAdjustmentDTO.Line(item.getId(), 1),
+                new BatchAdjustmentDTO.Line(missingId, 1)));
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.lockOwnedByIds(any(), eq(user.getId()))).thenReturn(List.of(item));
+        when(itemRepository.existsById(missingId)).thenReturn(false);
+
+        var inventoryItemNotFound = assertThrows(InventoryItemNotFound.class,
+                () -> itemService.adjustCurrentQuantities(batchRequest),
+                "Deve lançar uma exceção quando algum item do lote não for encontrado");
+
+        assertEquals(String.format("Item de inventário com o [ ID: %s ] não encontrado", missingId), inventoryItemNotFound.getMessage());
+        verify(itemRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    // TESTES DE HISTÓRICO DE MOVIMENTAÇÕES ---------------------------------------------------------------------------
+    @Test
+    public void shouldCorrectQuantityWhenLedgerDiverges() {
+        var user = createAuthUser();
+        var item = createItem().toBuilder().version(8L).build();
+        var replay = new StockReplayResponseDTO(item.getId(), 4, 3, 7, item.getCurrentQuantity());
+        var itemCaptor = getItemArgumentCaptor();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.lockOwnedByIds(List.of(item.getId()), user.getId())).thenReturn(List.of(item));
+        when(stockLedgerService.replay(item)).thenReturn(replay);
+
+        var response = itemService.replay(item.getId());
+
+        verify(itemRepository).save(itemCaptor.capture());
+        assertEquals(7, itemCaptor.getValue().getCurrentQuantity(), "A quantidade do item deve ser a reconstruída a partir do histórico");
+        assertEquals(replay, response);
+    }
+
+    @Test
+    public void shouldNotWriteItemWhenLedgerMatches() {
+        var user = createAuthUser();
+        var item = createItem();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.lockOwnedByIds(List.of(item.getId()), user.getId())).thenReturn(List.of(item));
+        when(stockLedgerService.replay(item)).thenReturn(new StockReplayResponseDTO(item.getId(), 10, 0, 10, 10));
+
+        itemService.replay(item.getId());
+
+        verify(itemRepository, never()).save(any(Item.class));
+    }
+
+    @Test
+    public void shouldNotListMovementsOfAnotherUsersItem() {
+        var user = createAuthUser();
+        var item = createItem();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.empty());
+        when(itemRepository.existsById(item.getId())).thenReturn(true);
+
+        assertThrows(UnauthorizedRequestException.class, () -> itemService.getMovements(item.getId(), 50, null),
+                "Deve lançar exceção quando o item pertence a outro usuário");
+        verifyNoInteractions(stockLedgerService);
+    }
+
+    // TESTES DE RESERVAS ----------------------------------------------------------------------------------------------
+    @Test
+    public void shouldReserveAvailableQuantity() {
+        var user = createAuthUser();
+        var item = createItem();
+        var reservation = createReservation(item, 3, Instant.now().plusSeconds(300));
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.reserveQuantity(item.getId(), user.getId(), 3)).thenReturn(1);
+        when(stockReservationService.hold(item.getId(), user.getId(), 3, 300)).thenReturn(reservation);
+
+        var response = itemService.reserve(item.getId(), new ReservationDTO(3, 300));
+
+        assertEquals(reservation.getId(), response.id());
+        assertEquals(3, response.quantity());
+        assertEquals(reservation.getExpiresAt(), response.expiresAt());
+        verify(itemRepository, never()).saveAndFlush(any(Item.class));
+        verifyNoInteractions(stockLedgerService);
+    }
+
+    @Test
+    public void shouldNotReserveMoreThanAvailable() {
+        var user = createAuthUser();
+        var item = createItem().toBuilder().reservedQuantity(8).build();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.reserveQuantity(item.getId(), user.getId(), 3)).thenReturn(0);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.of(item));
+
+        var exception = assertThrows(InsufficientStockException.class, () -> itemService.reserve(item.getId(), new ReservationDTO(3, null)));
+
+        assertEquals(String.format("Estoque disponível insuficiente para a reserva.\nITEM: [ %s ] \nDISPONÍVEL: %d ", item.getProduct().getName(), 2),
+                exception.getMessage(),
+                "A mensagem deve informar a quantidade disponível, e não a atual");
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    public void shouldCommitReservationAsAStockMovement() {
+        var user = createAuthUser();
+        var item = createItem();
+        var reservation = createReservation(item, 3, Instant.now().plusSeconds(300));
+        var committedItem = item.toBuilder().currentQuantity(7).version(4L).build();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(stockReservationService.claimActive(item.getId(), reservation.getId(), user.getId())).thenReturn(reservation);
+        when(itemRepository.commitReservedQuantity(item.getId(), 3)).thenReturn(1);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.of(committedItem));
+
+        var response = itemService.commitReservation(item.getId(), reservation.getId());
+
+        assertEquals(7, response.currentQuantity());
+        verify(stockLedgerService).record(committedItem, -3, MovementReason.RESERVATION, user.getId());
+    }
+
+    @Test
+    public void shouldReturnReservedQuantityWhenReleasingReservation() {
+        var user = createAuthUser();
+        var item = createItem();
+        var reservation = createReservation(item, 3, Instant.now().minusSeconds(1));
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(stockReservationService.claim(item.getId(), reservation.getId(), user.getId())).thenReturn(reservation);
+        when(itemRepository.releaseReservedQuantity(item.getId(), 3)).thenReturn(1);
+
+        itemService.releaseReservation(item.getId(), reservation.getId());
+
+        verify(itemRepository).releaseReservedQuantity(item.getId(), 3);
+        verify(itemRepository, never()).commitReservedQuantity(any(), anyInt());
+        verifyNoInteractions(stockLedgerService);
+    }
+
+    @Test
+    public void shouldNotAdjustIntoReservedQuantity() {
+        var user = createAuthUser();
+        var item = createItem().toBuilder().reservedQuantity(6).build();
+
+        when(itemRepository.lockOwnedByIds(List.of(item.getId()), user.getId())).thenReturn(List.of(item));
+        when(itemRepository.saveAndFlush(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var outcomes = itemService.adjustGroup(item.getId(), user.getId(), List.of(-3, -2));
+
+        assertEquals(7, outcomes.get(0).item().currentQuantity());
+        assertEquals(String.format("Ajuste de estoque não pode resultar em quantidade negativa.\nITEM: [ %s ] \nEM ESTOQUE: %d ", item.getProduct().getName(), 1),
+                outcomes.get(1).error().getMessage(),
+                "O ajuste que consumiria a quantidade reservada deve ser rejeitado, informando a quantidade disponível");
+    }
+
+    @Test
+    public void shouldNotPatchQuantityBelowReserved() {
+        var item = createItem().toBuilder().reservedQuantity(4).build();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
+
+        assertThrows(InsufficientStockException.class, () -> itemService.patch(item.getId(), new PatchItemDTO(2, null), null),
+                "A quantidade atual não pode ficar abaixo da reservada");
+        verify(itemRepository, never()).saveAndFlush(any(Item.class));
     }
 
     // TESTE DE ENVIO DE EMAIL -----------------------------------------------------------------------------------------
     @Test
     public void shouldSendEmailAfterAdjustingDown() {
+        var user = createAuthUser();
         var inventory = createInventory();
-        var product = createProduct();
         var item = createItem();
-        var itemCaptor = getItemArgumentCaptor();
-        var emailBody = String.format("O inventário '%s' está com o item '%s' com quantidade baixa: %d unidades.",
-                inventory.getName(), item.getProduct().getName(), item.getCurrentQuantity());
 
         var adjustment = -8;
         var newQuantity = item.getCurrentQuantity() + adjustment;
+        var emailBody = String.format("O inventário '%s' está com o item '%s' com quantidade baixa: %d unidades.",
+                inventory.getName(), item.getProduct().getName(), newQuantity);
 
         var updatedItem = item.toBuilder()
                 .currentQuantity(newQuantity)
                 .build();
 
-        when(itemRepository.findItemById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(inventory.getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(product.getId())).thenReturn(product);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.adjustQuantity(item.getId(), user.getId(), adjustment)).thenReturn(1);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.of(updatedItem));
         when(emailService.createEmailBody(inventory.getName(), item.getProduct().getName(), newQuantity)).thenReturn(emailBody);
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
 
         itemService.adjustCurrentQuantity(item.getId(), adjustment);
-        verify(itemRepository).save(itemCaptor.capture());
-        var savedItem = itemCaptor.getValue();
 
+        verify(emailService, times(1)).createEmailBody(inventory.getName(), item.getProduct().getName(), newQuantity);
+        verify(emailService, times(1)).sendEmail(inventory.getNotificationEmail(), emailBody);
+    }
 
+    @Test
+    public void shouldSendEmailOnlyAfterCommit() {
+        var user = createAuthUser();
+        var inventory = createInventory();
+        var item = createItem();
+
+        var adjustment = -8;
+        var newQuantity = item.getCurrentQuantity() + adjustment;
+        var emailBody = "corpo do e-mail";
+
+        var updatedItem = item.toBuilder()
+                .currentQuantity(newQuantity)
+                .build();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.adjustQuantity(item.getId(), user.getId(), adjustment)).thenReturn(1);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.of(updatedItem));
+        when(emailService.createEmailBody(inventory.getName(), item.getProduct().getName(), newQuantity)).thenReturn(emailBody);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.adjustCurrentQuantity(item.getId(), adjustment);
+
+            verify(emailService, never()).sendEmail(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
 
-        verify(emailService, times(1)).createEmailBody(inventory.getName(), item.getProduct().getName(), newQuantity);
         verify(emailService, times(1)).sendEmail(inventory.getNotificationEmail(), emailBody);
     }
 
     @Test
     public void shouldNotSendEmailAfterAdjustingDown() {
-        var inventory = createInventory();
-        var product = createProduct();
+        var user = createAuthUser();
         var item = createItem();
 
         var adjustment = -2;
@@ -497,10 +907,9 @@ public class ItemServiceTest {
                 .currentQuantity(newQuantity)
                 .build();
 
-        when(itemRepository.findItemById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(inventory.getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(product.getId())).thenReturn(product);
-        when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.adjustQuantity(item.getId(), user.getId(), adjustment)).thenReturn(1);
+        when(itemRepository.findOwnedById(item.getId(), user.getId())).thenReturn(Optional.of(updatedItem));
 
         itemService.adjustCurrentQuantity(item.getId(), adjustment);
 
@@ -514,16 +923,15 @@ public class ItemServiceTest {
         var product = createProduct();
         var item = createItem();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
 
         itemService.deleteById(item.getId());
 
-        verify(itemRepository, times(1)).findById(item.getId());
-        verify(inventoryService, times(1)).validateOwnershipById(item.getInventory().getId());
-        verify(productService, times(1)).validateOwnershipById(item.getProduct().getId());
+        verify(itemRepository, times(1)).findOwnedById(item.getId(), createAuthUser().getId());
+        verifyNoInteractions(inventoryService, productService);
         verify(itemRepository, times(1)).delete(item);
+        verify(stockReservationService, times(1)).forget(item.getId());
     }
 
     // TESTES DE VALIDAÇÃO DE PROPRIEDADE -------------------------------------------------------------------------------
@@ -533,9 +941,8 @@ public class ItemServiceTest {
         var product = createProduct();
         var item = createItem();
 
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(item.getId(), createAuthUser().getId())).thenReturn(Optional.of(item));
 
         var validatedItem = itemService.validateOwnershipById(item.getId());
 
@@ -551,7 +958,9 @@ public class ItemServiceTest {
     public void shouldThrowExceptionWhenItemNotFound() {
         var itemId = UUID.randomUUID();
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(itemId, createAuthUser().getId())).thenReturn(Optional.empty());
+        when(itemRepository.existsById(itemId)).thenReturn(false);
 
         var inventoryItemNotFound = assertThrows(InventoryItemNotFound.class,
                 () -> itemService.validateOwnershipById(itemId),
@@ -561,47 +970,26 @@ public class ItemServiceTest {
     }
 
     @Test
-    public void shouldValidateItemOwnershipWithLock() {
-        var inventory = createInventory();
-        var product = createProduct();
-        var item = createItem();
-
-        when(itemRepository.findItemById(item.getId())).thenReturn(Optional.of(item));
-        when(inventoryService.validateOwnershipById(item.getInventory().getId())).thenReturn(inventory);
-        when(productService.validateOwnershipById(item.getProduct().getId())).thenReturn(product);
-
-        var validatedItem = itemService.validateOwnershipWithLock(item.getId());
-
-        assertEquals(item.getProduct().getOwner(),
-                validatedItem.getProduct().getOwner(),
-                "O proprietário do item deve ser o mesmo do produto");
-        assertEquals(item.getInventory().getOwner(),
-                validatedItem.getInventory().getOwner(),
-                "O proprietário do item deve ser o mesmo do inventário");
-    }
-
-    @Test
-    public void shouldThrowExceptionWhenItemNotFoundWithLock() {
+    public void shouldThrowUnauthorizedWhenItemBelongsToAnotherUser() {
         var itemId = UUID.randomUUID();
 
-        when(itemRepository.findItemById(itemId)).thenReturn(Optional.empty());
+        when(authenticationService.getAuthenticatedUser()).thenReturn(createAuthUser());
+        when(itemRepository.findOwnedById(itemId, createAuthUser().getId())).thenReturn(Optional.empty());
+        when(itemRepository.existsById(itemId)).thenReturn(true);
 
-        var inventoryItemNotFound = assertThrows(InventoryItemNotFound.class,
-                () -> itemService.validateOwnershipWithLock(itemId),
-                "Deve lançar uma exceção quando o item não for encontrado com bloqueio");
-
-        assertEquals(String.format("Item de inventário com o [ ID: %s ] não encontrado", itemId), inventoryItemNotFound.getMessage());
+        assertThrows(UnauthorizedRequestException.class,
+                () -> itemService.validateOwnershipById(itemId),
+                "Deve lançar uma exceção quando o item existir mas pertencer a outro usuário");
     }
 
     // TESTES DE RECUPERAÇÃO DE ITENS COM ESTOQUE BAIXO ----------------------------------------------------------------
     @Test
     public void shouldGetLowStockItemsCorrectly() {
-        var inventoryResponseDtoList = getInventoryResponseDTOList();
-        var inventoryIdsList = getInventoryIdsList();
+        var user = createAuthUser();
         var lowStockItems = createLowStockItemList();
 
-        when(inventoryService.getAll()).thenReturn(inventoryResponseDtoList);
-        when(itemRepository.getAllWhereMinimumStockLevelIsLowerThanCurrentQuantityByInventoryIdIn(inventoryIdsList)).thenReturn(lowStockItems);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.findLowStockByOwnerId(user.getId())).thenReturn(toResponseDTOs(lowStockItems));
 
         var lowStockItemResponseDtoList = itemService.getLowStockItems();
 
@@ -620,21 +1008,28 @@ public class ItemServiceTest {
 
     @Test
     public void shouldCallCorrectMethodsWhenGettingLowStockItems() {
-        var inventoryResponseDtoList = getInventoryResponseDTOList();
-        var inventoryIdsList = getInventoryIdsList();
+        var user = createAuthUser();
         var lowStockItems = createLowStockItemList();
 
-        when(inventoryService.getAll()).thenReturn(inventoryResponseDtoList);
-        when(itemRepository.getAllWhereMinimumStockLevelIsLowerThanCurrentQuantityByInventoryIdIn(inventoryIdsList)).thenReturn(lowStockItems);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(itemRepository.findLowStockByOwnerId(user.getId())).thenReturn(toResponseDTOs(lowStockItems));
 
         itemService.getLowStockItems();
 
-        verify(inventoryService, times(1)).getAll();
-        verify(itemRepository, times(1)).getAllWhereMinimumStockLevelIsLowerThanCurrentQuantityByInventoryIdIn(inventoryIdsList);
-        verifyNoMoreInteractions(inventoryService, itemRepository);
+        verify(itemRepository, times(1)).findLowStockByOwnerId(user.getId());
+        verifyNoMoreInteractions(itemRepository);
+        verifyNoInteractions(inventoryService);
     }
 
     // MÉTODOS UTILITÁRIOS ---------------------------------------------------------------------------------------------
+    private ItemService createTransactionalProxy(PlatformTransactionManager transactionManager) {
+        var proxyFactory = new ProxyFactory(itemService);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+
+        return (ItemService) proxyFactory.getProxy();
+    }
+
     private ItemDTO getItemDTO() {
         return new ItemDTO(
                 UUID.fromString("cc60a7df-1ddd-47c6-bcc1-765f530bed6c"),
@@ -654,6 +1049,17 @@ public class ItemServiceTest {
                 .build();
     }
 
+    private StockReservation createReservation(Item item, int quantity, Instant expiresAt) {
+        return StockReservation.builder()
+                .id(UUID.fromString("0b6f3c2e-41d7-4a8e-9c15-7e2d5f8a9b31"))
+                .itemId(item.getId())
+                .ownerId(createAuthUser().getId())
+                .quantity(quantity)
+                .expiresAt(expiresAt)
+                .createdAt(Instant.now())
+                .build();
+    }
+
     private Inventory createInventory() {
         return Inventory.builder()
                 .id(UUID.fromString("457a8008-cb05-436d-97d1-7613a45258d7"))
@@ -752,13 +1158,10 @@ public class ItemServiceTest {
         return itemList;
     }
 
-    private List<InventoryResponseDTO> getInventoryResponseDTOList() {
-        var inventoryResponseDtoList = new ArrayList<InventoryResponseDTO>();
-        var itemList = createItemListWithDifferentInventories();
-        for (var item : itemList) {
-            inventoryResponseDtoList.add(InventoryResponseDTO.from(item.getInventory()));
-        }
-        return inventoryResponseDtoList;
+    private List<ItemResponseDTO> toResponseDTOs(List<Item> items) {
+        return items.stream()
+                .map(ItemResponseDTO::from)
+                .toList();
     }
 
     private List<Item> createLowStockItemList() {
@@ -7,13 +7,14 @@ import edu.infnet.inventorize.services.auth.JwtService;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Set;
 import java.util.UUID;
@@ -30,8 +31,7 @@ public class JwtServiceTest {
 
     @BeforeEach
     public void setUp() {
-        jwtService = new JwtService();
-        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        jwtService = new JwtService(SECRET, 100, Duration.ofMinutes(15));
     }
 
     @Test
@@ -43,7 +43,7 @@ public class JwtServiceTest {
                 .roles(Set.of(Role.ROLE_USER))
                 .build();
 
-        UserDetails userDetails = UserDetailsImpl
+        UserDetailsImpl userDetails = UserDetailsImpl
                 .builder()
                 .authUser(user)
                 .build();
@@ -72,12 +72,12 @@ public class JwtServiceTest {
                 .roles(Set.of(Role.ROLE_USER))
                 .build();
 
-        UserDetails userDetailsA = UserDetailsImpl
+        UserDetailsImpl userDetailsA = UserDetailsImpl
                 .builder()
                 .authUser(userA)
                 .build();
 
-        UserDetails userDetailsB = UserDetailsImpl
+        UserDetailsImpl userDetailsB = UserDetailsImpl
                 .builder()
                 .authUser(userB)
                 .build();
@@ -98,7 +98,7 @@ public class JwtServiceTest {
                 .roles(Set.of(Role.ROLE_USER))
                 .build();
 
-        UserDetails userDetails = UserDetailsImpl
+        UserDetailsImpl userDetails = UserDetailsImpl
                 .builder()
                 .authUser(user)
                 .build();
@@ -117,4 +117,45 @@ public class JwtServiceTest {
                 "Deve lançar uma exceção ExpiredJwtException para token expirado");
     }
 
+    @Test
+    public void shouldReturnVerifiedClaimsFromToken() {
+        var user = AuthUser.builder()
+                .id(UUID.fromString("e53f5539-a3d9-4b12-b2b5-50f4bfd40fa5"))
+                .email("teste@email.com")
+                .hashPassword("b918f5d7e8350a33ed7f912591c1225e")
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+
+        UserDetailsImpl userDetails = UserDetailsImpl
+                .builder()
+                .authUser(user)
+                .build();
+
+        var token = jwtService.generateToken(userDetails);
+        var verifiedToken = jwtService.verify(token);
+
+        assertEquals(user.getId(), verifiedToken.userId(), "O ID verificado deve ser o ID do usuário");
+        assertEquals(user.getEmail(), verifiedToken.username(), "O username verificado deve ser o email do usuário");
+        assertEquals(user.getRoles(), verifiedToken.roles(), "Os papéis verificados devem ser os papéis do usuário");
+        assertNotNull(verifiedToken.tokenId(), "O token deve ter um identificador único para permitir a revogação");
+        assertEquals(4, verifiedToken.tokenId().version(), "O identificador do token deve ser aleatório, já que é usado como hash no filtro de revogação");
+        assertTrue(verifiedToken.expiresAt().isAfter(Instant.now()), "O token verificado não deve estar expirado");
+        assertFalse(verifiedToken.expiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(15))), "O token de acesso deve ter curta duração");
+        assertSame(verifiedToken, jwtService.verify(token), "Um token já verificado deve ser reaproveitado do cache");
+    }
+
+    @Test
+    public void shouldNotCacheTokensWithInvalidSignature() {
+        var tokenFromOtherKey = Jwts.builder()
+                .subject("teste@email.com")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor(new StringBuilder(SECRET).reverse().toString().getBytes()))
+                .compact();
+
+        assertThrows(SignatureException.class, () -> jwtService.verify(tokenFromOtherKey));
+        assertThrows(SignatureException.class, () -> jwtService.verify(tokenFromOtherKey),
+                "Um token com assinatura inválida deve ser rejeitado em todas as tentativas");
+    }
+
 }
@@ -0,0 +1,82 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.entities.Inventory;
+import edu.infnet.inventorize.exceptions.custom.UnauthorizedRequestException;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OwnershipMemoTest {
+    private final OwnershipMemo ownershipMemo = new OwnershipMemo();
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void shouldVerifyOnlyOncePerRequest() {
+        startRequest();
+        var inventoryId = UUID.randomUUID();
+        var verifications = new AtomicInteger();
+
+        var first = ownershipMemo.verified(Inventory.class, inventoryId, () -> createInventory(inventoryId, verifications));
+        var second = ownershipMemo.verified(Inventory.class, inventoryId, () -> createInventory(inventoryId, verifications));
+
+        assertEquals(1, verifications.get(), "A verificação deve ser executada uma única vez na requisição");
+        assertSame(first, second, "A entidade verificada deve ser reaproveitada");
+
+        startRequest();
+        ownershipMemo.verified(Inventory.class, inventoryId, () -> createInventory(inventoryId, verifications));
+        assertEquals(2, verifications.get(), "Uma nova requisição deve verificar novamente");
+    }
+
+    @Test
+    public void shouldNotMemoizeFailedVerification() {
+        startRequest();
+        var inventoryId = UUID.randomUUID();
+        var verifications = new AtomicInteger();
+
+        assertThrows(UnauthorizedRequestException.class, () -> ownershipMemo.verified(Inventory.class, inventoryId, () -> {
+            verifications.incrementAndGet();
+            throw new UnauthorizedRequestException("Usuário não tem autorização para gerenciar este inventário");
+        }));
+        ownershipMemo.verified(Inventory.class, inventoryId, () -> createInventory(inventoryId, verifications));
+
+        assertEquals(2, verifications.get(), "Uma verificação que falhou não deve ser memorizada");
+    }
+
+    @Test
+    public void shouldVerifyEveryTimeOutsideOfRequest() {
+        var inventoryId = UUID.randomUUID();
+        var verifications = new AtomicInteger();
+
+        ownershipMemo.remember(Inventory.class, inventoryId, createInventory(inventoryId, new AtomicInteger()));
+        ownershipMemo.verified(Inventory.class, inventoryId, () -> createInventory(inventoryId, verifications));
+        ownershipMemo.verified(Inventory.class, inventoryId, () -> createInventory(inventoryId, verifications));
+
+        assertEquals(2, verifications.get(), "Fora de uma requisição nada deve ser memorizado");
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private Inventory createInventory(UUID id, AtomicInteger verifications) {
+        verifications.incrementAndGet();
+        return Inventory.builder()
+                .id(id)
+                .name("Inventário")
+                .build();
+    }
+}
@@ -3,26 +3,35 @@ package edu.infnet.inventorize.services;
 import edu.infnet.inventorize.dto.request.product.PatchProductDTO;
 import edu.infnet.inventorize.dto.request.product.ProductDTO;
 import edu.infnet.inventorize.dto.request.product.UpdateProductDTO;
+import edu.infnet.inventorize.dto.response.CursorPageResponseDTO;
 import edu.infnet.inventorize.dto.response.ProductResponseDTO;
 import edu.infnet.inventorize.entities.AuthUser;
 import edu.infnet.inventorize.entities.Product;
 import edu.infnet.inventorize.enums.Role;
+import edu.infnet.inventorize.exceptions.custom.PreconditionFailedException;
 import edu.infnet.inventorize.exceptions.custom.ProductAlreadyExistsException;
 import edu.infnet.inventorize.exceptions.custom.ProductNotFoundException;
 import edu.infnet.inventorize.exceptions.custom.UnauthorizedRequestException;
 import edu.infnet.inventorize.repository.ProductRepository;
+import edu.infnet.inventorize.services.auth.OwnershipMemo;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -36,6 +45,12 @@ public class ProductServiceTest {
     @Mock
     private AuthenticationService authenticationService;
 
+    @Spy
+    private OwnershipMemo ownershipMemo = new OwnershipMemo();
+
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry(TransactionOperations.withoutTransaction(), 3, Duration.ZERO);
+
     @InjectMocks
     private ProductService productService;
 
@@ -162,6 +177,23 @@ public class ProductServiceTest {
         assertThrows(UnauthorizedRequestException.class, () -> productService.validateOwnershipById(product.getId()));
     }
 
+    @Test
+    public void shouldValidateOwnershipByIdForTokenPrincipal() {
+        var product = mockedProduct();
+        var tokenPrincipal = AuthUser.builder()
+                .id(product.getOwner().getId())
+                .email(product.getOwner().getEmail())
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+
+        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(authenticationService.getAuthenticatedUser()).thenReturn(tokenPrincipal);
+
+        var validatedProduct = productService.validateOwnershipById(product.getId());
+
+        assertEquals(product.getId(), validatedProduct.getId(), "O dono deve ser reconhecido pelo ID, mesmo sem a senha no usuário autenticado");
+    }
+
     @Test
     public void shouldCallCorrectMethodsWhenValidatingOwnership() {
         var product = mockedProduct();
@@ -183,14 +215,41 @@ public class ProductServiceTest {
         var product = mockedProduct();
         var user = mockedUser();
 
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.findOwnedResponseById(product.getId(), user.getId())).thenReturn(Optional.of(ProductResponseDTO.fromProduct(product)));
 
         var productResponseDTO = productService.getById(product.getId());
 
         assertEquals(productResponseDTO.productId(), product.getId(), "O ID do produto encontrado deve ser igual ao do produto mockado");
         assertEquals(productResponseDTO.name(), product.getName(), "O nome do produto encontrado eve ser igual ao do produto mockado");
         assertEquals(productResponseDTO.supplierCode(), product.getSupplierCode(), "O código de fornecedor do produto encontrado deve ser igual ao do produto mockado");
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    public void shouldThrowUnauthorizedWhenGettingProductOfAnotherUser() {
+        var productId = UUID.randomUUID();
+        var user = mockedUser();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.findOwnedResponseById(productId, user.getId())).thenReturn(Optional.empty());
+        when(productRepository.existsById(productId)).thenReturn(true);
+
+        assertThrows(UnauthorizedRequestException.class, () -> productService.getById(productId),
+                "Deve lançar uma exceção quando o produto pertencer a outro usuário");
+    }
+
+    @Test
+    public void shouldThrowNotFoundWhenGettingMissingProductById() {
+        var productId = UUID.randomUUID();
+        var user = mockedUser();
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.findOwnedResponseById(productId, user.getId())).thenReturn(Optional.empty());
+        when(productRepository.existsById(productId)).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.getById(productId),
+                "Deve lançar uma exceção quando o produto não existir");
     }
 
     // TESTE DE RECUPERAR TODOS OS PRODUTOS ----------------------------------------------------------------------------
@@ -200,15 +259,16 @@ public class ProductServiceTest {
         var mockedProductList = mockedProductList();
 
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(productRepository.findAllByOwnerId(user.getId())).thenReturn(mockedProductList);
+        when(productRepository.findPageByOwnerId(user.getId(), Limit.of(51))).thenReturn(toResponseDTOs(mockedProductList));
 
 
-        List<ProductResponseDTO> productResponseDTOList = productService.getAll();
+        CursorPageResponseDTO<ProductResponseDTO> productPage = productService.getAll(50, null);
 
-        assertEquals(productResponseDTOList.size(), mockedProductList.size(), "O tamanho da lista de produtos retornada deve ser igual ao tamanho da lista mockada");
+        assertEquals(productPage.size(), mockedProductList.size(), "O tamanho da página de produtos retornada deve ser igual ao tamanho da lista mockada");
+        assertNull(productPage.nextCursor(), "Não deve haver próxima página quando todos os produtos couberem na página");
         for (int i = 0; i < mockedProductList.size(); i++) {
             assertEquals(
-                    productResponseDTOList.get(i),
+                    productPage.content().get(i),
                     ProductResponseDTO.fromProduct(mockedProductList.get(i)),
                     "O produto retornado na posição " + i + " deve ser igual ao produto mockado na mesma posição"
             );
@@ -216,17 +276,20 @@ public class ProductServiceTest {
     }
 
     @Test
-    public void shouldCallCorrectMethodsWhenGettingAllProducts() {
+    public void shouldCallCorrectMethodsWhenGettingNextPageOfProducts() {
         var user = mockedUser();
         var mockedProductList = mockedProductList();
+        var after = UUID.randomUUID();
 
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(productRepository.findAllByOwnerId(user.getId())).thenReturn(mockedProductList);
+        when(productRepository.findPageByOwnerIdAfter(user.getId(), after, Limit.of(2))).thenReturn(toResponseDTOs(mockedProductList));
 
-        productService.getAll();
+        var productPage = productService.getAll(1, after);
 
+        assertEquals(1, productPage.size(), "A página deve ter o tamanho solicitado");
+        assertEquals(mockedProductList.get(0).getId(), productPage.nextCursor(), "O cursor deve ser o ID do último produto da página");
         verify(authenticationService).getAuthenticatedUser();
-        verify(productRepository).findAllByOwnerId(user.getId());
+        verify(productRepository).findPageByOwnerIdAfter(user.getId(), after, Limit.of(2));
         verifyNoMoreInteractions(authenticationService, productRepository);
     }
 
@@ -259,9 +322,9 @@ public class ProductServiceTest {
 
         when(productRepository.findById(mockedProduct.getId())).thenReturn(Optional.of(mockedProduct));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(updatedProduct);
 
-        var productResponseDTO = productService.updateProduct(mockedProduct.getId(), putProductDTO);
+        var productResponseDTO = productService.updateProduct(mockedProduct.getId(), putProductDTO, null);
 
         assertEquals(productResponseDTO.productId(), mockedProduct.getId());
         assertEquals(productResponseDTO.ownerId(), user.getId());
@@ -282,11 +345,11 @@ public class ProductServiceTest {
 
         when(productRepository.findById(mockedProduct.getId())).thenReturn(Optional.of(mockedProduct));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(updatedProduct);
 
-        productService.updateProduct(mockedProduct.getId(), putProductDTO);
+        productService.updateProduct(mockedProduct.getId(), putProductDTO, null);
 
-        verify(productRepository).save(productCaptor.capture());
+        verify(productRepository).saveAndFlush(productCaptor.capture());
         var savedProduct = productCaptor.getValue();
 
         assertEquals(savedProduct.getId(), mockedProduct.getId());
@@ -307,16 +370,70 @@ public class ProductServiceTest {
 
         when(productRepository.findById(mockedProduct.getId())).thenReturn(Optional.of(mockedProduct));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(updatedProduct);
 
-        productService.updateProduct(mockedProduct.getId(), putProductDTO);
+        productService.updateProduct(mockedProduct.getId(), putProductDTO, null);
 
         verify(productRepository).findById(mockedProduct.getId());
         verify(authenticationService).getAuthenticatedUser();
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).saveAndFlush(any(Product.class));
         verifyNoMoreInteractions(productRepository, authenticationService);
     }
 
+    @Test
+    public void shouldThrowPreconditionFailedWhenVersionIsOutdated() {
+        var putProductDTO = mockedPutProductDTO();
+        var mockedProduct = mockedProduct().toBuilder().version(4L).build();
+        var user = mockedUser();
+
+        when(productRepository.findById(mockedProduct.getId())).thenReturn(Optional.of(mockedProduct));
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(mockedProduct.getId(), putProductDTO, 3L),
+                "Deve lançar exceção quando a versão informada for diferente da versão atual");
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    public void shouldRetryUpdateWhenAnotherRequestChangedTheProduct() {
+        var putProductDTO = mockedPutProductDTO();
+        var mockedProduct = mockedProduct();
+        var user = mockedUser();
+        var updatedProduct = mockedProduct.toBuilder()
+                .name(putProductDTO.newName())
+                .supplierCode(putProductDTO.newSupplierCode())
+                .build();
+
+        when(productRepository.findById(mockedProduct.getId())).thenReturn(Optional.of(mockedProduct));
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.saveAndFlush(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, mockedProduct.getId()))
+                .thenReturn(updatedProduct);
+
+        var productResponseDTO = productService.updateProduct(mockedProduct.getId(), putProductDTO, null);
+
+        assertEquals(updatedProduct.getName(), productResponseDTO.name(), "A segunda tentativa deve retornar o produto atualizado");
+        verify(ownershipMemo).forget(Product.class, mockedProduct.getId());
+        verify(productRepository, times(2)).findById(mockedProduct.getId());
+        verify(productRepository, times(2)).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttemptsOnRepeatedConflicts() {
+        var putProductDTO = mockedPutProductDTO();
+        var mockedProduct = mockedProduct();
+        var user = mockedUser();
+
+        when(productRepository.findById(mockedProduct.getId())).thenReturn(Optional.of(mockedProduct));
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(productRepository.saveAndFlush(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, mockedProduct.getId()));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productService.updateProduct(mockedProduct.getId(), putProductDTO, null),
+                "O conflito deve ser propagado depois de esgotadas as tentativas");
+        verify(productRepository, times(3)).saveAndFlush(any(Product.class));
+    }
+
     @Test
     public void shouldPatchNameCorrectly() {
         var mockedProduct = mockedProduct();
@@ -332,11 +449,11 @@ public class ProductServiceTest {
 
         when(productRepository.findById(mockedProduct.getId())).thenReturn(Optional.of(mockedProduct));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(updatedProduct);
 
-        productService.patchProduct(mockedProduct.getId(), patchNameDTO);
+        productService.patchProduct(mockedProduct.getId(), patchNameDTO, null);
 
-        verify(productRepository).save(captor.capture());
+        verify(productRepository).saveAndFlush(captor.capture());
         var savedProduct = captor.getValue();
 
         assertEquals(mockedProduct.getId(), savedProduct.getId(), "O ID do produto salvo deve ser o mesmo do produto mockado");
@@ -361,11 +478,11 @@ public class ProductServiceTest {
 
         when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(updatedProduct);
 
-        var productResponseDTO = productService.patchProduct(product.getId(), patchSupplierCodeDTO);
+        var productResponseDTO = productService.patchProduct(product.getId(), patchSupplierCodeDTO, null);
 
-        verify(productRepository).save(captor.capture());
+        verify(productRepository).saveAndFlush(captor.capture());
         var savedProduct = captor.getValue();
 
         assertEquals(product.getId(), savedProduct.getId(), "O ID do produto salvo deve ser o mesmo do produto mockado");
@@ -386,13 +503,13 @@ public class ProductServiceTest {
 
         when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
         when(authenticationService.getAuthenticatedUser()).thenReturn(user);
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(updatedProduct);
 
-        productService.patchProduct(product.getId(), patchProductDTO);
+        productService.patchProduct(product.getId(), patchProductDTO, null);
 
         verify(productRepository).findById(product.getId());
         verify(authenticationService).getAuthenticatedUser();
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).saveAndFlush(any(Product.class));
         verifyNoMoreInteractions(productRepository, authenticationService);
     }
 
@@ -424,6 +541,12 @@ public class ProductServiceTest {
         return ArgumentCaptor.forClass(Product.class);
     }
 
+    private List<ProductResponseDTO> toResponseDTOs(List<Product> products) {
+        return products.stream()
+                .map(ProductResponseDTO::fromProduct)
+                .toList();
+    }
+
     private List<Product> mockedProductList() {
         List<Product> productList = new ArrayList<>();
         for (int i = 0; i < 10; i++) {
@@ -0,0 +1,143 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.entities.AuthUser;
+import edu.infnet.inventorize.entities.RefreshToken;
+import edu.infnet.inventorize.enums.Role;
+import edu.infnet.inventorize.exceptions.custom.InvalidTokenException;
+import edu.infnet.inventorize.repository.RefreshTokenRepository;
+import edu.infnet.inventorize.services.auth.RefreshTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    public void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, Duration.ofDays(14));
+    }
+
+    @Test
+    public void shouldStoreOnlyTheDigestOfIssuedToken() {
+        var user = mockedAuthUser();
+        var tokenCaptor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        var rawToken = refreshTokenService.issue(user);
+
+        verify(refreshTokenRepository).save(tokenCaptor.capture());
+        var stored = tokenCaptor.getValue();
+
+        assertNotEquals(rawToken, stored.getTokenHash(), "O token não deve ser armazenado em texto puro");
+        assertEquals(64, stored.getTokenHash().length(), "O token deve ser armazenado como digest SHA-256");
+        assertEquals(user, stored.getUser(), "O token deve pertencer ao usuário autenticado");
+        assertFalse(stored.isRevoked(), "Um token recém-emitido não deve estar revogado");
+    }
+
+    @Test
+    public void shouldRotateTokenWithinTheSameFamily() {
+        var user = mockedAuthUser();
+        var current = mockedRefreshToken(user, false, Instant.now().plusSeconds(60));
+        var tokenCaptor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(current.getId())).thenReturn(1);
+
+        var rotated = refreshTokenService.rotate("refresh-atual");
+
+        verify(refreshTokenRepository).save(tokenCaptor.capture());
+        assertEquals(user, rotated.user(), "A rotação deve retornar o dono do token");
+        assertNotNull(rotated.refreshToken(), "Um novo refresh token deve ser emitido");
+        assertEquals(current.getFamilyId(), tokenCaptor.getValue().getFamilyId(), "O novo token deve pertencer à mesma família");
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+    }
+
+    @Test
+    public void shouldRevokeFamilyWhenTokenIsReused() {
+        var current = mockedRefreshToken(mockedAuthUser(), true, Instant.now().plusSeconds(60));
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("refresh-reutilizado"),
+                "Deve rejeitar um refresh token já utilizado");
+
+        verify(refreshTokenRepository).revokeFamily(current.getFamilyId());
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    public void shouldRevokeFamilyWhenConcurrentRotationWins() {
+        var current = mockedRefreshToken(mockedAuthUser(), false, Instant.now().plusSeconds(60));
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(current.getId())).thenReturn(0);
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("refresh-concorrente"),
+                "Deve rejeitar um refresh token usado por outra requisição ao mesmo tempo");
+
+        verify(refreshTokenRepository).revokeFamily(current.getFamilyId());
+    }
+
+    @Test
+    public void shouldRejectExpiredToken() {
+        var current = mockedRefreshToken(mockedAuthUser(), false, Instant.now().minusSeconds(1));
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.revokeIfActive(current.getId())).thenReturn(1);
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("refresh-expirado"),
+                "Deve rejeitar um refresh token expirado");
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    public void shouldNotRevokeTokenOfAnotherUser() {
+        var current = mockedRefreshToken(mockedAuthUser(), false, Instant.now().plusSeconds(60));
+
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.revoke("refresh-alheio", UUID.randomUUID()),
+                "Não deve revogar um refresh token de outro usuário");
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private AuthUser mockedAuthUser() {
+        return AuthUser.builder()
+                .id(UUID.fromString("6e399d0f-66ad-4092-97e7-1d755388959f"))
+                .email("test@email.com")
+                .hashPassword("$2a$10$eImiTMZG4ELQ2Z8z5y3jOe")
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+    }
+
+    private RefreshToken mockedRefreshToken(AuthUser user, boolean revoked, Instant expiresAt) {
+        return RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .tokenHash("a".repeat(64))
+                .familyId(UUID.randomUUID())
+                .user(user)
+                .expiresAt(expiresAt)
+                .revoked(revoked)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.entities.RevokedAccessToken;
+import edu.infnet.inventorize.repository.RevokedAccessTokenRepository;
+import edu.infnet.inventorize.services.auth.RevokedTokenRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RevokedTokenRegistryTest {
+    @Mock
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        revokedTokenRegistry = new RevokedTokenRegistry(revokedAccessTokenRepository, 1000, 0.01);
+    }
+
+    @Test
+    public void shouldNotQueryDatabaseForTokensThatWereNeverRevoked() {
+        for (int i = 0; i < 100; i++) revokedTokenRegistry.isRevoked(UUID.randomUUID());
+
+        verify(revokedAccessTokenRepository, atMost(5)).existsById(any());
+    }
+
+    @Test
+    public void shouldReportRevokedToken() {
+        var tokenId = UUID.randomUUID();
+
+        when(revokedAccessTokenRepository.existsById(tokenId)).thenReturn(true);
+
+        revokedTokenRegistry.revoke(tokenId, Instant.now().plusSeconds(900));
+
+        assertTrue(revokedTokenRegistry.isRevoked(tokenId), "Um token revogado deve ser reconhecido");
+        verify(revokedAccessTokenRepository).save(any(RevokedAccessToken.class));
+    }
+
+    @Test
+    public void shouldRebuildFilterFromDatabase() {
+        var tokenIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        when(revokedAccessTokenRepository.findActiveTokenIds(any(Instant.class))).thenReturn(tokenIds);
+        when(revokedAccessTokenRepository.existsById(any())).thenReturn(true);
+
+        revokedTokenRegistry.rebuild();
+
+        tokenIds.forEach(tokenId -> assertTrue(revokedTokenRegistry.isRevoked(tokenId),
+                "Tokens revogados no banco devem ser reconhecidos após a reconstrução"));
+        verify(revokedAccessTokenRepository).deleteExpired(any(Instant.class));
+    }
+}
@@ -0,0 +1,166 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.entities.Item;
+import edu.infnet.inventorize.entities.StockMovement;
+import edu.infnet.inventorize.entities.StockSnapshot;
+import edu.infnet.inventorize.enums.MovementReason;
+import edu.infnet.inventorize.repository.StockMovementRepository;
+import edu.infnet.inventorize.repository.StockSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockLedgerServiceTest {
+    private static final UUID ITEM_ID = UUID.fromString("271baaee-3228-411e-aedd-c1ca58e68cb6");
+    private static final UUID ACTOR_ID = UUID.fromString("4931241e-a79e-44f0-83fd-af904e933f29");
+
+    @Mock
+    private StockMovementRepository movementRepository;
+
+    @Mock
+    private StockSnapshotRepository snapshotRepository;
+
+    private StockLedgerService stockLedgerService;
+
+    @BeforeEach
+    public void setUp() {
+        stockLedgerService = new StockLedgerService(movementRepository, snapshotRepository, 100, 500);
+    }
+
+    @Test
+    public void shouldRecordMovementWithItemVersion() {
+        var captor = ArgumentCaptor.forClass(StockMovement.class);
+
+        stockLedgerService.record(createItem(12, 3L), -4, MovementReason.ADJUSTMENT, ACTOR_ID);
+
+        verify(movementRepository).save(captor.capture());
+        var movement = captor.getValue();
+        assertEquals(ITEM_ID, movement.getItemId());
+        assertEquals(3L, movement.getItemVersion(), "A movimentação deve guardar a versão resultante do item");
+        assertEquals(-4, movement.getDelta());
+        assertEquals(MovementReason.ADJUSTMENT, movement.getReason());
+        assertEquals(ACTOR_ID, movement.getActorId());
+    }
+
+    @Test
+    public void shouldNotRecordMovementWithoutChange() {
+        stockLedgerService.record(createItem(12, 3L), 0, MovementReason.UPDATE, ACTOR_ID);
+
+        verifyNoInteractions(movementRepository);
+    }
+
+    @Test
+    public void shouldReplayMovementsAfterSnapshot() {
+        var item = createItem(12, 9L);
+
+        when(snapshotRepository.findById(ITEM_ID)).thenReturn(Optional.of(createSnapshot(20, 5L)));
+        when(movementRepository.sumBetweenVersions(ITEM_ID, 5L, 9L)).thenReturn(tail(-6, 4));
+
+        var replay = stockLedgerService.replay(item);
+
+        assertEquals(20, replay.snapshotQuantity());
+        assertEquals(4, replay.replayedMovements(), "Apenas as movimentações posteriores ao snapshot devem ser reaplicadas");
+        assertEquals(14, replay.replayedQuantity());
+        assertEquals(12, replay.previousQuantity());
+    }
+
+    @Test
+    public void shouldReplayWholeHistoryWhenThereIsNoSnapshot() {
+        var item = createItem(7, 2L);
+
+        when(snapshotRepository.findById(ITEM_ID)).thenReturn(Optional.empty());
+        when(movementRepository.sumBetweenVersions(ITEM_ID, -1L, 2L)).thenReturn(tail(7, 3));
+
+        var replay = stockLedgerService.replay(item);
+
+        assertEquals(0, replay.snapshotQuantity());
+        assertEquals(7, replay.replayedQuantity(), "Sem snapshot, todo o histórico deve ser reaplicado");
+    }
+
+    @Test
+    public void shouldAdvanceSnapshotToTheVersionReadBeforeTheSum() {
+        var captor = ArgumentCaptor.forClass(StockSnapshot.class);
+
+        when(snapshotRepository.findCompactionCandidates(100L, Limit.of(500))).thenReturn(List.of(candidate(130L)));
+        when(snapshotRepository.findById(ITEM_ID)).thenReturn(Optional.of(createSnapshot(20, 5L)));
+        when(movementRepository.sumBetweenVersions(ITEM_ID, 5L, 130L)).thenReturn(tail(15, 140));
+
+        var compacted = stockLedgerService.compact();
+
+        verify(snapshotRepository).save(captor.capture());
+        assertEquals(1, compacted);
+        assertEquals(35, captor.getValue().getQuantity(), "O snapshot deve somar as movimentações consolidadas");
+        assertEquals(130L, captor.getValue().getItemVersion(), "O snapshot deve avançar até a versão lida do item");
+    }
+
+    @Test
+    public void shouldNotSaveSnapshotsWithoutCandidates() {
+        when(snapshotRepository.findCompactionCandidates(100L, Limit.of(500))).thenReturn(List.of());
+
+        assertEquals(0, stockLedgerService.compact());
+        verify(snapshotRepository, never()).save(any());
+        verifyNoInteractions(movementRepository);
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private Item createItem(int currentQuantity, Long version) {
+        return Item.builder()
+                .id(ITEM_ID)
+                .currentQuantity(currentQuantity)
+                .minimumStockLevel(5)
+                .version(version)
+                .build();
+    }
+
+    private StockSnapshot createSnapshot(int quantity, Long itemVersion) {
+        return StockSnapshot.builder()
+                .itemId(ITEM_ID)
+                .quantity(quantity)
+                .itemVersion(itemVersion)
+                .takenAt(Instant.now())
+                .build();
+    }
+
+    private StockMovementRepository.Tail tail(long delta, long movements) {
+        return new StockMovementRepository.Tail() {
+            @Override
+            public long getDelta() {
+                return delta;
+            }
+
+            @Override
+            public long getMovements() {
+                return movements;
+            }
+        };
+    }
+
+    private StockSnapshotRepository.Candidate candidate(long version) {
+        return new StockSnapshotRepository.Candidate() {
+            @Override
+            public UUID getItemId() {
+                return ITEM_ID;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+        };
+    }
+}
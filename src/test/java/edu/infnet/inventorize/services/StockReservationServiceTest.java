@@ -0,0 +1,151 @@
+package edu.infnet.inventorize.services;
+
+import edu.infnet.inventorize.entities.Item;
+import edu.infnet.inventorize.entities.StockReservation;
+import edu.infnet.inventorize.exceptions.custom.ReservationNotFoundException;
+import edu.infnet.inventorize.repository.ItemRepository;
+import edu.infnet.inventorize.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockReservationServiceTest {
+    private static final UUID FIRST_ITEM_ID = UUID.fromString("271baaee-3228-411e-aedd-c1ca58e68cb6");
+    private static final UUID SECOND_ITEM_ID = UUID.fromString("a015aebc-5388-4aac-9037-21aff2c65390");
+    private static final UUID OWNER_ID = UUID.fromString("4931241e-a79e-44f0-83fd-af904e933f29");
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    public void setUp() {
+        stockReservationService = new StockReservationService(reservationRepository, itemRepository,
+                TransactionOperations.withoutTransaction(), Duration.ofMinutes(10), 3);
+    }
+
+    @Test
+    public void shouldHoldWithDefaultTtlWhenNoneIsInformed() {
+        var captor = ArgumentCaptor.forClass(StockReservation.class);
+        when(reservationRepository.save(any(StockReservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var reservation = stockReservationService.hold(FIRST_ITEM_ID, OWNER_ID, 2, null);
+
+        verify(reservationRepository).save(captor.capture());
+        assertEquals(reservation, captor.getValue());
+        assertEquals(Duration.ofMinutes(10), Duration.between(reservation.getCreatedAt(), reservation.getExpiresAt()));
+        assertEquals(2, reservation.getQuantity());
+    }
+
+    @Test
+    public void shouldReleaseExpiredReservationsWithOneUpdatePerItem() {
+        var expired = List.of(
+                createReservation(SECOND_ITEM_ID, 4),
+                createReservation(FIRST_ITEM_ID, 2),
+                createReservation(FIRST_ITEM_ID, 1));
+        when(reservationRepository.findExpiredForUpdate(any(Instant.class), eq(Limit.of(3)))).thenReturn(expired, List.of());
+        when(itemRepository.findAllByIdsForUpdate(Set.of(FIRST_ITEM_ID, SECOND_ITEM_ID)))
+                .thenReturn(List.of(createItem(FIRST_ITEM_ID), createItem(SECOND_ITEM_ID)));
+        when(itemRepository.releaseReservedQuantity(any(UUID.class), anyInt())).thenReturn(1);
+
+        var released = stockReservationService.releaseExpired();
+
+        assertEquals(3, released);
+        var order = inOrder(itemRepository);
+        order.verify(itemRepository).findAllByIdsForUpdate(Set.of(FIRST_ITEM_ID, SECOND_ITEM_ID));
+        order.verify(itemRepository).releaseReservedQuantity(FIRST_ITEM_ID, 3);
+        order.verify(itemRepository).releaseReservedQuantity(SECOND_ITEM_ID, 4);
+        verify(itemRepository, times(2)).releaseReservedQuantity(any(UUID.class), anyInt());
+        verify(reservationRepository).deleteAllByIdInBatch(expired.stream().map(StockReservation::getId).toList());
+    }
+
+    @Test
+    public void shouldStopSweepingAfterAPartialBatch() {
+        when(reservationRepository.findExpiredForUpdate(any(Instant.class), eq(Limit.of(3))))
+                .thenReturn(List.of(createReservation(FIRST_ITEM_ID, 1), createReservation(FIRST_ITEM_ID, 1), createReservation(FIRST_ITEM_ID, 1)),
+                        List.of(createReservation(SECOND_ITEM_ID, 5)));
+        when(itemRepository.findAllByIdsForUpdate(Set.of(FIRST_ITEM_ID))).thenReturn(List.of(createItem(FIRST_ITEM_ID)));
+        when(itemRepository.findAllByIdsForUpdate(Set.of(SECOND_ITEM_ID))).thenReturn(List.of(createItem(SECOND_ITEM_ID)));
+        when(itemRepository.releaseReservedQuantity(any(UUID.class), anyInt())).thenReturn(1);
+
+        var released = stockReservationService.releaseExpired();
+
+        assertEquals(4, released);
+        verify(reservationRepository, times(2)).findExpiredForUpdate(any(Instant.class), eq(Limit.of(3)));
+    }
+
+    @Test
+    public void shouldNotSweepWhenNothingExpired() {
+        when(reservationRepository.findExpiredForUpdate(any(Instant.class), eq(Limit.of(3)))).thenReturn(List.of());
+
+        assertEquals(0, stockReservationService.releaseExpired());
+        verifyNoInteractions(itemRepository);
+        verify(reservationRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    public void shouldNotClaimExpiredReservationForCommit() {
+        var reservation = createReservation(FIRST_ITEM_ID, 2);
+        when(reservationRepository.findOwnedByIdForUpdate(reservation.getId(), FIRST_ITEM_ID, OWNER_ID)).thenReturn(Optional.of(reservation));
+
+        var exception = assertThrows(ReservationNotFoundException.class,
+                () -> stockReservationService.claimActive(FIRST_ITEM_ID, reservation.getId(), OWNER_ID));
+
+        assertTrue(exception.getMessage().contains("expirou"));
+        verify(reservationRepository, never()).delete(any(StockReservation.class));
+    }
+
+    @Test
+    public void shouldClaimExpiredReservationForRelease() {
+        var reservation = createReservation(FIRST_ITEM_ID, 2);
+        when(reservationRepository.findOwnedByIdForUpdate(reservation.getId(), FIRST_ITEM_ID, OWNER_ID)).thenReturn(Optional.of(reservation));
+
+        var claimed = stockReservationService.claim(FIRST_ITEM_ID, reservation.getId(), OWNER_ID);
+
+        assertEquals(reservation, claimed);
+        verify(reservationRepository).delete(reservation);
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private Item createItem(UUID itemId) {
+        return Item.builder()
+                .id(itemId)
+                .build();
+    }
+
+    private StockReservation createReservation(UUID itemId, int quantity) {
+        return StockReservation.builder()
+                .id(UUID.randomUUID())
+                .itemId(itemId)
+                .ownerId(OWNER_ID)
+                .quantity(quantity)
+                .expiresAt(Instant.now().minusSeconds(30))
+                .createdAt(Instant.now().minusSeconds(630))
+                .build();
+    }
+}
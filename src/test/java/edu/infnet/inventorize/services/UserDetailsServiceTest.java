@@ -3,32 +3,44 @@ package edu.infnet.inventorize.services;
 import edu.infnet.inventorize.entities.AuthUser;
 import edu.infnet.inventorize.repository.AuthUserRepository;
 import edu.infnet.inventorize.security.auth.UserDetailsImpl;
+import edu.infnet.inventorize.services.auth.PrincipalCache;
 import edu.infnet.inventorize.services.auth.UserDetailsServiceImpl;
 import edu.infnet.inventorize.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class UserDetailsServiceTest {
     @Mock
     private AuthUserRepository userRepository;
 
-    @InjectMocks
+    private PrincipalCache principalCache;
+    private SimpleMeterRegistry meterRegistry;
     private UserDetailsServiceImpl userDetailsService;
 
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(Duration.ofMinutes(5), 100, meterRegistry);
+        userDetailsService = new UserDetailsServiceImpl(userRepository, principalCache);
+    }
+
     @Test
     public void shouldLoadUserByEmailCorrectly() {
         var user = AuthUser.builder()
@@ -70,4 +82,80 @@ public class UserDetailsServiceTest {
 
         assertEquals(String.format("Usuário não encontrado com o [EMAIL: %s]: ", user.getEmail()), usernameNotFoundException.getMessage());
     }
+
+    @Test
+    public void shouldServeRepeatedLoadsFromCache() {
+        var user = mockedAuthUser();
+
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        var first = userDetailsService.loadUserByUsername(user.getEmail());
+        var second = userDetailsService.loadUserByUsername(user.getEmail());
+
+        assertSame(first, second, "O segundo carregamento deve vir do cache");
+        verify(userRepository, times(1)).findByEmail(user.getEmail());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit").functionCounter().count(),
+                "O acerto no cache deve ser registrado nas métricas");
+    }
+
+    @Test
+    public void shouldReloadUserAfterEviction() {
+        var user = mockedAuthUser();
+        var promotedUser = AuthUser.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .hashPassword(user.getHashPassword())
+                .roles(Set.of(Role.ROLE_USER, Role.ROLE_ADMIN))
+                .build();
+
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user), Optional.of(promotedUser));
+
+        userDetailsService.loadUserByUsername(user.getEmail());
+        principalCache.evict(user.getEmail());
+        var reloaded = (UserDetailsImpl) userDetailsService.loadUserByUsername(user.getEmail());
+
+        assertEquals(promotedUser.getRoles(), reloaded.getAuthUser().getRoles(), "Após a invalidação os papéis devem refletir o banco");
+        verify(userRepository, times(2)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    public void shouldNotCacheMissingUsers() {
+        var user = mockedAuthUser();
+
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.empty(), Optional.of(user));
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(user.getEmail()));
+        var userDetails = userDetailsService.loadUserByUsername(user.getEmail());
+
+        assertEquals(user.getEmail(), userDetails.getUsername(), "Um usuário cadastrado após uma busca sem resultado deve ser encontrado");
+    }
+
+    @Test
+    public void shouldSaveNewHashAndEvictCacheWhenUpdatingPassword() {
+        var user = mockedAuthUser();
+        var newHash = "$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW";
+
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.save(any(AuthUser.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var cached = userDetailsService.loadUserByUsername(user.getEmail());
+        var updated = (UserDetailsImpl) userDetailsService.updatePassword(cached, newHash);
+        userDetailsService.loadUserByUsername(user.getEmail());
+
+        assertEquals(newHash, updated.getPassword(), "O usuário retornado deve ter o novo hash");
+        assertEquals(user.getId(), updated.getAuthUser().getId(), "O ID do usuário deve ser mantido");
+        assertEquals(user.getRoles(), updated.getAuthUser().getRoles(), "Os papéis do usuário devem ser mantidos");
+        verify(userRepository, times(2)).findByEmail(user.getEmail());
+    }
+
+    // Métodos auxiliares -----------------------
+
+    private AuthUser mockedAuthUser() {
+        return AuthUser.builder()
+                .id(UUID.fromString("96f1e8b9-1647-4050-a45f-5ea67fcf752d"))
+                .email("teste@email.com")
+                .hashPassword("e98a6c0f43b26d7d80b5c28b9765221f")
+                .roles(Set.of(Role.ROLE_USER))
+                .build();
+    }
 }